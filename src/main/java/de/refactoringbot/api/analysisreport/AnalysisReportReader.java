@@ -0,0 +1,48 @@
+package de.refactoringbot.api.analysisreport;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * This class reads issues from analysis report files that were created
+ * outside of the bot, e.g. SARIF files of a CI build or issue exports of
+ * SonarQube.
+ */
+@Component
+public class AnalysisReportReader {
+
+	@Autowired
+	ObjectMapper mapper;
+
+	/**
+	 * This method opens a report and returns an iterator that reads its issues
+	 * while it is iterated. The report is closed when the iterator is exhausted or
+	 * closed.
+	 * 
+	 * @param report
+	 * @return issues
+	 * @throws IOException
+	 */
+	public ReportIssueIterator readIssues(Path report) throws IOException {
+		return new ReportIssueIterator(mapper, mapper.getFactory().createParser(Files.newInputStream(report)));
+	}
+
+	/**
+	 * This method checks if a report exists and can be read.
+	 * 
+	 * @param reportPath
+	 * @throws IOException
+	 */
+	public void checkReport(String reportPath) throws IOException {
+		if (!Files.isReadable(Paths.get(reportPath))) {
+			throw new IOException("Analysis report '" + reportPath + "' does not exist or is not readable!");
+		}
+	}
+}
@@ -0,0 +1,154 @@
+package de.refactoringbot.api.analysisreport;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import de.refactoringbot.model.analysisreport.ReportIssue;
+
+/**
+ * This iterator reads the issues of an analysis report while it is iterated.
+ * SARIF files list their issues in the "results" arrays of their runs,
+ * SonarQube exports in the top level "issues" array. Only one issue is held in
+ * memory at a time.
+ */
+public class ReportIssueIterator implements Iterator<ReportIssue>, Closeable {
+
+	private final ObjectMapper mapper;
+	private final JsonParser parser;
+
+	private boolean inIssueArray;
+	private ReportIssue nextIssue;
+	private boolean finished;
+
+	ReportIssueIterator(ObjectMapper mapper, JsonParser parser) {
+		this.mapper = mapper;
+		this.parser = parser;
+	}
+
+	@Override
+	public boolean hasNext() {
+		if (nextIssue == null && !finished) {
+			try {
+				nextIssue = readNextIssue();
+			} catch (IOException e) {
+				close();
+				throw new UncheckedIOException("Could not read analysis report!", e);
+			}
+			if (nextIssue == null) {
+				close();
+			}
+		}
+		return nextIssue != null;
+	}
+
+	@Override
+	public ReportIssue next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		ReportIssue issue = nextIssue;
+		nextIssue = null;
+		return issue;
+	}
+
+	@Override
+	public void close() {
+		finished = true;
+		try {
+			parser.close();
+		} catch (IOException e) {
+			// Nothing left to read
+		}
+	}
+
+	/**
+	 * This method moves the parser to the next issue and reads it.
+	 * 
+	 * @return issue or null if the report has no more issues
+	 * @throws IOException
+	 */
+	private ReportIssue readNextIssue() throws IOException {
+		JsonToken token;
+		while ((token = parser.nextToken()) != null) {
+			if (inIssueArray) {
+				if (token == JsonToken.START_OBJECT) {
+					ReportIssue issue = readIssue(mapper.readTree(parser));
+					if (issue != null) {
+						return issue;
+					}
+				} else if (token == JsonToken.END_ARRAY) {
+					inIssueArray = false;
+				}
+			} else if (token == JsonToken.FIELD_NAME) {
+				String field = parser.getCurrentName();
+				if (("results".equals(field) || "issues".equals(field))
+						&& parser.nextToken() == JsonToken.START_ARRAY) {
+					inIssueArray = true;
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * This method reads an issue of a SARIF file or a SonarQube export.
+	 * 
+	 * @param node
+	 * @return issue or null if the issue has no location
+	 */
+	private ReportIssue readIssue(JsonNode node) {
+		ReportIssue issue = new ReportIssue();
+		if (node.has("ruleId")) {
+			// SARIF result
+			JsonNode location = node.path("locations").path(0).path("physicalLocation");
+			issue.setRule(node.path("ruleId").asText());
+			issue.setMessage(node.path("message").path("text").asText(null));
+			issue.setFilePath(location.path("artifactLocation").path("uri").asText(null));
+			issue.setLine(location.path("region").path("startLine").isInt()
+					? location.path("region").path("startLine").asInt()
+					: null);
+			issue.setKey(getSarifKey(node, issue));
+		} else {
+			// SonarQube issue
+			String component = node.path("component").asText(null);
+			issue.setKey(node.path("key").asText(null));
+			issue.setRule(node.path("rule").asText(null));
+			issue.setMessage(node.path("message").asText(null));
+			issue.setFilePath(component != null ? component.substring(component.indexOf(':') + 1) : null);
+			issue.setLine(node.path("line").isInt() ? node.path("line").asInt() : null);
+			issue.setCreationDate(node.path("creationDate").asText(null));
+		}
+
+		if (issue.getRule() == null || issue.getFilePath() == null) {
+			return null;
+		}
+		return issue;
+	}
+
+	/**
+	 * This method returns a stable key of a SARIF result, so that the same issue
+	 * is recognized in later reports.
+	 * 
+	 * @param node
+	 * @param issue
+	 * @return key
+	 */
+	private String getSarifKey(JsonNode node, ReportIssue issue) {
+		if (node.hasNonNull("guid")) {
+			return node.get("guid").asText();
+		}
+		Iterator<JsonNode> fingerprints = node.path("partialFingerprints").elements();
+		if (fingerprints.hasNext()) {
+			return fingerprints.next().asText();
+		}
+		return issue.getRule() + ":" + issue.getFilePath() + ":" + issue.getLine();
+	}
+}
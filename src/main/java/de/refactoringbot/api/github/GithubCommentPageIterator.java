@@ -0,0 +1,97 @@
+package de.refactoringbot.api.github;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import de.refactoringbot.model.configuration.GitConfiguration;
+import de.refactoringbot.model.github.pullrequestcomment.GitHubPullRequestComments;
+import de.refactoringbot.model.github.pullrequestcomment.SlimPullRequestComment;
+import de.refactoringbot.model.output.botpullrequest.BotPullRequest;
+import de.refactoringbot.model.output.botpullrequestcomment.RequestComment;
+import de.refactoringbot.model.output.botpullrequestcomment.RequestCommentIterator;
+import de.refactoringbot.services.github.GithubObjectTranslator;
+
+/**
+ * This iterator reads the review comments of a whole repository page by page
+ * while it is iterated. The comments are ordered by their creation. Only new
+ * comments of open requests are returned.
+ */
+public class GithubCommentPageIterator implements RequestCommentIterator {
+
+	private final GithubDataGrabber grabber;
+	private final GithubObjectTranslator translator;
+	private final GitConfiguration gitConfig;
+	private final Map<String, BotPullRequest> openRequestsByUrl;
+	private final long lastId;
+
+	private URI nextPage;
+	private Iterator<SlimPullRequestComment> currentPage = Collections.emptyIterator();
+	private RequestComment nextComment;
+
+	/**
+	 * @param grabber
+	 * @param translator
+	 * @param gitConfig
+	 * @param openRequestsByUrl
+	 *            open requests by their API-URL
+	 * @param firstPage
+	 * @param lastId
+	 *            comments up to this id are skipped
+	 */
+	public GithubCommentPageIterator(GithubDataGrabber grabber, GithubObjectTranslator translator,
+			GitConfiguration gitConfig, Map<String, BotPullRequest> openRequestsByUrl, URI firstPage, long lastId) {
+		this.grabber = grabber;
+		this.translator = translator;
+		this.gitConfig = gitConfig;
+		this.openRequestsByUrl = openRequestsByUrl;
+		this.nextPage = firstPage;
+		this.lastId = lastId;
+	}
+
+	@Override
+	public boolean hasNext() {
+		while (nextComment == null) {
+			if (!currentPage.hasNext()) {
+				if (nextPage == null) {
+					return false;
+				}
+				loadNextPage();
+				continue;
+			}
+
+			SlimPullRequestComment githubComment = currentPage.next();
+			BotPullRequest request = openRequestsByUrl.get(githubComment.getPullRequestUrl());
+			// 'since' also returns older comments that were edited
+			if (request != null && githubComment.getId() > lastId) {
+				nextComment = new RequestComment(request, translator.translatePullRequestComment(githubComment));
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public RequestComment next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		RequestComment comment = nextComment;
+		nextComment = null;
+		return comment;
+	}
+
+	/**
+	 * This method reads the next page of comments from Github.
+	 */
+	private void loadNextPage() {
+		try {
+			GitHubPullRequestComments page = grabber.getPullRequestCommentsPage(nextPage, gitConfig);
+			currentPage = page.getComments().iterator();
+			nextPage = page.getNextPage();
+		} catch (Exception e) {
+			throw new IllegalStateException("Could not get pull request comments from Github!", e);
+		}
+	}
+}
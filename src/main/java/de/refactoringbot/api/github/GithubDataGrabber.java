@@ -1,25 +1,36 @@
 package de.refactoringbot.api.github;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import de.refactoringbot.api.github.GithubResponseCache.CachedResponse;
 import de.refactoringbot.configuration.BotConfiguration;
 import de.refactoringbot.model.configuration.GitConfiguration;
 import de.refactoringbot.model.exceptions.BotRefactoringException;
@@ -27,12 +38,12 @@ import de.refactoringbot.model.exceptions.GitHubAPIException;
 import de.refactoringbot.model.exceptions.ValidationException;
 import de.refactoringbot.model.github.fork.GithubFork;
 import de.refactoringbot.model.github.pullrequest.GithubCreateRequest;
-import de.refactoringbot.model.github.pullrequest.GithubPullRequest;
 import de.refactoringbot.model.github.pullrequest.GithubPullRequests;
 import de.refactoringbot.model.github.pullrequest.GithubUpdateRequest;
+import de.refactoringbot.model.github.pullrequest.SlimPullRequest;
 import de.refactoringbot.model.github.pullrequestcomment.GitHubPullRequestComments;
-import de.refactoringbot.model.github.pullrequestcomment.PullRequestComment;
 import de.refactoringbot.model.github.pullrequestcomment.ReplyComment;
+import de.refactoringbot.model.github.pullrequestcomment.SlimPullRequestComment;
 import de.refactoringbot.model.github.repository.GithubRepository;
 import de.refactoringbot.model.github.user.GithubUser;
 
@@ -49,10 +60,21 @@ public class GithubDataGrabber {
 	ObjectMapper mapper;
 	@Autowired
 	BotConfiguration botConfig;
+	@Autowired
+	RestTemplate rest;
+	@Autowired
+	GithubResponseCache responseCache;
+	@Autowired
+	GithubRequestScheduler requestScheduler;
+	@Autowired
+	@Qualifier("apiExecutor")
+	ExecutorService apiExecutor;
 
 	private static final Logger logger = LoggerFactory.getLogger(GithubDataGrabber.class);
 
 	private static final String USER_AGENT = "Mozilla/5.0";
+	/** Maximum page size of the Github-API */
+	private static final int PAGE_SIZE = 100;
 
 	/**
 	 * This method tries to get a repository from github.
@@ -72,8 +94,6 @@ public class GithubDataGrabber {
 
 		URI githubURI = apiUriBuilder.build().encode().toUri();
 
-		// Create REST-Template
-		RestTemplate rest = new RestTemplate();
 		// Baue Header
 		HttpHeaders headers = new HttpHeaders();
 		headers.set("User-Agent", USER_AGENT);
@@ -106,8 +126,6 @@ public class GithubDataGrabber {
 
 		URI githubURI = apiUriBuilder.build().encode().toUri();
 
-		// Create REST-Template
-		RestTemplate rest = new RestTemplate();
 		// Build Header
 		HttpHeaders headers = new HttpHeaders();
 		headers.set("User-Agent", USER_AGENT);
@@ -156,8 +174,6 @@ public class GithubDataGrabber {
 		apiUriBuilder.queryParam("access_token", gitConfig.getBotToken());
 
 		URI pullsUri = apiUriBuilder.build().encode().toUri();
-		// Create REST-Template
-		RestTemplate rest = new RestTemplate();
 		// Create Header
 		HttpHeaders headers = new HttpHeaders();
 		headers.set("User-Agent", USER_AGENT);
@@ -170,7 +186,8 @@ public class GithubDataGrabber {
 					"Issue was already refactored in the past! The bot database might have been resetted but not the fork itself.");
 		} catch (RestClientException e) {
 			// If branch does not exist -> return
-			if (e.getMessage().equals("404 Not Found")) {
+			if (e instanceof HttpClientErrorException
+					&& ((HttpClientErrorException) e).getStatusCode() == HttpStatus.NOT_FOUND) {
 				return;
 			}
 			logger.error(e.getMessage(), e);
@@ -195,37 +212,71 @@ public class GithubDataGrabber {
 		UriComponentsBuilder apiUriBuilder = UriComponentsBuilder.newInstance().scheme(configUri.getScheme())
 				.host(configUri.getHost()).path(configUri.getPath() + "/pulls");
 
+		apiUriBuilder.queryParam("per_page", PAGE_SIZE);
 		apiUriBuilder.queryParam("access_token", gitConfig.getBotToken());
 
 		URI pullsUri = apiUriBuilder.build().encode().toUri();
-		// Create REST-Template
-		RestTemplate rest = new RestTemplate();
-		// Create Header
-		HttpHeaders headers = new HttpHeaders();
-		headers.set("User-Agent", USER_AGENT);
-		HttpEntity<String> entity = new HttpEntity<>("parameters", headers);
-		// Send Request to the GitHub-API
-		String json = null;
-		try {
-			json = rest.exchange(pullsUri, HttpMethod.GET, entity, String.class).getBody();
-		} catch (RestClientException e) {
-			logger.error(e.getMessage(), e);
-			throw new GitHubAPIException("Could not get Pull-Requests from Github!", e);
-		}
+		// Send Requests to the GitHub-API
+		List<SlimPullRequest> requestList = getPages(pullsUri, gitConfig.getBotToken(), SlimPullRequest.class,
+				"Could not get Pull-Requests from Github!", Integer.MAX_VALUE);
 
 		// Create request object
 		GithubPullRequests allRequests = new GithubPullRequests();
+		allRequests.setAllPullRequests(requestList);
+		return allRequests;
+	}
 
-		// Try to map json to object
-		try {
-			List<GithubPullRequest> requestList = mapper.readValue(json,
-					mapper.getTypeFactory().constructCollectionType(List.class, GithubPullRequest.class));
-			allRequests.setAllPullRequests(requestList);
-			return allRequests;
-		} catch (IOException e) {
-			logger.error(e.getMessage(), e);
-			throw new IOException("Could not create object from Github-Request json!", e);
+	/**
+	 * This method returns the closed or merged PullRequests from Github that were
+	 * updated since the given time. The requests are read most recently updated
+	 * first, so no further pages are read once a page reaches older requests.
+	 * 
+	 * @param gitConfig
+	 * @param since
+	 *            ISO 8601 timestamp or null for all closed requests
+	 * @return closedRequests
+	 * @throws URISyntaxException
+	 * @throws GitHubAPIException
+	 * @throws IOException
+	 */
+	@SuppressWarnings("unchecked")
+	public GithubPullRequests getClosedPullRequests(GitConfiguration gitConfig, String since)
+			throws URISyntaxException, GitHubAPIException, IOException {
+		// Read URI from configuration
+		URI configUri = createURIFromApiLink(gitConfig.getRepoApiLink());
+
+		// Build URI
+		UriComponentsBuilder apiUriBuilder = UriComponentsBuilder.newInstance().scheme(configUri.getScheme())
+				.host(configUri.getHost()).path(configUri.getPath() + "/pulls");
+
+		apiUriBuilder.queryParam("state", "closed");
+		apiUriBuilder.queryParam("sort", "updated");
+		apiUriBuilder.queryParam("direction", "desc");
+		apiUriBuilder.queryParam("per_page", PAGE_SIZE);
+		apiUriBuilder.queryParam("access_token", gitConfig.getBotToken());
+
+		URI pullsUri = apiUriBuilder.build().encode().toUri();
+		// Send Requests to the GitHub-API until the known requests are reached
+		JavaType listType = mapper.getTypeFactory().constructCollectionType(List.class, SlimPullRequest.class);
+		Instant sinceDate = since != null ? Instant.parse(since) : null;
+		List<SlimPullRequest> requestList = new ArrayList<>();
+		URI pageUri = pullsUri;
+		while (pageUri != null) {
+			CachedResponse page = getPage(pageUri, gitConfig.getBotToken(), listType,
+					"Could not get closed Pull-Requests from Github!");
+			List<SlimPullRequest> requests = (List<SlimPullRequest>) page.getBody();
+			requestList.addAll(requests);
+			if (sinceDate != null && requests.stream().anyMatch(request -> request.getUpdatedAt() != null
+					&& Instant.parse(request.getUpdatedAt()).isBefore(sinceDate))) {
+				break;
+			}
+			pageUri = page.getNextPage();
 		}
+
+		// Create request object
+		GithubPullRequests closedRequests = new GithubPullRequests();
+		closedRequests.setAllPullRequests(requestList);
+		return closedRequests;
 	}
 
 	/**
@@ -241,36 +292,114 @@ public class GithubDataGrabber {
 		UriComponentsBuilder apiUriBuilder = UriComponentsBuilder.newInstance().scheme(commentsUri.getScheme())
 				.host(commentsUri.getHost()).path(commentsUri.getPath());
 
+		apiUriBuilder.queryParam("per_page", PAGE_SIZE);
 		apiUriBuilder.queryParam("access_token", gitConfig.getBotToken());
 
 		URI githubURI = apiUriBuilder.build().encode().toUri();
-		// Create REST-Template
-		RestTemplate rest = new RestTemplate();
-		// Create Header
-		HttpHeaders headers = new HttpHeaders();
-		headers.set("User-Agent", USER_AGENT);
-		HttpEntity<String> entity = new HttpEntity<>("parameters", headers);
-		// Send request to the GitHub-API
-		String json = null;
-		try {
-			json = rest.exchange(githubURI, HttpMethod.GET, entity, String.class).getBody();
-		} catch (RestClientException r) {
-			throw new GitHubAPIException("Could not get pull request comments from Github!", r);
-		}
+		// Send requests to the GitHub-API
+		List<SlimPullRequestComment> commentList = getPages(githubURI, gitConfig.getBotToken(),
+				SlimPullRequestComment.class, "Could not get pull request comments from Github!", Integer.MAX_VALUE);
 
 		// Create comments object
 		GitHubPullRequestComments allComments = new GitHubPullRequestComments();
+		allComments.setComments(commentList);
+		return allComments;
+	}
+
+	/**
+	 * This method returns the URI of the first page of the review comments of a
+	 * repository that were created or updated since the given time, ordered by
+	 * their creation.
+	 * 
+	 * @param gitConfig
+	 * @param since
+	 *            ISO 8601 timestamp or null for all comments
+	 * @return firstPage
+	 * @throws URISyntaxException
+	 */
+	public URI createCommentsSinceURI(GitConfiguration gitConfig, String since) throws URISyntaxException {
+		// Read URI from configuration
+		URI configUri = createURIFromApiLink(gitConfig.getRepoApiLink());
+
+		// Build URI
+		UriComponentsBuilder apiUriBuilder = UriComponentsBuilder.newInstance().scheme(configUri.getScheme())
+				.host(configUri.getHost()).path(configUri.getPath() + "/pulls/comments");
+
+		apiUriBuilder.queryParam("sort", "created");
+		apiUriBuilder.queryParam("direction", "asc");
+		if (since != null) {
+			apiUriBuilder.queryParam("since", since);
+		}
+		apiUriBuilder.queryParam("per_page", PAGE_SIZE);
+		apiUriBuilder.queryParam("access_token", gitConfig.getBotToken());
+
+		return apiUriBuilder.build().encode().toUri();
+	}
+
+	/**
+	 * This method returns one page of review comments from Github together with
+	 * the link to the next page.
+	 * 
+	 * @param pageUri
+	 * @param gitConfig
+	 * @return comments
+	 * @throws GitHubAPIException
+	 * @throws IOException
+	 */
+	@SuppressWarnings("unchecked")
+	public GitHubPullRequestComments getPullRequestCommentsPage(URI pageUri, GitConfiguration gitConfig)
+			throws GitHubAPIException, IOException {
+		// Send request to the GitHub-API
+		CachedResponse page = getPage(pageUri, gitConfig.getBotToken(),
+				mapper.getTypeFactory().constructCollectionType(List.class, SlimPullRequestComment.class),
+				"Could not get pull request comments from Github!");
+
+		// Create comments object
+		GitHubPullRequestComments comments = new GitHubPullRequestComments();
+		comments.setComments((List<SlimPullRequestComment>) page.getBody());
+		comments.setNextPage(page.getNextPage());
+		return comments;
+	}
+
+	/**
+	 * This method returns the comments of multiple pull requests from Github. The
+	 * comments of the different pull requests are requested concurrently.
+	 * 
+	 * @param commentsUris
+	 * @param gitConfig
+	 * @return allComments in the order of the given URIs
+	 * @throws GitHubAPIException
+	 * @throws IOException
+	 */
+	public List<GitHubPullRequestComments> getAllPullRequestComments(List<URI> commentsUris,
+			GitConfiguration gitConfig) throws GitHubAPIException, IOException {
+		// Start all requests
+		List<Future<GitHubPullRequestComments>> futures = new ArrayList<>();
+		for (URI commentsUri : commentsUris) {
+			futures.add(apiExecutor.submit(() -> getAllPullRequestComments(commentsUri, gitConfig)));
+		}
 
-		// Try to map json to object
+		// Collect results
+		List<GitHubPullRequestComments> allComments = new ArrayList<>();
 		try {
-			List<PullRequestComment> commentList = mapper.readValue(json,
-					mapper.getTypeFactory().constructCollectionType(List.class, PullRequestComment.class));
-			allComments.setComments(commentList);
-			return allComments;
-		} catch (IOException e) {
-			logger.error(e.getMessage(), e);
-			throw new IOException("Could not create object from Github-Comment json!", e);
+			for (Future<GitHubPullRequestComments> future : futures) {
+				allComments.add(future.get());
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new GitHubAPIException("Interrupted while getting pull request comments from Github!", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof GitHubAPIException) {
+				throw (GitHubAPIException) e.getCause();
+			}
+			if (e.getCause() instanceof IOException) {
+				throw (IOException) e.getCause();
+			}
+			throw new GitHubAPIException("Could not get pull request comments from Github!", e.getCause());
+		} finally {
+			futures.forEach(future -> future.cancel(true));
 		}
+		return allComments;
 	}
 
 	/**
@@ -299,10 +428,6 @@ public class GithubDataGrabber {
 		MediaType mediaType = new MediaType("application", "merge-patch+json");
 		headers.setContentType(mediaType);
 
-		// Create REST-Template
-		HttpComponentsClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory();
-		RestTemplate rest = new RestTemplate(requestFactory);
-
 		// Send request to the GitHub-API
 		try {
 			rest.exchange(pullsUri, HttpMethod.PATCH, new HttpEntity<>(send), String.class);
@@ -333,8 +458,6 @@ public class GithubDataGrabber {
 
 		URI pullsUri = apiUriBuilder.build().encode().toUri();
 
-		RestTemplate rest = new RestTemplate();
-
 		// Send request to Github-API
 		try {
 			rest.exchange(pullsUri, HttpMethod.POST, new HttpEntity<>(comment), String.class);
@@ -351,7 +474,7 @@ public class GithubDataGrabber {
 	 * @throws URISyntaxException
 	 * @throws GitHubAPIException
 	 */
-	public GithubPullRequest createRequest(GithubCreateRequest request, GitConfiguration gitConfig)
+	public SlimPullRequest createRequest(GithubCreateRequest request, GitConfiguration gitConfig)
 			throws URISyntaxException, GitHubAPIException {
 
 		// Read URI from configuration
@@ -365,11 +488,9 @@ public class GithubDataGrabber {
 
 		URI pullsUri = apiUriBuilder.build().encode().toUri();
 
-		RestTemplate rest = new RestTemplate();
-
 		// Send request to the GitHub-API
 		try {
-			return rest.exchange(pullsUri, HttpMethod.POST, new HttpEntity<>(request), GithubPullRequest.class)
+			return rest.exchange(pullsUri, HttpMethod.POST, new HttpEntity<>(request), SlimPullRequest.class)
 					.getBody();
 		} catch (RestClientException r) {
 			throw new GitHubAPIException("Could not create pull request on Github!", r);
@@ -397,9 +518,6 @@ public class GithubDataGrabber {
 
 		URI forksUri = apiUriBuilder.build().encode().toUri();
 
-		// Create REST-Template
-		RestTemplate rest = new RestTemplate();
-
 		// Send request to the Github-API
 		try {
 			rest.exchange(forksUri, HttpMethod.POST, null, GithubFork.class).getBody();
@@ -434,9 +552,6 @@ public class GithubDataGrabber {
 
 		URI repoUri = apiUriBuilder.build().encode().toUri();
 
-		// Create REST-Template
-		RestTemplate rest = new RestTemplate();
-
 		// Send request to the Github-API
 		try {
 			rest.exchange(repoUri, HttpMethod.DELETE, null, String.class);
@@ -445,6 +560,120 @@ public class GithubDataGrabber {
 		}
 	}
 	
+	/**
+	 * This method requests the pages of a list from the Github-API by following
+	 * the 'next' links of the responses.
+	 * 
+	 * @param firstPage
+	 * @param botToken
+	 * @param elementType
+	 * @param errorMessage
+	 * @param maxPages
+	 * @return elements of all requested pages
+	 * @throws GitHubAPIException
+	 * @throws IOException
+	 */
+	@SuppressWarnings("unchecked")
+	private <T> List<T> getPages(URI firstPage, String botToken, Class<T> elementType, String errorMessage,
+			int maxPages) throws GitHubAPIException, IOException {
+		JavaType listType = mapper.getTypeFactory().constructCollectionType(List.class, elementType);
+		List<T> elements = new ArrayList<>();
+		URI pageUri = firstPage;
+		for (int pages = 0; pageUri != null && pages < maxPages; pages++) {
+			CachedResponse page = getPage(pageUri, botToken, listType, errorMessage);
+			elements.addAll((List<T>) page.getBody());
+			pageUri = page.getNextPage();
+		}
+		return elements;
+	}
+
+	/**
+	 * This method sends a conditional GET request to the Github-API. If Github
+	 * answers with '304 Not Modified', the object deserialized from an earlier
+	 * response is returned. Such responses do not count against the rate limit.
+	 * Otherwise the body is parsed directly from the response stream.
+	 * 
+	 * @param uri
+	 * @param botToken
+	 * @param type
+	 * @param errorMessage
+	 * @return page
+	 * @throws GitHubAPIException
+	 * @throws IOException
+	 */
+	private CachedResponse getPage(URI uri, String botToken, JavaType type, String errorMessage)
+			throws GitHubAPIException, IOException {
+		// Create Header
+		HttpHeaders headers = new HttpHeaders();
+		headers.set("User-Agent", USER_AGENT);
+		CachedResponse cachedResponse = responseCache.get(uri, botToken);
+		if (cachedResponse != null && cachedResponse.getETag() != null) {
+			headers.setIfNoneMatch(cachedResponse.getETag());
+		} else if (cachedResponse != null && cachedResponse.getLastModified() != null) {
+			headers.set(HttpHeaders.IF_MODIFIED_SINCE, cachedResponse.getLastModified());
+		}
+
+		// Send request to the GitHub-API and parse the body while it is read
+		CachedResponse page;
+		try {
+			page = rest.execute(uri, HttpMethod.GET, request -> request.getHeaders().putAll(headers), response -> {
+				// Nothing changed since the last request
+				if (cachedResponse != null && response.getStatusCode() == HttpStatus.NOT_MODIFIED) {
+					return cachedResponse;
+				}
+				// Try to map json to object
+				Object body;
+				try {
+					body = mapper.readValue(response.getBody(), type);
+				} catch (JsonProcessingException e) {
+					throw new UncheckedIOException(e);
+				}
+				return new CachedResponse(response.getHeaders().getETag(),
+						response.getHeaders().getFirst(HttpHeaders.LAST_MODIFIED), body,
+						getNextPageLink(response.getHeaders()));
+			});
+		} catch (UncheckedIOException e) {
+			logger.error(e.getMessage(), e);
+			throw new IOException("Could not create object from Github json!", e.getCause());
+		} catch (RestClientException e) {
+			logger.error(e.getMessage(), e);
+			throw new GitHubAPIException(errorMessage, e);
+		}
+
+		if (page != cachedResponse) {
+			responseCache.put(uri, botToken, page);
+		}
+		return page;
+	}
+
+	/**
+	 * This method reads the link to the next page from the 'Link' header of a
+	 * Github response.
+	 * 
+	 * @param headers
+	 * @return nextPage or null if this is the last page
+	 */
+	private URI getNextPageLink(HttpHeaders headers) {
+		String linkHeader = headers.getFirst(HttpHeaders.LINK);
+		if (linkHeader == null) {
+			return null;
+		}
+		// Format: <https://api.github.com/...&page=2>; rel="next", <...>; rel="last"
+		for (String link : linkHeader.split(",")) {
+			String[] segments = link.split(";");
+			if (segments.length < 2) {
+				continue;
+			}
+			for (int i = 1; i < segments.length; i++) {
+				if (segments[i].trim().equals("rel=\"next\"")) {
+					String url = segments[0].trim();
+					return URI.create(url.substring(1, url.length() - 1));
+				}
+			}
+		}
+		return null;
+	}
+
 	/**
 	 * Attempts to instantiate a URI object using the specified API link
 	 * @param link
@@ -459,6 +688,8 @@ public class GithubDataGrabber {
 			logger.error(u.getMessage(), u);
 			throw new URISyntaxException("Could not create URI from given API link!", u.getMessage());
 		}
+		// Schedule the requests to the API of the configuration
+		requestScheduler.addApiHost(result);
 		return result;
 	}
 
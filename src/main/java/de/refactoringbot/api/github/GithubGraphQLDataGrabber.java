@@ -0,0 +1,268 @@
+package de.refactoringbot.api.github;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import de.refactoringbot.model.configuration.GitConfiguration;
+import de.refactoringbot.model.exceptions.GitHubAPIException;
+import de.refactoringbot.model.github.pullrequestcomment.GitHubPullRequestComments;
+import de.refactoringbot.model.output.botpullrequest.BotPullRequest;
+import de.refactoringbot.model.output.botpullrequest.BotPullRequests;
+import de.refactoringbot.model.output.botpullrequestcomment.BotPullRequestComment;
+import de.refactoringbot.services.github.GithubObjectTranslator;
+
+/**
+ * This class reads the open pull requests of a repository together with their
+ * review comments from the GraphQL-API of Github. Instead of one request for
+ * the pull requests and one request per pull request for its comments, only
+ * one request per page of pull requests is sent and only the fields the bot
+ * needs are transferred.
+ */
+@Component
+public class GithubGraphQLDataGrabber {
+
+	@Autowired
+	ObjectMapper mapper;
+	@Autowired
+	RestTemplate rest;
+	@Autowired
+	GithubDataGrabber githubGrabber;
+	@Autowired
+	GithubObjectTranslator githubTranslator;
+	@Autowired
+	GithubRequestScheduler requestScheduler;
+
+	private static final Logger logger = LoggerFactory.getLogger(GithubGraphQLDataGrabber.class);
+
+	private static final String USER_AGENT = "Mozilla/5.0";
+
+	/** Pull requests per page. Kept small because the comments are nested. */
+	private static final int REQUESTS_PER_PAGE = 25;
+	private static final int REVIEWS_PER_REQUEST = 50;
+	private static final int COMMENTS_PER_REVIEW = 100;
+
+	private static final String PULL_REQUESTS_QUERY = "query($owner: String!, $name: String!, $cursor: String) {"
+			+ " repository(owner: $owner, name: $name) {"
+			+ "  pullRequests(states: OPEN, first: " + REQUESTS_PER_PAGE + ", after: $cursor) {"
+			+ "   pageInfo { hasNextPage endCursor }"
+			+ "   nodes {"
+			+ "    number title body url state createdAt updatedAt"
+			+ "    author { login }"
+			+ "    headRefName headRepositoryOwner { login }"
+			+ "    baseRefName baseRepository { nameWithOwner }"
+			+ "    reviews(first: " + REVIEWS_PER_REQUEST + ") {"
+			+ "     pageInfo { hasNextPage }"
+			+ "     nodes {"
+			+ "      comments(first: " + COMMENTS_PER_REVIEW + ") {"
+			+ "       pageInfo { hasNextPage }"
+			+ "       nodes { databaseId path position body createdAt author { login } }"
+			+ "      }"
+			+ "     }"
+			+ "    }"
+			+ "   }"
+			+ "  }"
+			+ " }"
+			+ "}";
+
+	/**
+	 * This method returns all open pull requests of the repository with their
+	 * review comments. The amount of pull requests created by the bot is counted
+	 * from the same response.
+	 * 
+	 * @param gitConfig
+	 * @return botRequests
+	 * @throws GitHubAPIException
+	 * @throws IOException
+	 * @throws URISyntaxException
+	 */
+	public BotPullRequests getRequestsWithComments(GitConfiguration gitConfig)
+			throws GitHubAPIException, IOException, URISyntaxException {
+		BotPullRequests botRequests = new BotPullRequests();
+		int amountOfBotRequests = 0;
+
+		String cursor = null;
+		boolean hasNextPage = true;
+		while (hasNextPage) {
+			JsonNode pullRequests = sendQuery(gitConfig, cursor).path("repository").path("pullRequests");
+
+			for (JsonNode node : pullRequests.path("nodes")) {
+				BotPullRequest pullRequest = translateRequest(node, gitConfig);
+				if (gitConfig.getBotName().equals(pullRequest.getCreatorName())) {
+					amountOfBotRequests++;
+				}
+				botRequests.addPullRequest(pullRequest);
+			}
+
+			hasNextPage = pullRequests.path("pageInfo").path("hasNextPage").asBoolean(false);
+			cursor = pullRequests.path("pageInfo").path("endCursor").asText(null);
+		}
+
+		botRequests.setAmountOfBotRequests(amountOfBotRequests);
+		return botRequests;
+	}
+
+	/**
+	 * This method sends the pull request query for one page to Github.
+	 * 
+	 * @param gitConfig
+	 * @param cursor
+	 * @return data of the response
+	 * @throws GitHubAPIException
+	 * @throws IOException
+	 * @throws URISyntaxException
+	 */
+	private JsonNode sendQuery(GitConfiguration gitConfig, String cursor)
+			throws GitHubAPIException, IOException, URISyntaxException {
+		// Build query
+		Map<String, Object> variables = new HashMap<>();
+		variables.put("owner", gitConfig.getRepoOwner());
+		variables.put("name", gitConfig.getRepoName());
+		variables.put("cursor", cursor);
+		Map<String, Object> query = new HashMap<>();
+		query.put("query", PULL_REQUESTS_QUERY);
+		query.put("variables", variables);
+
+		// Build Header
+		HttpHeaders headers = new HttpHeaders();
+		headers.set("User-Agent", USER_AGENT);
+		headers.set(HttpHeaders.AUTHORIZATION, "bearer " + gitConfig.getBotToken());
+		headers.setContentType(MediaType.APPLICATION_JSON);
+
+		// Send request to the GitHub-API
+		String json = null;
+		try {
+			json = rest.exchange(getGraphQLUri(gitConfig), HttpMethod.POST,
+					new HttpEntity<>(mapper.writeValueAsString(query), headers), String.class).getBody();
+		} catch (RestClientException e) {
+			logger.error(e.getMessage(), e);
+			throw new GitHubAPIException("Could not get Pull-Requests from Github!", e);
+		}
+
+		// GraphQL reports errors with a successful status code
+		JsonNode response;
+		try {
+			response = mapper.readTree(json);
+		} catch (IOException e) {
+			logger.error(e.getMessage(), e);
+			throw new IOException("Could not create object from Github json!", e);
+		}
+		if (response.hasNonNull("errors")) {
+			throw new GitHubAPIException("Could not get Pull-Requests from Github! "
+					+ response.path("errors").path(0).path("message").asText());
+		}
+		return response.path("data");
+	}
+
+	/**
+	 * This method creates the URI of the GraphQL-API from the API link of the
+	 * repository, so that Github Enterprise servers are supported as well. The
+	 * REST-API of Github Enterprise is found at '/api/v3', its GraphQL-API at
+	 * '/api/graphql'.
+	 * 
+	 * @param gitConfig
+	 * @return graphQLUri
+	 * @throws URISyntaxException
+	 */
+	private URI getGraphQLUri(GitConfiguration gitConfig) throws URISyntaxException {
+		URI apiUri = new URI(gitConfig.getRepoApiLink());
+		String apiPath = apiUri.getPath().substring(0, Math.max(apiUri.getPath().indexOf("/repos/"), 0));
+		if (apiPath.endsWith("/v3")) {
+			apiPath = apiPath.substring(0, apiPath.length() - "/v3".length());
+		}
+		requestScheduler.addApiHost(apiUri);
+		return new URI(apiUri.getScheme(), apiUri.getAuthority(), apiPath + "/graphql", null, null);
+	}
+
+	/**
+	 * This method translates a pull request of the GraphQL-API to a
+	 * BotPullRequest.
+	 * 
+	 * @param node
+	 * @param gitConfig
+	 * @return pullRequest
+	 * @throws GitHubAPIException
+	 * @throws IOException
+	 * @throws URISyntaxException
+	 */
+	private BotPullRequest translateRequest(JsonNode node, GitConfiguration gitConfig)
+			throws GitHubAPIException, IOException, URISyntaxException {
+		BotPullRequest pullRequest = new BotPullRequest();
+
+		// Fill request with data
+		pullRequest.setRequestName(node.path("title").asText(null));
+		pullRequest.setRequestDescription(node.path("body").asText(null));
+		pullRequest.setRequestNumber(node.path("number").asInt());
+		pullRequest.setRequestLink(node.path("url").asText(null));
+		pullRequest.setRequestStatus(node.path("state").asText("").toLowerCase());
+		// Deleted users are returned without author
+		pullRequest.setCreatorName(node.path("author").path("login").asText(""));
+		pullRequest.setDateCreated(node.path("createdAt").asText(null));
+		pullRequest.setDateUpdated(node.path("updatedAt").asText(null));
+		pullRequest.setBranchName(node.path("headRefName").asText(null));
+		pullRequest.setBranchCreator(node.path("headRepositoryOwner").path("login").asText(null));
+		pullRequest.setMergeBranchName(node.path("baseRefName").asText(null));
+		pullRequest.setRepoName(node.path("baseRepository").path("nameWithOwner").asText(null));
+
+		// Ask the REST-API for the comments of very long reviews
+		if (hasMoreComments(node.path("reviews"))) {
+			URI commentsUri = new URI(gitConfig.getRepoApiLink() + "/pulls/" + pullRequest.getRequestNumber()
+					+ "/comments");
+			GitHubPullRequestComments githubComments = githubGrabber.getAllPullRequestComments(commentsUri,
+					gitConfig);
+			pullRequest.setAllComments(githubTranslator.translatePullRequestComments(githubComments).getComments());
+			return pullRequest;
+		}
+
+		// Translate comments of all reviews
+		for (JsonNode review : node.path("reviews").path("nodes")) {
+			for (JsonNode comment : review.path("comments").path("nodes")) {
+				BotPullRequestComment translatedComment = new BotPullRequestComment();
+				translatedComment.setCommentID(comment.path("databaseId").asInt());
+				translatedComment.setFilepath(comment.path("path").asText(null));
+				translatedComment.setPosition(comment.hasNonNull("position") ? comment.path("position").asInt() : null);
+				translatedComment.setUsername(comment.path("author").path("login").asText(null));
+				translatedComment.setCommentBody(comment.path("body").asText(null));
+				translatedComment.setDateCreated(comment.path("createdAt").asText(null));
+				pullRequest.getAllComments().add(translatedComment);
+			}
+		}
+
+		return pullRequest;
+	}
+
+	/**
+	 * This method checks if the reviews or comments of a pull request did not
+	 * fit into the response.
+	 * 
+	 * @param reviews
+	 * @return hasMoreComments
+	 */
+	private boolean hasMoreComments(JsonNode reviews) {
+		if (reviews.path("pageInfo").path("hasNextPage").asBoolean(false)) {
+			return true;
+		}
+		for (JsonNode review : reviews.path("nodes")) {
+			if (review.path("comments").path("pageInfo").path("hasNextPage").asBoolean(false)) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,317 @@
+package de.refactoringbot.api.github;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import de.refactoringbot.configuration.BotConfiguration;
+import de.refactoringbot.model.exceptions.GitHubRateLimitException;
+
+/**
+ * This class schedules all requests to the Github-API. It reads the rate limit
+ * headers of the responses and keeps track of the remaining requests of each
+ * token. Once the budget runs low, reading requests are spaced out so that
+ * they fit into the remaining budget and leave a reserve for writing requests (e.g. creating pull requests
+ * or replying to comments). Idempotent requests that hit a rate limit or a
+ * server error are repeated after a randomized backoff. Other writing requests
+ * are only repeated if Github rejected them because of a rate limit, because
+ * Github may have applied them before the error (e.g. a pull request was
+ * created but answered with 502).
+ */
+@Component
+public class GithubRequestScheduler implements ClientHttpRequestInterceptor {
+
+	private static final Logger logger = LoggerFactory.getLogger(GithubRequestScheduler.class);
+
+	private static final String GITHUB_API_HOST = "api.github.com";
+	private static final String LIMIT_HEADER = "X-RateLimit-Limit";
+	private static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+	private static final String RESET_HEADER = "X-RateLimit-Reset";
+	private static final String RETRY_AFTER_HEADER = "Retry-After";
+	private static final String GRAPHQL_PATH = "/graphql";
+
+	/** Github asks for at least one second between content creating requests */
+	private static final long WRITE_INTERVAL_MILLIS = 1000;
+	private static final long BACKOFF_BASE_MILLIS = 1000;
+
+	@Autowired
+	BotConfiguration botConfig;
+
+	private final Map<String, RateLimitBudget> budgets = new ConcurrentHashMap<>();
+	private final Set<String> apiHosts = ConcurrentHashMap.newKeySet();
+
+	public GithubRequestScheduler() {
+		apiHosts.add(GITHUB_API_HOST);
+	}
+
+	/**
+	 * This method registers the host of an API link of a configuration, so that
+	 * the requests to a Github Enterprise server are scheduled as well.
+	 * 
+	 * @param apiUri
+	 */
+	public void addApiHost(URI apiUri) {
+		if (apiUri.getHost() != null) {
+			apiHosts.add(apiUri.getHost().toLowerCase());
+		}
+	}
+
+	@Override
+	public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+			throws IOException {
+		// Only requests to the Github-API are scheduled
+		String host = request.getURI().getHost();
+		if (host == null || !apiHosts.contains(host.toLowerCase())) {
+			return execution.execute(request, body);
+		}
+
+		// GraphQL queries only read data
+		boolean isGraphQL = request.getURI().getPath().endsWith(GRAPHQL_PATH);
+		RateLimitBudget budget = budgets.computeIfAbsent(getToken(request) + " " + getResource(request),
+				key -> new RateLimitBudget());
+		boolean isWrite = !isGraphQL && isWrite(request.getMethod());
+		boolean isIdempotent = isGraphQL || isIdempotent(request.getMethod());
+
+		for (int attempt = 0;; attempt++) {
+			sleep(budget.reserveSlot(isWrite, botConfig.getGithubRateLimitReserve()));
+
+			ClientHttpResponse response = execution.execute(request, body);
+			budget.update(response.getHeaders());
+
+			if (!isRetryable(response, isIdempotent) || attempt >= botConfig.getGithubMaxRetries()) {
+				return response;
+			}
+
+			long delay = getRetryDelay(response.getHeaders(), attempt);
+			logger.warn("Github answered " + response.getRawStatusCode() + " for " + request.getMethod() + " "
+					+ request.getURI().getPath() + ". Retrying in " + delay + " ms.");
+			response.close();
+			sleep(delay);
+		}
+	}
+
+	/**
+	 * This method checks if a request changes data on Github.
+	 * 
+	 * @param method
+	 * @return isWrite
+	 */
+	private boolean isWrite(HttpMethod method) {
+		return method != HttpMethod.GET && method != HttpMethod.HEAD;
+	}
+
+	/**
+	 * This method checks if sending a request twice has the same effect as sending
+	 * it once.
+	 * 
+	 * @param method
+	 * @return isIdempotent
+	 */
+	private boolean isIdempotent(HttpMethod method) {
+		return method == HttpMethod.GET || method == HttpMethod.HEAD || method == HttpMethod.PUT
+				|| method == HttpMethod.DELETE;
+	}
+
+	/**
+	 * This method returns the rate limit of Github that a request counts against
+	 * (see header 'X-RateLimit-Resource').
+	 * 
+	 * @param request
+	 * @return resource
+	 */
+	private String getResource(HttpRequest request) {
+		String path = request.getURI().getPath();
+		if (path.endsWith(GRAPHQL_PATH)) {
+			return "graphql";
+		}
+		if (path.contains("/search/")) {
+			return "search";
+		}
+		return "core";
+	}
+
+	/**
+	 * This method reads the token a request is sent with. Requests without token
+	 * share the budget of anonymous requests.
+	 * 
+	 * @param request
+	 * @return token
+	 */
+	private String getToken(HttpRequest request) {
+		String authorization = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+		if (authorization != null) {
+			return authorization.substring(authorization.indexOf(' ') + 1);
+		}
+		String token = UriComponentsBuilder.fromUri(request.getURI()).build().getQueryParams()
+				.getFirst("access_token");
+		return token != null ? token : "";
+	}
+
+	/**
+	 * This method checks if a request failed because of a rate limit or a
+	 * temporary server error. Requests that are not idempotent are only repeated
+	 * if Github rejected them with 429 or with a 403 that carries 'Retry-After'.
+	 * 
+	 * @param response
+	 * @param isIdempotent
+	 * @return isRetryable
+	 * @throws IOException
+	 */
+	private boolean isRetryable(ClientHttpResponse response, boolean isIdempotent) throws IOException {
+		int status = response.getRawStatusCode();
+		HttpHeaders headers = response.getHeaders();
+		if (status == HttpStatus.TOO_MANY_REQUESTS.value()) {
+			return true;
+		}
+		if (!isIdempotent) {
+			return status == HttpStatus.FORBIDDEN.value() && headers.containsKey(RETRY_AFTER_HEADER);
+		}
+		if (status >= 500) {
+			return true;
+		}
+		// A 403 is only a rate limit if Github says so
+		return status == HttpStatus.FORBIDDEN.value()
+				&& (headers.containsKey(RETRY_AFTER_HEADER) || "0".equals(headers.getFirst(REMAINING_HEADER)));
+	}
+
+	/**
+	 * This method calculates how long to wait before a failed request is sent
+	 * again. Github's 'Retry-After' and rate limit reset are honored, otherwise
+	 * the delay grows exponentially with random jitter.
+	 * 
+	 * @param headers
+	 * @param attempt
+	 * @return delay in milliseconds
+	 */
+	private long getRetryDelay(HttpHeaders headers, int attempt) {
+		long delay;
+		String retryAfter = headers.getFirst(RETRY_AFTER_HEADER);
+		String reset = headers.getFirst(RESET_HEADER);
+		if (retryAfter != null && retryAfter.matches("\\d+")) {
+			delay = Long.parseLong(retryAfter) * 1000;
+		} else if ("0".equals(headers.getFirst(REMAINING_HEADER)) && reset != null && reset.matches("\\d+")) {
+			delay = Long.parseLong(reset) * 1000 - System.currentTimeMillis();
+		} else {
+			delay = BACKOFF_BASE_MILLIS << attempt;
+		}
+		delay += ThreadLocalRandom.current().nextLong(BACKOFF_BASE_MILLIS);
+		return Math.min(Math.max(delay, 0), botConfig.getGithubMaxWait() * 1000L);
+	}
+
+	/**
+	 * This method pauses the current thread.
+	 * 
+	 * @param millis
+	 * @throws IOException
+	 */
+	private void sleep(long millis) throws IOException {
+		if (millis <= 0) {
+			return;
+		}
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while waiting for the Github rate limit!", e);
+		}
+	}
+
+	/**
+	 * Remaining requests of a token and the time of the next request.
+	 */
+	private class RateLimitBudget {
+
+		private int limit = -1;
+		private int remaining = -1;
+		private long resetAt;
+		private long nextReadAt;
+		private long nextWriteAt;
+
+		/**
+		 * This method reserves the next free slot for a request and returns how long
+		 * the caller has to wait for it. When less than a quarter of the budget is
+		 * left, reading requests are spread evenly over the time until the rate
+		 * limit resets. They may never use up the reserve: if a read would have to
+		 * wait longer than the maximum wait, it fails instead.
+		 * 
+		 * @param isWrite
+		 * @param reserve
+		 * @return delay in milliseconds
+		 * @throws GitHubRateLimitException
+		 */
+		private synchronized long reserveSlot(boolean isWrite, int reserve) throws GitHubRateLimitException {
+			long now = System.currentTimeMillis();
+			long maxWait = botConfig.getGithubMaxWait() * 1000L;
+			long slot;
+
+			if (isWrite) {
+				// Writes only wait if the budget is used up completely
+				slot = Math.max(now, nextWriteAt);
+				if (remaining == 0 && resetAt > now) {
+					slot = Math.max(slot, resetAt);
+				}
+				slot = Math.min(slot, now + maxWait);
+				nextWriteAt = slot + WRITE_INTERVAL_MILLIS;
+			} else {
+				slot = Math.max(now, nextReadAt);
+				long nextRead = nextReadAt;
+				if (remaining >= 0 && resetAt > now) {
+					int available = remaining - reserve;
+					if (available <= 0) {
+						slot = Math.max(slot, resetAt);
+					} else if (remaining < limit / 4) {
+						nextRead = slot + (resetAt - now) / available;
+					}
+				}
+				// Reads must not eat the reserve of the writes
+				if (slot - now > maxWait) {
+					throw new GitHubRateLimitException("Github rate limit reached! Reading is possible again in "
+							+ (slot - now) / 1000 + " seconds.");
+				}
+				nextReadAt = nextRead;
+			}
+
+			// Count the request before its response arrives
+			if (remaining > 0) {
+				remaining--;
+			}
+			return slot - now;
+		}
+
+		/**
+		 * This method reads the rate limit headers of a response.
+		 * 
+		 * @param headers
+		 */
+		private synchronized void update(HttpHeaders headers) {
+			String limitHeader = headers.getFirst(LIMIT_HEADER);
+			String remainingHeader = headers.getFirst(REMAINING_HEADER);
+			String resetHeader = headers.getFirst(RESET_HEADER);
+			if (limitHeader != null && limitHeader.matches("\\d+")) {
+				limit = Integer.parseInt(limitHeader);
+			}
+			if (remainingHeader != null && remainingHeader.matches("\\d+")) {
+				remaining = Integer.parseInt(remainingHeader);
+			}
+			if (resetHeader != null && resetHeader.matches("\\d+")) {
+				resetAt = Long.parseLong(resetHeader) * 1000;
+			}
+		}
+	}
+}
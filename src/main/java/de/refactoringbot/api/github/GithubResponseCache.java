@@ -0,0 +1,100 @@
+package de.refactoringbot.api.github;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import de.refactoringbot.configuration.BotConfiguration;
+
+/**
+ * This class caches deserialized Github responses together with their ETag and
+ * Last-Modified headers, so that requests can be sent conditionally. The least
+ * recently used responses are dropped when the cache is full.
+ */
+@Component
+public class GithubResponseCache {
+
+	private final Map<String, CachedResponse> responses;
+
+	@Autowired
+	public GithubResponseCache(BotConfiguration botConfig) {
+		final int maxSize = botConfig.getGithubResponseCacheSize();
+		this.responses = Collections.synchronizedMap(new LinkedHashMap<String, CachedResponse>(16, 0.75f, true) {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+				return size() > maxSize;
+			}
+		});
+	}
+
+	/**
+	 * This method returns the cached response of an URI requested with a token.
+	 * 
+	 * @param uri
+	 * @param botToken
+	 * @return cachedResponse or null
+	 */
+	public CachedResponse get(URI uri, String botToken) {
+		return responses.get(createKey(uri, botToken));
+	}
+
+	/**
+	 * This method caches a response if Github sent validators for it.
+	 * 
+	 * @param uri
+	 * @param botToken
+	 * @param response
+	 */
+	public void put(URI uri, String botToken, CachedResponse response) {
+		if (response.getETag() == null && response.getLastModified() == null) {
+			return;
+		}
+		responses.put(createKey(uri, botToken), response);
+	}
+
+	private String createKey(URI uri, String botToken) {
+		return botToken + " " + uri.toString();
+	}
+
+	/**
+	 * Deserialized Github response with its validators and the link to the next
+	 * page.
+	 */
+	public static class CachedResponse {
+
+		private final String eTag;
+		private final String lastModified;
+		private final Object body;
+		private final URI nextPage;
+
+		public CachedResponse(String eTag, String lastModified, Object body, URI nextPage) {
+			this.eTag = eTag;
+			this.lastModified = lastModified;
+			this.body = body;
+			this.nextPage = nextPage;
+		}
+
+		public String getETag() {
+			return eTag;
+		}
+
+		public String getLastModified() {
+			return lastModified;
+		}
+
+		public Object getBody() {
+			return body;
+		}
+
+		public URI getNextPage() {
+			return nextPage;
+		}
+	}
+}
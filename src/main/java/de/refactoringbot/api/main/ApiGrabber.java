@@ -1,32 +1,55 @@
 package de.refactoringbot.api.main;
 
 import java.io.IOException;
+import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 import javax.naming.OperationNotSupportedException;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import de.refactoringbot.api.analysisreport.AnalysisReportReader;
+import de.refactoringbot.api.analysisreport.ReportIssueIterator;
+import de.refactoringbot.api.github.GithubCommentPageIterator;
 import de.refactoringbot.api.github.GithubDataGrabber;
+import de.refactoringbot.api.github.GithubGraphQLDataGrabber;
 import de.refactoringbot.api.sonarqube.SonarQubeDataGrabber;
+import de.refactoringbot.configuration.BotConfiguration;
 import de.refactoringbot.model.botissue.BotIssue;
 import de.refactoringbot.model.configuration.AnalysisProvider;
 import de.refactoringbot.model.configuration.GitConfiguration;
 import de.refactoringbot.model.configuration.GitConfigurationDTO;
+import de.refactoringbot.model.exceptions.BotRefactoringException;
 import de.refactoringbot.model.exceptions.GitHubAPIException;
 import de.refactoringbot.model.github.pullrequest.GithubCreateRequest;
-import de.refactoringbot.model.github.pullrequest.GithubPullRequest;
 import de.refactoringbot.model.github.pullrequest.GithubPullRequests;
+import de.refactoringbot.model.github.pullrequest.SlimPullRequest;
 import de.refactoringbot.model.output.botpullrequest.BotPullRequest;
 import de.refactoringbot.model.output.botpullrequest.BotPullRequests;
 import de.refactoringbot.model.output.botpullrequestcomment.BotPullRequestComment;
-import de.refactoringbot.model.sonarqube.SonarQubeIssues;
+import de.refactoringbot.model.output.botpullrequestcomment.RequestCommentIterator;
+import de.refactoringbot.model.synccursor.SyncCursor;
+import de.refactoringbot.services.analysisreport.AnalysisReportTranslator;
 import de.refactoringbot.services.github.GithubObjectTranslator;
+import de.refactoringbot.services.localanalyzer.LocalAnalyzer;
 import de.refactoringbot.services.main.BotService;
-import de.refactoringbot.services.sonarqube.SonarQubeObjectTranslator;
+import de.refactoringbot.services.main.ForkBranchCache;
+import de.refactoringbot.services.sonarqube.SonarQubeIssueStore;
 
 /**
  * This class transfers all Rest-Requests to correct APIs and returns all
@@ -45,34 +68,140 @@ public class ApiGrabber {
 	@Autowired
 	GithubObjectTranslator githubTranslator;
 	@Autowired
-	SonarQubeObjectTranslator sonarQubeTranslator;
+	SonarQubeIssueStore sonarQubeIssueStore;
+	@Autowired
+	AnalysisReportReader analysisReportReader;
+	@Autowired
+	AnalysisReportTranslator analysisReportTranslator;
+	@Autowired
+	LocalAnalyzer localAnalyzer;
 	@Autowired
 	BotService botController;
+	@Autowired
+	ForkBranchCache branchCache;
+	@Autowired
+	GithubGraphQLDataGrabber githubGraphQLGrabber;
+	@Autowired
+	BotConfiguration botConfig;
+	@Autowired
+	AsyncApiGrabber asyncGrabber;
+
+	private static final Logger logger = LoggerFactory.getLogger(ApiGrabber.class);
 
 	/**
-	 * This method gets all requests with all comments from an api translated into a
-	 * bot object.
+	 * This method returns an iterator over the comments of all open requests that
+	 * were created after the position of the cursor. The comments are read from
+	 * the filehoster while the iterator is used, so that a run that stops early
+	 * does not read the remaining comments.
 	 * 
 	 * @param gitConfig
-	 * @return botRequests
+	 * @param cursor
+	 * @return comments
 	 * @throws URISyntaxException
 	 * @throws GitHubAPIException
 	 * @throws IOException
 	 */
-	public BotPullRequests getRequestsWithComments(GitConfiguration gitConfig) throws URISyntaxException, GitHubAPIException, IOException {
-		// Init bot object
-		BotPullRequests botRequests = null;
-
+	public RequestCommentIterator getRequestComments(GitConfiguration gitConfig, SyncCursor cursor)
+			throws URISyntaxException, GitHubAPIException, IOException {
 		// Pick correct filehoster
 		switch (gitConfig.getRepoService()) {
 			case github:
-				// Get data from github
+				// Requests and comments are read together
+				if (botConfig.isGithubGraphQL()) {
+					return RequestCommentIterator.of(githubGraphQLGrabber.getRequestsWithComments(gitConfig));
+				}
+
+				// Translate open requests without their comments
 				GithubPullRequests githubRequests = githubGrabber.getAllPullRequests(gitConfig);
-				// Translate github object
-				botRequests = githubTranslator.translateRequests(githubRequests, gitConfig);
+				Map<String, BotPullRequest> requestsByUrl = new LinkedHashMap<>();
+				Map<BotPullRequest, URI> commentUris = new HashMap<>();
+				for (SlimPullRequest githubRequest : githubRequests.getAllPullRequests()) {
+					BotPullRequest request = githubTranslator.translateRequest(githubRequest);
+					requestsByUrl.put(githubRequest.getUrl(), request);
+					commentUris.put(request, new URI(githubRequest.getReviewCommentsUrl()));
+				}
+
+				// Read only new comments of the whole repository, page by page
+				if (cursor != null && cursor.getLastId() != null && cursor.getLastTimestamp() != null) {
+					URI firstPage = githubGrabber.createCommentsSinceURI(gitConfig, cursor.getLastTimestamp());
+					return new GithubCommentPageIterator(githubGrabber, githubTranslator, gitConfig, requestsByUrl,
+							firstPage, cursor.getLastId());
+				}
+
+				// First sync: read the comments request by request
+				return new LazyRequestCommentIterator(new ArrayList<>(requestsByUrl.values()),
+						request -> asyncGrabber.getAllPullRequestComments(commentUris.get(request), gitConfig)
+								.thenApply(comments -> githubTranslator.translatePullRequestComments(comments)
+										.getComments()),
+						botConfig.getApiParallelism());
+			default:
+				return RequestCommentIterator.of(new BotPullRequests());
+		}
+	}
+
+	/**
+	 * This method counts the open requests that were created by the bot.
+	 * 
+	 * @param gitConfig
+	 * @return amountOfBotRequests
+	 * @throws URISyntaxException
+	 * @throws GitHubAPIException
+	 * @throws IOException
+	 */
+	public int getAmountOfBotRequests(GitConfiguration gitConfig)
+			throws URISyntaxException, GitHubAPIException, IOException {
+		int amountOfBotRequests = 0;
+
+		// Pick filehoster
+		switch (gitConfig.getRepoService()) {
+			case github:
+				// Unchanged pages are answered from the cache
+				GithubPullRequests openRequests = githubGrabber.getAllPullRequests(gitConfig);
+				for (SlimPullRequest openRequest : openRequests.getAllPullRequests()) {
+					if (gitConfig.getBotName().equals(openRequest.getUser().getLogin())) {
+						amountOfBotRequests++;
+					}
+				}
 				break;
 		}
-		return botRequests;
+		return amountOfBotRequests;
+	}
+
+	/**
+	 * This method returns the names of the bot branches whose pull requests were
+	 * merged or closed on the filehoster since the position of the cursor. The
+	 * cursor is moved to the newest update of the closed requests, but not
+	 * stored.
+	 * 
+	 * @param gitConfig
+	 * @param cursor
+	 * @return branchNames
+	 * @throws Exception
+	 */
+	public Set<String> getClosedBotBranches(GitConfiguration gitConfig, SyncCursor cursor) throws Exception {
+		Set<String> branchNames = new HashSet<>();
+
+		// Pick filehoster
+		switch (gitConfig.getRepoService()) {
+			case github:
+				// Get closed requests from github
+				GithubPullRequests closedRequests = githubGrabber.getClosedPullRequests(gitConfig,
+						cursor.getLastTimestamp());
+				for (SlimPullRequest closedRequest : closedRequests.getAllPullRequests()) {
+					// Remember the newest update for the next maintenance
+					if (closedRequest.getUpdatedAt() != null && (cursor.getLastTimestamp() == null || Instant
+							.parse(closedRequest.getUpdatedAt()).isAfter(Instant.parse(cursor.getLastTimestamp())))) {
+						cursor.setLastTimestamp(closedRequest.getUpdatedAt());
+					}
+					// Only requests from the fork of the bot
+					if (closedRequest.getHead().getUser() != null
+							&& gitConfig.getBotName().equals(closedRequest.getHead().getUser().getLogin())) {
+						branchNames.add(closedRequest.getHead().getRef());
+					}
+				}
+				break;
+		}
+		return branchNames;
 	}
 
 	/**
@@ -111,7 +240,7 @@ public class ApiGrabber {
 				// Create createRequest
 				GithubCreateRequest createRequest = githubTranslator.makeCreateRequest(request, gitConfig, botBranchName);
 				// Create request
-				GithubPullRequest newGithubRequest = githubGrabber.createRequest(createRequest, gitConfig);
+				SlimPullRequest newGithubRequest = githubGrabber.createRequest(createRequest, gitConfig);
 				// Reply to comment
 				githubGrabber.responseToBotComment(
 						githubTranslator.createReplyComment(comment, gitConfig, newGithubRequest.getHtmlUrl()),
@@ -140,12 +269,23 @@ public class ApiGrabber {
 	}
 
 	/**
-	 * Check if Branch exists on repository.
+	 * Check if Branch exists on repository. The locally known branches of the fork
+	 * are used if they are up to date, otherwise the filehoster is asked.
 	 * 
 	 * @param gitConfig
 	 * @throws Exception
 	 */
 	public void checkBranch(GitConfiguration gitConfig, String branchName) throws Exception {
+		// Check locally known branches
+		Boolean branchExists = branchCache.branchExists(gitConfig, branchName);
+		if (branchExists != null) {
+			if (branchExists) {
+				throw new BotRefactoringException(
+						"Issue was already refactored in the past! The bot database might have been resetted but not the fork itself.");
+			}
+			return;
+		}
+
 		// Pick filehoster
 		switch (gitConfig.getRepoService()) {
 			case github:
@@ -164,18 +304,24 @@ public class ApiGrabber {
 	 */
 	public GitConfiguration createConfigurationForRepo(GitConfigurationDTO configuration) throws Exception {
 		// Check analysis service data
-		checkAnalysisService(configuration.getAnalysisService(), configuration.getAnalysisServiceProjectKey());
+		CompletableFuture<Void> analysisServiceCheck = asyncGrabber.run(() -> checkAnalysisService(
+				configuration.getAnalysisService(), configuration.getAnalysisServiceProjectKey()));
 
 		// Pick filehoster
 		switch (configuration.getRepoService()) {
 		case github:
 			// Check repository
-			githubGrabber.checkRepository(configuration.getRepoName(), configuration.getRepoOwner(),
-					configuration.getBotToken());
+			CompletableFuture<Void> repositoryCheck = asyncGrabber.checkRepository(configuration.getRepoName(),
+					configuration.getRepoOwner(), configuration.getBotToken());
 
 			// Check bot user and bot token
-			githubGrabber.checkGithubUser(configuration.getBotName(), configuration.getBotToken(),
-					configuration.getBotEmail());
+			CompletableFuture<Void> userCheck = asyncGrabber.checkGithubUser(configuration.getBotName(),
+					configuration.getBotToken(), configuration.getBotEmail());
+
+			// Report the first failed check in the order of the checks
+			AsyncApiGrabber.await(analysisServiceCheck);
+			AsyncApiGrabber.await(repositoryCheck);
+			AsyncApiGrabber.await(userCheck);
 
 			// Create git configuration and a fork
 			GitConfiguration gitConfig = githubTranslator.createConfiguration(configuration);
@@ -219,23 +365,42 @@ public class ApiGrabber {
 	}
 
 	/**
-	 * This method gets all issues of a Project from a analysis service.
+	 * This method reads the issues of an analysis report file, e.g. a SARIF file
+	 * or a SonarQube issue export. The report is read while the returned iterator
+	 * is consumed and closed with the iterator.
+	 * 
+	 * @param gitConfig
+	 * @param report
+	 * @return botIssues
+	 * @throws IOException
+	 */
+	public Iterator<BotIssue> getReportIssues(GitConfiguration gitConfig, Path report) throws IOException {
+		ReportIssueIterator reportIssues = analysisReportReader.readIssues(report);
+		Iterator<BotIssue> botIssues = analysisReportTranslator.translateReportIssues(reportIssues, gitConfig);
+		return new CloseableIterator<>(botIssues, reportIssues);
+	}
+
+	/**
+	 * This method gets the issues of a Project from a analysis service that are
+	 * open and were not attempted by the bot yet. The local issues of the
+	 * configuration are synced with the analysis service first.
 	 * 
 	 * @param gitConfig
 	 * @return botIssues
 	 * @throws Exception
 	 */
-	public List<BotIssue> getAnalysisServiceIssues(GitConfiguration gitConfig) throws Exception {
+	public Iterator<BotIssue> getAnalysisServiceIssues(GitConfiguration gitConfig) throws Exception {
 		// Pick service
 		switch (gitConfig.getAnalysisService()) {
             case sonarqube:
-                // Get issues and translate them
-                List<SonarQubeIssues> issues = sonarQubeGrabber.getIssues(gitConfig.getAnalysisServiceProjectKey());
-                List<BotIssue> botIssues = new ArrayList<>();
-                for (SonarQubeIssues i : issues) {
-                    botIssues.addAll(sonarQubeTranslator.translateSonarIssue(i, gitConfig));
-                }
-                return botIssues;
+                // Sync issues and translate the actionable ones
+                return sonarQubeIssueStore.getActionableIssues(gitConfig);
+            case reportfile:
+                // Read issues of the report file given as project key
+                return getReportIssues(gitConfig, Paths.get(gitConfig.getAnalysisServiceProjectKey()));
+            case localanalyzer:
+                // Analyze the local workspace
+                return localAnalyzer.analyze(gitConfig);
             default:
                 return null;
 		}
@@ -281,6 +446,9 @@ public class ApiGrabber {
             case sonarqube:
                 sonarQubeGrabber.checkSonarData(analysisServiceProjectKey);
                 break;
+            case reportfile:
+                analysisReportReader.checkReport(analysisServiceProjectKey);
+                break;
 		}
 
 	}
@@ -0,0 +1,114 @@
+package de.refactoringbot.api.main;
+
+import java.net.URI;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import de.refactoringbot.api.github.GithubDataGrabber;
+import de.refactoringbot.model.configuration.GitConfiguration;
+import de.refactoringbot.model.github.pullrequestcomment.GitHubPullRequestComments;
+
+/**
+ * This class offers the operations of the API grabbers as asynchronous calls.
+ * The calls run on a dedicated I/O pool, so that independent requests can
+ * overlap instead of waiting for each other.
+ */
+@Component
+public class AsyncApiGrabber {
+
+	@Autowired
+	GithubDataGrabber githubGrabber;
+	@Autowired
+	@Qualifier("ioExecutor")
+	ExecutorService ioExecutor;
+
+	/**
+	 * API call that may throw checked exceptions.
+	 */
+	@FunctionalInterface
+	public interface ApiCall<T> {
+		T call() throws Exception;
+	}
+
+	/**
+	 * API call without result that may throw checked exceptions.
+	 */
+	@FunctionalInterface
+	public interface VoidApiCall {
+		void call() throws Exception;
+	}
+
+	/**
+	 * This method runs an API call on the I/O pool.
+	 * 
+	 * @param call
+	 * @return result
+	 */
+	public <T> CompletableFuture<T> supply(ApiCall<T> call) {
+		return CompletableFuture.supplyAsync(() -> {
+			try {
+				return call.call();
+			} catch (Exception e) {
+				throw new CompletionException(e);
+			}
+		}, ioExecutor);
+	}
+
+	/**
+	 * This method runs an API call without result on the I/O pool.
+	 * 
+	 * @param call
+	 * @return completion
+	 */
+	public CompletableFuture<Void> run(VoidApiCall call) {
+		return supply(() -> {
+			call.call();
+			return null;
+		});
+	}
+
+	/**
+	 * This method waits for the result of an asynchronous call and throws the
+	 * original exception of the call if it failed.
+	 * 
+	 * @param future
+	 * @return result
+	 * @throws Exception
+	 */
+	public static <T> T await(CompletableFuture<T> future) throws Exception {
+		try {
+			return future.get();
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof CompletionException && cause.getCause() != null) {
+				cause = cause.getCause();
+			}
+			if (cause instanceof Exception) {
+				throw (Exception) cause;
+			}
+			throw e;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw e;
+		}
+	}
+
+	public CompletableFuture<Void> checkRepository(String repoName, String repoOwner, String botToken) {
+		return run(() -> githubGrabber.checkRepository(repoName, repoOwner, botToken));
+	}
+
+	public CompletableFuture<Void> checkGithubUser(String botUsername, String botToken, String botEmail) {
+		return run(() -> githubGrabber.checkGithubUser(botUsername, botToken, botEmail));
+	}
+
+	public CompletableFuture<GitHubPullRequestComments> getAllPullRequestComments(URI commentsUri,
+			GitConfiguration gitConfig) {
+		return supply(() -> githubGrabber.getAllPullRequestComments(commentsUri, gitConfig));
+	}
+}
@@ -0,0 +1,38 @@
+package de.refactoringbot.api.main;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Iterator;
+
+/**
+ * This iterator passes through the elements of another iterator and releases
+ * the resource the elements are read from when it is closed, e.g. when the
+ * caller stops before all elements were read.
+ * 
+ * @param <T>
+ */
+public class CloseableIterator<T> implements Iterator<T>, Closeable {
+
+	private final Iterator<T> elements;
+	private final Closeable resource;
+
+	public CloseableIterator(Iterator<T> elements, Closeable resource) {
+		this.elements = elements;
+		this.resource = resource;
+	}
+
+	@Override
+	public boolean hasNext() {
+		return elements.hasNext();
+	}
+
+	@Override
+	public T next() {
+		return elements.next();
+	}
+
+	@Override
+	public void close() throws IOException {
+		resource.close();
+	}
+}
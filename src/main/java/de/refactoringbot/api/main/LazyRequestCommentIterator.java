@@ -0,0 +1,97 @@
+package de.refactoringbot.api.main;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+import de.refactoringbot.model.output.botpullrequest.BotPullRequest;
+import de.refactoringbot.model.output.botpullrequestcomment.BotPullRequestComment;
+import de.refactoringbot.model.output.botpullrequestcomment.RequestComment;
+import de.refactoringbot.model.output.botpullrequestcomment.RequestCommentIterator;
+
+/**
+ * This iterator loads the comments of one request after the other while it is
+ * iterated. The comments of a few following requests are already requested in
+ * the background, so that the caller rarely waits for the filehoster.
+ */
+public class LazyRequestCommentIterator implements RequestCommentIterator {
+
+	private final Iterator<BotPullRequest> requests;
+	private final Function<BotPullRequest, CompletableFuture<List<BotPullRequestComment>>> commentLoader;
+	private final int lookahead;
+
+	private final Deque<PendingRequest> pendingRequests = new ArrayDeque<>();
+	private BotPullRequest currentRequest;
+	private Iterator<BotPullRequestComment> currentComments = Collections.emptyIterator();
+
+	/**
+	 * @param requests
+	 *            requests without comments
+	 * @param commentLoader
+	 *            loads the comments of a request asynchronously
+	 * @param lookahead
+	 *            amount of requests whose comments are loaded in advance
+	 */
+	public LazyRequestCommentIterator(List<BotPullRequest> requests,
+			Function<BotPullRequest, CompletableFuture<List<BotPullRequestComment>>> commentLoader, int lookahead) {
+		this.requests = requests.iterator();
+		this.commentLoader = commentLoader;
+		this.lookahead = Math.max(1, lookahead);
+	}
+
+	@Override
+	public boolean hasNext() {
+		while (!currentComments.hasNext()) {
+			fillLookahead();
+			if (pendingRequests.isEmpty()) {
+				return false;
+			}
+			PendingRequest next = pendingRequests.poll();
+			try {
+				currentRequest = next.request;
+				currentComments = AsyncApiGrabber.await(next.comments).iterator();
+			} catch (Exception e) {
+				throw new IllegalStateException("Could not get comments of request " + next.request.getRequestNumber()
+						+ "!", e);
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public RequestComment next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		return new RequestComment(currentRequest, currentComments.next());
+	}
+
+	/**
+	 * This method starts loading the comments of the next requests.
+	 */
+	private void fillLookahead() {
+		while (pendingRequests.size() < lookahead && requests.hasNext()) {
+			BotPullRequest request = requests.next();
+			pendingRequests.add(new PendingRequest(request, commentLoader.apply(request)));
+		}
+	}
+
+	/**
+	 * Request whose comments are being loaded.
+	 */
+	private static class PendingRequest {
+
+		private final BotPullRequest request;
+		private final CompletableFuture<List<BotPullRequestComment>> comments;
+
+		private PendingRequest(BotPullRequest request, CompletableFuture<List<BotPullRequestComment>> comments) {
+			this.request = request;
+			this.comments = comments;
+		}
+	}
+}
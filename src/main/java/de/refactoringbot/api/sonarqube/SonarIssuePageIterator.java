@@ -0,0 +1,145 @@
+package de.refactoringbot.api.sonarqube;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.refactoringbot.model.sonarqube.SonarIssue;
+import de.refactoringbot.model.sonarqube.SonarPageStats;
+import de.refactoringbot.model.sonarqube.SonarQubeIssues;
+
+/**
+ * This iterator reads the pages of the SonarQube issue search while it is
+ * iterated. While the issues of one page are consumed, the following pages are
+ * already requested in the background. At most 'prefetch' pages are requested
+ * at once, so that a caller that stops early does not read the whole project.
+ * The amount of issues and the request time of each read page are recorded.
+ */
+public class SonarIssuePageIterator implements Iterator<SonarIssue> {
+
+	private static final Logger logger = LoggerFactory.getLogger(SonarIssuePageIterator.class);
+
+	private final SonarQubeDataGrabber grabber;
+	private final ExecutorService executor;
+	private final int prefetch;
+	private final String projectKey;
+	private final List<String> rules;
+	private final boolean byUpdateDate;
+	private final String createdAfter;
+
+	private int pageCount = -1;
+	private boolean truncated;
+	private int nextPage = 1;
+	private int requestedPage = 1;
+	private final Deque<Future<SonarQubeIssues>> pendingPages = new ArrayDeque<>();
+	private Iterator<SonarIssue> currentIssues = Collections.emptyIterator();
+	private final List<SonarPageStats> pageStats = new ArrayList<>();
+
+	SonarIssuePageIterator(SonarQubeDataGrabber grabber, ExecutorService executor, int prefetch, String projectKey,
+			List<String> rules, boolean byUpdateDate, String createdAfter) {
+		this.grabber = grabber;
+		this.executor = executor;
+		this.prefetch = Math.max(prefetch, 1);
+		this.projectKey = projectKey;
+		this.rules = rules;
+		this.byUpdateDate = byUpdateDate;
+		this.createdAfter = createdAfter;
+	}
+
+	@Override
+	public boolean hasNext() {
+		while (!currentIssues.hasNext()) {
+			if (pageCount >= 0 && nextPage > pageCount) {
+				return false;
+			}
+			SonarQubeIssues page = readNextPage();
+			logger.debug("SonarQube page {}: {} issues in {} ms", page.getP(), page.getIssues().size(),
+					page.getRequestDuration());
+			pageStats.add(new SonarPageStats(nextPage - 1, page.getIssues().size(), page.getRequestDuration()));
+			currentIssues = page.getIssues().iterator();
+			requestNextPages();
+		}
+		return true;
+	}
+
+	@Override
+	public SonarIssue next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		return currentIssues.next();
+	}
+
+	/**
+	 * This method tells if SonarQube found more issues than it returns, so that
+	 * the iteration ends before the last matching issue. It is only known once the
+	 * first page was read.
+	 * 
+	 * @return truncated
+	 */
+	public boolean isTruncated() {
+		return truncated;
+	}
+
+	/**
+	 * This method returns the statistics of the pages that were read so far, in
+	 * the order of the pages.
+	 * 
+	 * @return pageStats
+	 */
+	public List<SonarPageStats> getPageStats() {
+		return Collections.unmodifiableList(pageStats);
+	}
+
+	/**
+	 * This method waits for the next page. The first page is read directly because
+	 * it tells the amount of pages.
+	 * 
+	 * @return page
+	 */
+	private SonarQubeIssues readNextPage() {
+		try {
+			SonarQubeIssues page;
+			if (!pendingPages.isEmpty()) {
+				page = pendingPages.poll().get();
+			} else {
+				page = grabber.getIssuesPage(projectKey, rules, nextPage, byUpdateDate, createdAfter);
+			}
+			if (pageCount < 0) {
+				pageCount = grabber.getPageCount(projectKey, page);
+				truncated = page.getTotal() != null && page.getTotal() > SonarQubeDataGrabber.MAX_RESULTS;
+			}
+			nextPage++;
+			return page;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while getting issues from SonarCube!", e);
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("Could not get issues from SonarCube!", e.getCause());
+		} catch (Exception e) {
+			throw new IllegalStateException("Could not get issues from SonarCube!", e);
+		}
+	}
+
+	/**
+	 * This method starts requesting the following pages in the background until
+	 * 'prefetch' pages are pending.
+	 */
+	private void requestNextPages() {
+		while (pendingPages.size() < prefetch && requestedPage < pageCount) {
+			int page = ++requestedPage;
+			pendingPages.add(executor.submit(() -> grabber.getIssuesPage(projectKey, rules, page, byUpdateDate,
+					createdAfter)));
+		}
+	}
+}
@@ -0,0 +1,171 @@
+package de.refactoringbot.api.sonarqube;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import de.refactoringbot.model.sonarqube.Paging;
+import de.refactoringbot.model.sonarqube.SonarIssue;
+import de.refactoringbot.model.sonarqube.SonarQubeIssues;
+
+/**
+ * This class reads a page of the SonarQube issue search while it arrives. Only
+ * the fields the bot needs are read and issues of other rules are skipped
+ * before an object is created for them.
+ */
+public final class SonarIssueStreamReader {
+
+	private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+	private SonarIssueStreamReader() {
+	}
+
+	/**
+	 * This method reads a page of the issue search. The returned page contains
+	 * the paging information and the issues of the given rules.
+	 * 
+	 * @param input
+	 * @param rules
+	 * @return page
+	 * @throws IOException
+	 */
+	public static SonarQubeIssues readPage(InputStream input, Set<String> rules) throws IOException {
+		SonarQubeIssues page = new SonarQubeIssues();
+		List<SonarIssue> issues = new ArrayList<>();
+		page.setIssues(issues);
+
+		try (JsonParser parser = JSON_FACTORY.createParser(input)) {
+			if (parser.nextToken() != JsonToken.START_OBJECT) {
+				throw new IOException("SonarQube response is not a JSON object!");
+			}
+
+			while (parser.nextToken() == JsonToken.FIELD_NAME) {
+				String field = parser.getCurrentName();
+				JsonToken value = parser.nextToken();
+
+				if ("paging".equals(field) && value == JsonToken.START_OBJECT) {
+					page.setPaging(readPaging(parser));
+				} else if ("issues".equals(field) && value == JsonToken.START_ARRAY) {
+					while (parser.nextToken() == JsonToken.START_OBJECT) {
+						SonarIssue issue = readIssue(parser, rules);
+						if (issue != null) {
+							issues.add(issue);
+						}
+					}
+				} else {
+					parser.skipChildren();
+				}
+			}
+		}
+
+		if (page.getPaging() != null) {
+			page.setP(page.getPaging().getPageIndex());
+			page.setPs(page.getPaging().getPageSize());
+			page.setTotal(page.getPaging().getTotal());
+		}
+		return page;
+	}
+
+	/**
+	 * This method reads the paging object of a page.
+	 * 
+	 * @param parser
+	 * @return paging
+	 * @throws IOException
+	 */
+	private static Paging readPaging(JsonParser parser) throws IOException {
+		Paging paging = new Paging();
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			String field = parser.getCurrentName();
+			parser.nextToken();
+			switch (field) {
+			case "pageIndex":
+				paging.setPageIndex(parser.getValueAsInt());
+				break;
+			case "pageSize":
+				paging.setPageSize(parser.getValueAsInt());
+				break;
+			case "total":
+				paging.setTotal(parser.getValueAsInt());
+				break;
+			default:
+				parser.skipChildren();
+				break;
+			}
+		}
+		return paging;
+	}
+
+	/**
+	 * This method reads one issue. The rule is the second field of an issue, so
+	 * issues of other rules are skipped right away in most cases.
+	 * 
+	 * @param parser
+	 * @param rules
+	 * @return issue or null if the issue belongs to another rule
+	 * @throws IOException
+	 */
+	private static SonarIssue readIssue(JsonParser parser, Set<String> rules) throws IOException {
+		SonarIssue issue = new SonarIssue();
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			String field = parser.getCurrentName();
+			parser.nextToken();
+			switch (field) {
+			case "key":
+				issue.setKey(parser.getValueAsString());
+				break;
+			case "rule":
+				issue.setRule(parser.getValueAsString());
+				if (!rules.contains(issue.getRule())) {
+					skipRestOfObject(parser);
+					return null;
+				}
+				break;
+			case "component":
+				issue.setComponent(parser.getValueAsString());
+				break;
+			case "project":
+				issue.setProject(parser.getValueAsString());
+				break;
+			case "line":
+				issue.setLine(parser.getValueAsInt());
+				break;
+			case "message":
+				issue.setMessage(parser.getValueAsString());
+				break;
+			case "status":
+				issue.setStatus(parser.getValueAsString());
+				break;
+			case "creationDate":
+				issue.setCreationDate(parser.getValueAsString());
+				break;
+			case "updateDate":
+				issue.setUpdateDate(parser.getValueAsString());
+				break;
+			default:
+				parser.skipChildren();
+				break;
+			}
+		}
+		return issue.getRule() != null && rules.contains(issue.getRule()) ? issue : null;
+	}
+
+	/**
+	 * This method skips the remaining fields of the current object.
+	 * 
+	 * @param parser
+	 * @throws IOException
+	 */
+	private static void skipRestOfObject(JsonParser parser) throws IOException {
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			parser.nextToken();
+			parser.skipChildren();
+		}
+	}
+}
@@ -1,11 +1,16 @@
 package de.refactoringbot.api.sonarqube;
 
 import java.net.URI;
-import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
@@ -14,7 +19,9 @@ import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import de.refactoringbot.configuration.BotConfiguration;
 import de.refactoringbot.model.exceptions.SonarcloudAPIException;
+import de.refactoringbot.model.sonarqube.SonarIssue;
 import de.refactoringbot.model.sonarqube.SonarQubeIssues;
 
 /**
@@ -26,59 +33,126 @@ import de.refactoringbot.model.sonarqube.SonarQubeIssues;
 @Component
 public class SonarQubeDataGrabber {
 
+	@Autowired
+	RestTemplate rest;
+	@Autowired
+	BotConfiguration botConfig;
+	@Autowired
+	@Qualifier("apiExecutor")
+	ExecutorService apiExecutor;
+
 	private static final String USER_AGENT = "Mozilla/5.0";
+	private static final int PAGE_SIZE = 500;
+	/** SonarQube does not return issues beyond this amount */
+	static final int MAX_RESULTS = 10000;
 
 	private static final Logger logger = LoggerFactory.getLogger(SonarQubeDataGrabber.class);
 
 	/**
-	 * This method gets all SonarCubeIssues of a Project.
+	 * This method streams the open SonarCubeIssues of a Project that belong to the
+	 * given rules, oldest first. Pages are only requested while the returned
+	 * iterator is consumed; while the current one is read, up to 'apiParallelism'
+	 * following pages are requested in the background.
 	 * 
 	 * @param sonarQubeProjectKey
-	 * @return allIssues
-	 * @throws SonarcloudAPIException
+	 * @param rules
+	 * @param createdAfter
+	 *            creation date of the first issue (inclusive) or null for all
+	 *            issues
+	 * @return issues
 	 */
-	public List<SonarQubeIssues> getIssues(String sonarQubeProjectKey) throws SonarcloudAPIException {
-		int page = 1;
-
-		List<SonarQubeIssues> issues = new ArrayList<>();
-
-		while (page < 500) {
-			// Build URI
-			UriComponentsBuilder apiUriBuilder = UriComponentsBuilder.newInstance().scheme("https")
-					.host("sonarcloud.io").path("api/issues/search");
-
-			apiUriBuilder.queryParam("componentRoots", sonarQubeProjectKey);
-			apiUriBuilder.queryParam("statuses", "OPEN,REOPENED");
-			apiUriBuilder.queryParam("ps", 500);
-			apiUriBuilder.queryParam("p", page);
-
-			URI sonarQubeURI = apiUriBuilder.build().encode().toUri();
-
-			// Create REST-Template
-			RestTemplate rest = new RestTemplate();
-			// Build Header
-			HttpHeaders headers = new HttpHeaders();
-			headers.set("User-Agent", USER_AGENT);
-			HttpEntity<String> entity = new HttpEntity<>("parameters", headers);
+	public SonarIssuePageIterator streamIssues(String sonarQubeProjectKey, List<String> rules,
+			String createdAfter) {
+		return new SonarIssuePageIterator(this, apiExecutor, botConfig.getApiParallelism(), sonarQubeProjectKey,
+				rules, false, createdAfter);
+	}
 
-			// Send request
-			try {
-				issues.add(rest.exchange(sonarQubeURI, HttpMethod.GET, entity, SonarQubeIssues.class).getBody());
-				page++;
-			} catch (RestClientException e) {
-				if (page == 1) {
-					logger.error(e.getMessage(), e);
-					throw new SonarcloudAPIException("Could not access SonarCube API!", e);
-				}
+	/**
+	 * This method streams the SonarCubeIssues of a Project that belong to the
+	 * given rules in all statuses, most recently updated first. The caller stops
+	 * iterating as soon as it reaches issues it already knows, so that only the
+	 * pages with changes are requested.
+	 * 
+	 * @param sonarQubeProjectKey
+	 * @param rules
+	 * @return issues
+	 */
+	public SonarIssuePageIterator streamIssueChanges(String sonarQubeProjectKey, List<String> rules) {
+		return new SonarIssuePageIterator(this, apiExecutor, botConfig.getApiParallelism(), sonarQubeProjectKey,
+				rules, true, null);
+	}
 
-				break;
+	/**
+	 * This method calculates the amount of pages that can be read from the total
+	 * amount of issues given by the first page.
+	 * 
+	 * @param sonarQubeProjectKey
+	 * @param firstPage
+	 * @return pageCount
+	 */
+	int getPageCount(String sonarQubeProjectKey, SonarQubeIssues firstPage) {
+		int total = firstPage.getTotal() != null ? firstPage.getTotal() : 0;
+		if (total > MAX_RESULTS) {
+			logger.warn("SonarQube project {} has {} matching issues, only the first {} can be read!",
+					sonarQubeProjectKey, total, MAX_RESULTS);
+		}
+		return (Math.min(total, MAX_RESULTS) + PAGE_SIZE - 1) / PAGE_SIZE;
+	}
 
-			}
+	/**
+	 * This method gets one page of SonarCubeIssues of a Project. The response is
+	 * read while it arrives and only contains the issues of the given rules.
+	 * 
+	 * @param sonarQubeProjectKey
+	 * @param rules
+	 * @param page
+	 * @param byUpdateDate
+	 *            true for issues in all statuses, most recently updated first;
+	 *            false for open issues, oldest first
+	 * @param createdAfter
+	 *            creation date of the first issue (inclusive) or null
+	 * @return issues
+	 * @throws SonarcloudAPIException
+	 */
+	SonarQubeIssues getIssuesPage(String sonarQubeProjectKey, List<String> rules, int page, boolean byUpdateDate,
+			String createdAfter) throws SonarcloudAPIException {
+		// Build URI
+		UriComponentsBuilder apiUriBuilder = UriComponentsBuilder.newInstance().scheme("https").host("sonarcloud.io")
+				.path("api/issues/search");
 
+		apiUriBuilder.queryParam("componentRoots", sonarQubeProjectKey);
+		if (byUpdateDate) {
+			apiUriBuilder.queryParam("s", "UPDATE_DATE");
+			apiUriBuilder.queryParam("asc", false);
+		} else {
+			apiUriBuilder.queryParam("statuses", "OPEN,REOPENED");
+			apiUriBuilder.queryParam("s", "CREATION_DATE");
+			apiUriBuilder.queryParam("asc", true);
 		}
+		// The '+' of the time zone must be encoded, so the date is a URI variable
+		if (createdAfter != null) {
+			apiUriBuilder.queryParam("createdAfter", "{createdAfter}");
+		}
+		apiUriBuilder.queryParam("rules", String.join(",", rules));
+		apiUriBuilder.queryParam("ps", PAGE_SIZE);
+		apiUriBuilder.queryParam("p", page);
 
-		return issues;
+		URI sonarQubeURI = apiUriBuilder.encode()
+				.buildAndExpand(Collections.singletonMap("createdAfter", createdAfter)).toUri();
 
+		// Send request
+		Set<String> ruleSet = new HashSet<>(rules);
+		try {
+			long start = System.currentTimeMillis();
+			SonarQubeIssues issues = rest.execute(sonarQubeURI, HttpMethod.GET,
+					request -> request.getHeaders().set("User-Agent", USER_AGENT),
+					response -> SonarIssueStreamReader.readPage(response.getBody(), ruleSet));
+			issues.setRequestDuration(System.currentTimeMillis() - start);
+			return issues;
+		} catch (RestClientException e) {
+			logger.error(e.getMessage(), e);
+			throw new SonarcloudAPIException("Could not access SonarCube API!", e);
+		}
 	}
 
 	/**
@@ -97,8 +171,6 @@ public class SonarQubeDataGrabber {
 
 		URI sonarQubeURI = apiUriBuilder.build().encode().toUri();
 
-		// Create REST-Template
-		RestTemplate rest = new RestTemplate();
 		// Build Header
 		HttpHeaders headers = new HttpHeaders();
 		headers.set("User-Agent", USER_AGENT);
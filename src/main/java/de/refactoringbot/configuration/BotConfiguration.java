@@ -14,6 +14,56 @@ import org.springframework.stereotype.Component;
 public class BotConfiguration {
 
 	private String botRefactoringDirectory = "";
+	/** Maximum age of the locally known fork branches in seconds */
+	private long branchCacheMaxAge = 300;
+	/** Milliseconds between two maintenance runs of the workspaces */
+	private long maintenanceInterval = 3600000;
+	/** Maximum size of the bot refactoring directory in megabytes (0 = unlimited) */
+	private long workspaceQuota = 0;
+	/** Share one mirror of the upstream repository between all its configurations (opt-in) */
+	private boolean sharedObjectStore = false;
+	/** Seconds in which a fetch of the upstream repository is considered fresh */
+	private long fetchFreshnessWindow = 60;
+	/** Minimum seconds between two background fetches of the upstream repository */
+	private long prefetchMinInterval = 30;
+	/** Maximum seconds between two background fetches of the upstream repository */
+	private long prefetchMaxInterval = 600;
+	/** Maximum amount of pooled HTTP connections */
+	private int httpMaxConnections = 50;
+	/** Maximum amount of pooled HTTP connections per host */
+	private int httpMaxConnectionsPerRoute = 10;
+	/** Milliseconds until a HTTP connection must be established */
+	private int httpConnectTimeout = 10000;
+	/** Milliseconds until a HTTP response must be read */
+	private int httpReadTimeout = 60000;
+	/** Maximum amount of cached Github responses */
+	private int githubResponseCacheSize = 1000;
+	/** Maximum amount of API requests that are sent concurrently */
+	private int apiParallelism = 8;
+	/** Threads of the pool for asynchronous API calls */
+	private int apiIoPoolSize = 16;
+	/** Maximum duration of a comment run in seconds (0 = unlimited) */
+	private long runDeadline = 0;
+	/** Read pull requests and comments from the GraphQL-API of Github */
+	private boolean githubGraphQL = false;
+	/** Github requests per token that are left for writing requests */
+	private int githubRateLimitReserve = 100;
+	/** Maximum amount of retries of a Github request */
+	private int githubMaxRetries = 3;
+	/** Maximum time in seconds a Github request waits for the rate limit */
+	private long githubMaxWait = 60;
+	/** Secret the webhooks of the filehoster are signed with */
+	private String webhookSecret;
+	/** Time in milliseconds that comments of webhooks are collected before a run */
+	private long webhookDebounce = 2000;
+	/** Threads that execute queued refactoring jobs */
+	private int jobWorkerPoolSize = 2;
+	/** Threads that push the branches of refactored issues */
+	private int pushWorkerPoolSize = 2;
+	/** Maximum amount of issues of a run that are pushed or published at the same time */
+	private int pipelineCapacity = 4;
+	/** Amount of analysis issues that are read ahead and ordered by value per cost (0 = service order) */
+	private int prioritizationWindow = 500;
 
 	public String getBotRefactoringDirectory() {
 		return botRefactoringDirectory;
@@ -23,4 +73,204 @@ public class BotConfiguration {
 		this.botRefactoringDirectory = botRefactoringDirectory;
 	}
 
+	public long getBranchCacheMaxAge() {
+		return branchCacheMaxAge;
+	}
+
+	public void setBranchCacheMaxAge(long branchCacheMaxAge) {
+		this.branchCacheMaxAge = branchCacheMaxAge;
+	}
+
+	public long getMaintenanceInterval() {
+		return maintenanceInterval;
+	}
+
+	public void setMaintenanceInterval(long maintenanceInterval) {
+		this.maintenanceInterval = maintenanceInterval;
+	}
+
+	public long getWorkspaceQuota() {
+		return workspaceQuota;
+	}
+
+	public void setWorkspaceQuota(long workspaceQuota) {
+		this.workspaceQuota = workspaceQuota;
+	}
+
+	public boolean isSharedObjectStore() {
+		return sharedObjectStore;
+	}
+
+	public void setSharedObjectStore(boolean sharedObjectStore) {
+		this.sharedObjectStore = sharedObjectStore;
+	}
+
+	public long getFetchFreshnessWindow() {
+		return fetchFreshnessWindow;
+	}
+
+	public void setFetchFreshnessWindow(long fetchFreshnessWindow) {
+		this.fetchFreshnessWindow = fetchFreshnessWindow;
+	}
+
+	public long getPrefetchMinInterval() {
+		return prefetchMinInterval;
+	}
+
+	public void setPrefetchMinInterval(long prefetchMinInterval) {
+		this.prefetchMinInterval = prefetchMinInterval;
+	}
+
+	public long getPrefetchMaxInterval() {
+		return prefetchMaxInterval;
+	}
+
+	public void setPrefetchMaxInterval(long prefetchMaxInterval) {
+		this.prefetchMaxInterval = prefetchMaxInterval;
+	}
+
+	public int getHttpMaxConnections() {
+		return httpMaxConnections;
+	}
+
+	public void setHttpMaxConnections(int httpMaxConnections) {
+		this.httpMaxConnections = httpMaxConnections;
+	}
+
+	public int getHttpMaxConnectionsPerRoute() {
+		return httpMaxConnectionsPerRoute;
+	}
+
+	public void setHttpMaxConnectionsPerRoute(int httpMaxConnectionsPerRoute) {
+		this.httpMaxConnectionsPerRoute = httpMaxConnectionsPerRoute;
+	}
+
+	public int getHttpConnectTimeout() {
+		return httpConnectTimeout;
+	}
+
+	public void setHttpConnectTimeout(int httpConnectTimeout) {
+		this.httpConnectTimeout = httpConnectTimeout;
+	}
+
+	public int getHttpReadTimeout() {
+		return httpReadTimeout;
+	}
+
+	public void setHttpReadTimeout(int httpReadTimeout) {
+		this.httpReadTimeout = httpReadTimeout;
+	}
+
+	public int getGithubResponseCacheSize() {
+		return githubResponseCacheSize;
+	}
+
+	public void setGithubResponseCacheSize(int githubResponseCacheSize) {
+		this.githubResponseCacheSize = githubResponseCacheSize;
+	}
+
+	public int getApiParallelism() {
+		return apiParallelism;
+	}
+
+	public void setApiParallelism(int apiParallelism) {
+		this.apiParallelism = apiParallelism;
+	}
+
+	public boolean isGithubGraphQL() {
+		return githubGraphQL;
+	}
+
+	public void setGithubGraphQL(boolean githubGraphQL) {
+		this.githubGraphQL = githubGraphQL;
+	}
+
+	public int getGithubRateLimitReserve() {
+		return githubRateLimitReserve;
+	}
+
+	public void setGithubRateLimitReserve(int githubRateLimitReserve) {
+		this.githubRateLimitReserve = githubRateLimitReserve;
+	}
+
+	public int getGithubMaxRetries() {
+		return githubMaxRetries;
+	}
+
+	public void setGithubMaxRetries(int githubMaxRetries) {
+		this.githubMaxRetries = githubMaxRetries;
+	}
+
+	public long getGithubMaxWait() {
+		return githubMaxWait;
+	}
+
+	public void setGithubMaxWait(long githubMaxWait) {
+		this.githubMaxWait = githubMaxWait;
+	}
+
+	public String getWebhookSecret() {
+		return webhookSecret;
+	}
+
+	public void setWebhookSecret(String webhookSecret) {
+		this.webhookSecret = webhookSecret;
+	}
+
+	public long getWebhookDebounce() {
+		return webhookDebounce;
+	}
+
+	public void setWebhookDebounce(long webhookDebounce) {
+		this.webhookDebounce = webhookDebounce;
+	}
+
+	public int getApiIoPoolSize() {
+		return apiIoPoolSize;
+	}
+
+	public void setApiIoPoolSize(int apiIoPoolSize) {
+		this.apiIoPoolSize = apiIoPoolSize;
+	}
+
+	public long getRunDeadline() {
+		return runDeadline;
+	}
+
+	public void setRunDeadline(long runDeadline) {
+		this.runDeadline = runDeadline;
+	}
+
+	public int getJobWorkerPoolSize() {
+		return jobWorkerPoolSize;
+	}
+
+	public void setJobWorkerPoolSize(int jobWorkerPoolSize) {
+		this.jobWorkerPoolSize = jobWorkerPoolSize;
+	}
+
+	public int getPushWorkerPoolSize() {
+		return pushWorkerPoolSize;
+	}
+
+	public void setPushWorkerPoolSize(int pushWorkerPoolSize) {
+		this.pushWorkerPoolSize = pushWorkerPoolSize;
+	}
+
+	public int getPipelineCapacity() {
+		return pipelineCapacity;
+	}
+
+	public void setPipelineCapacity(int pipelineCapacity) {
+		this.pipelineCapacity = pipelineCapacity;
+	}
+
+	public int getPrioritizationWindow() {
+		return prioritizationWindow;
+	}
+
+	public void setPrioritizationWindow(int prioritizationWindow) {
+		this.prioritizationWindow = prioritizationWindow;
+	}
+
 }
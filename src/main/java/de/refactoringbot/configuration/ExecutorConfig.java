@@ -0,0 +1,59 @@
+package de.refactoringbot.configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+/**
+ * This class creates the thread pools that are used to send independent API
+ * requests concurrently and to execute refactoring jobs. The size of the pools
+ * limits the amount of requests and jobs that are in flight at the same time.
+ */
+@Configuration
+public class ExecutorConfig {
+
+	@Bean(destroyMethod = "shutdown")
+	public ExecutorService apiExecutor(BotConfiguration botConfig) {
+		return Executors.newFixedThreadPool(botConfig.getApiParallelism(), new CustomizableThreadFactory("api-"));
+	}
+
+	/**
+	 * Pool of the asynchronous API calls. It is separate from the 'apiExecutor',
+	 * because calls on this pool may wait for requests on that pool.
+	 * 
+	 * @param botConfig
+	 * @return ioExecutor
+	 */
+	@Bean(destroyMethod = "shutdown")
+	public ExecutorService ioExecutor(BotConfiguration botConfig) {
+		return Executors.newFixedThreadPool(botConfig.getApiIoPoolSize(), new CustomizableThreadFactory("api-io-"));
+	}
+
+	/**
+	 * Pool of the workers that execute queued refactoring jobs. Each worker runs one
+	 * configuration at a time, so the size limits how many configurations are
+	 * refactored concurrently.
+	 * 
+	 * @param botConfig
+	 * @return jobExecutor
+	 */
+	@Bean(destroyMethod = "shutdown")
+	public ExecutorService jobExecutor(BotConfiguration botConfig) {
+		return Executors.newFixedThreadPool(botConfig.getJobWorkerPoolSize(), new CustomizableThreadFactory("job-"));
+	}
+
+	/**
+	 * Pool of the workers that push the branches of refactored issues while the
+	 * runs already refactor their next issues.
+	 * 
+	 * @param botConfig
+	 * @return pushExecutor
+	 */
+	@Bean(destroyMethod = "shutdown")
+	public ExecutorService pushExecutor(BotConfiguration botConfig) {
+		return Executors.newFixedThreadPool(botConfig.getPushWorkerPoolSize(), new CustomizableThreadFactory("push-"));
+	}
+}
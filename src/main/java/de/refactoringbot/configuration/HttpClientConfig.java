@@ -0,0 +1,49 @@
+package de.refactoringbot.configuration;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import de.refactoringbot.api.github.GithubRequestScheduler;
+
+/**
+ * This class creates the pooled HTTP client that is shared by all API calls of
+ * the bot. Connections are kept alive and reused, so that the TLS handshake
+ * with the APIs is not repeated for every request. Responses are requested
+ * gzip compressed.
+ */
+@Configuration
+public class HttpClientConfig {
+
+	@Bean(destroyMethod = "close")
+	public CloseableHttpClient httpClient(BotConfiguration botConfig) {
+		PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+		connectionManager.setMaxTotal(botConfig.getHttpMaxConnections());
+		connectionManager.setDefaultMaxPerRoute(botConfig.getHttpMaxConnectionsPerRoute());
+
+		RequestConfig requestConfig = RequestConfig.custom().setConnectTimeout(botConfig.getHttpConnectTimeout())
+				.setConnectionRequestTimeout(botConfig.getHttpConnectTimeout())
+				.setSocketTimeout(botConfig.getHttpReadTimeout()).build();
+
+		// Content compression (gzip) is enabled by default
+		return HttpClients.custom().setConnectionManager(connectionManager).setDefaultRequestConfig(requestConfig)
+				.setKeepAliveStrategy(DefaultConnectionKeepAliveStrategy.INSTANCE).evictExpiredConnections()
+				.evictIdleConnections(60, TimeUnit.SECONDS).build();
+	}
+
+	@Bean
+	public RestTemplate restTemplate(CloseableHttpClient httpClient, GithubRequestScheduler githubScheduler) {
+		RestTemplate restTemplate = new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
+		// Must stay the last interceptor, because it repeats failed requests
+		restTemplate.getInterceptors().add(githubScheduler);
+		return restTemplate;
+	}
+}
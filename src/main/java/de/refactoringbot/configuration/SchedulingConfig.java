@@ -0,0 +1,12 @@
+package de.refactoringbot.configuration;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * This class enables the background jobs of the bot.
+ */
+@EnableScheduling
+@Configuration
+public class SchedulingConfig {
+}
@@ -0,0 +1,127 @@
+package de.refactoringbot.model.analysisissue;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+/**
+ * Issue of an analysis service that the bot knows locally for a configuration.
+ * The issues are kept up to date incrementally, so that a run only has to work
+ * on the issues that are open and were not attempted yet.
+ */
+@Entity
+@Table(name = "ANALYSIS_ISSUES")
+public class AnalysisIssue {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long analysisIssueId;
+
+	private Long configurationId;
+	private String issueKey;
+	private String rule;
+	private String component;
+	private String project;
+	private Integer line;
+	@Column(length = 1024)
+	private String message;
+	private String status;
+	private String creationDate;
+	private String updateDate;
+	private boolean attempted;
+
+	public Long getAnalysisIssueId() {
+		return analysisIssueId;
+	}
+
+	public Long getConfigurationId() {
+		return configurationId;
+	}
+
+	public void setConfigurationId(Long configurationId) {
+		this.configurationId = configurationId;
+	}
+
+	public String getIssueKey() {
+		return issueKey;
+	}
+
+	public void setIssueKey(String issueKey) {
+		this.issueKey = issueKey;
+	}
+
+	public String getRule() {
+		return rule;
+	}
+
+	public void setRule(String rule) {
+		this.rule = rule;
+	}
+
+	public String getComponent() {
+		return component;
+	}
+
+	public void setComponent(String component) {
+		this.component = component;
+	}
+
+	public String getProject() {
+		return project;
+	}
+
+	public void setProject(String project) {
+		this.project = project;
+	}
+
+	public Integer getLine() {
+		return line;
+	}
+
+	public void setLine(Integer line) {
+		this.line = line;
+	}
+
+	public String getMessage() {
+		return message;
+	}
+
+	public void setMessage(String message) {
+		this.message = message;
+	}
+
+	public String getStatus() {
+		return status;
+	}
+
+	public void setStatus(String status) {
+		this.status = status;
+	}
+
+	public String getCreationDate() {
+		return creationDate;
+	}
+
+	public void setCreationDate(String creationDate) {
+		this.creationDate = creationDate;
+	}
+
+	public String getUpdateDate() {
+		return updateDate;
+	}
+
+	public void setUpdateDate(String updateDate) {
+		this.updateDate = updateDate;
+	}
+
+	public boolean isAttempted() {
+		return attempted;
+	}
+
+	public void setAttempted(boolean attempted) {
+		this.attempted = attempted;
+	}
+}
@@ -0,0 +1,31 @@
+package de.refactoringbot.model.analysisissue;
+
+import java.util.List;
+import java.util.Optional;
+
+import javax.transaction.Transactional;
+
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+
+/**
+ * This interface is used to communicate with the database. It also implements
+ * Springs CrudRepository for direct access to existing CRUD-Methods.
+ */
+@Transactional
+public interface AnalysisIssueRepository extends CrudRepository<AnalysisIssue, Long> {
+
+	@Query("SELECT a FROM AnalysisIssue a WHERE a.configurationId=:configurationId and a.issueKey=:issueKey")
+	Optional<AnalysisIssue> getIssue(@Param("configurationId") Long configurationId,
+			@Param("issueKey") String issueKey);
+
+	@Query("SELECT a FROM AnalysisIssue a WHERE a.configurationId=:configurationId and a.attempted=false "
+			+ "and a.status in :statuses ORDER BY a.analysisIssueId")
+	List<AnalysisIssue> getActionableIssues(@Param("configurationId") Long configurationId,
+			@Param("statuses") List<String> statuses);
+
+	@Query("SELECT a FROM AnalysisIssue a WHERE a.configurationId=:configurationId")
+	Iterable<AnalysisIssue> getAllIssues(@Param("configurationId") Long configurationId);
+
+}
@@ -0,0 +1,63 @@
+package de.refactoringbot.model.analysisreport;
+
+/**
+ * Issue read from an analysis report file, e.g. a SARIF file or a SonarQube
+ * issue export.
+ */
+public class ReportIssue {
+
+	private String key;
+	private String rule;
+	private String filePath;
+	private Integer line;
+	private String message;
+	private String creationDate;
+
+	public String getKey() {
+		return key;
+	}
+
+	public void setKey(String key) {
+		this.key = key;
+	}
+
+	public String getRule() {
+		return rule;
+	}
+
+	public void setRule(String rule) {
+		this.rule = rule;
+	}
+
+	public String getFilePath() {
+		return filePath;
+	}
+
+	public void setFilePath(String filePath) {
+		this.filePath = filePath;
+	}
+
+	public Integer getLine() {
+		return line;
+	}
+
+	public void setLine(Integer line) {
+		this.line = line;
+	}
+
+	public String getMessage() {
+		return message;
+	}
+
+	public void setMessage(String message) {
+		this.message = message;
+	}
+
+	public String getCreationDate() {
+		return creationDate;
+	}
+
+	public void setCreationDate(String creationDate) {
+		this.creationDate = creationDate;
+	}
+}
@@ -1,5 +1,7 @@
 package de.refactoringbot.model.configuration;
 
 public enum AnalysisProvider {
-    sonarqube
+    sonarqube,
+    reportfile,
+    localanalyzer
 }
@@ -1,5 +1,6 @@
 package de.refactoringbot.model.configuration;
 
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.Query;
@@ -21,6 +22,10 @@ public interface ConfigurationRepository extends CrudRepository<GitConfiguration
 	public Optional<GitConfiguration> getConfigByName(@Param("repoName") String repoName,
 			@Param("repoOwner") String repoOwner);
 
+	@Query("SELECT a FROM GitConfiguration a WHERE a.repoName=:repoName and a.repoOwner=:repoOwner")
+	public List<GitConfiguration> getConfigsByName(@Param("repoName") String repoName,
+			@Param("repoOwner") String repoOwner);
+
 	@Query("SELECT a FROM GitConfiguration a WHERE a.repoName=:repoName and a.botName=:botName")
 	public Optional<GitConfiguration> getConfigByFork(@Param("repoName") String repoName,
 			@Param("botName") String botName);
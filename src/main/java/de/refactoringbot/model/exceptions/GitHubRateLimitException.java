@@ -0,0 +1,16 @@
+package de.refactoringbot.model.exceptions;
+
+import java.io.IOException;
+
+/**
+ * Exception if a GitHub API call would have to wait too long for the rate
+ * limit
+ */
+public class GitHubRateLimitException extends IOException {
+
+	private static final long serialVersionUID = 1L;
+
+	public GitHubRateLimitException(String message) {
+		super(message);
+	}
+}
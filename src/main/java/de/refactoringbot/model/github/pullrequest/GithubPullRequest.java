@@ -1,410 +0,0 @@
-
-package de.refactoringbot.model.github.pullrequest;
-
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-
-import com.fasterxml.jackson.annotation.JsonAnyGetter;
-import com.fasterxml.jackson.annotation.JsonAnySetter;
-import com.fasterxml.jackson.annotation.JsonIgnore;
-import com.fasterxml.jackson.annotation.JsonInclude;
-import com.fasterxml.jackson.annotation.JsonProperty;
-import com.fasterxml.jackson.annotation.JsonPropertyOrder;
-
-@JsonInclude(JsonInclude.Include.NON_NULL)
-@JsonPropertyOrder({
-    "id",
-    "node_id",
-    "url",
-    "html_url",
-    "diff_url",
-    "patch_url",
-    "issue_url",
-    "commits_url",
-    "review_comments_url",
-    "review_comment_url",
-    "comments_url",
-    "statuses_url",
-    "number",
-    "state",
-    "title",
-    "body",
-    "assignee",
-    "labels",
-    "milestone",
-    "locked",
-    "active_lock_reason",
-    "created_at",
-    "updated_at",
-    "closed_at",
-    "merged_at",
-    "head",
-    "base",
-    "_links",
-    "user"
-})
-public class GithubPullRequest {
-
-    @JsonProperty("id")
-    private Integer id;
-    @JsonProperty("node_id")
-    private String nodeId;
-    @JsonProperty("url")
-    private String url;
-    @JsonProperty("html_url")
-    private String htmlUrl;
-    @JsonProperty("diff_url")
-    private String diffUrl;
-    @JsonProperty("patch_url")
-    private String patchUrl;
-    @JsonProperty("issue_url")
-    private String issueUrl;
-    @JsonProperty("commits_url")
-    private String commitsUrl;
-    @JsonProperty("review_comments_url")
-    private String reviewCommentsUrl;
-    @JsonProperty("review_comment_url")
-    private String reviewCommentUrl;
-    @JsonProperty("comments_url")
-    private String commentsUrl;
-    @JsonProperty("statuses_url")
-    private String statusesUrl;
-    @JsonProperty("number")
-    private Integer number;
-    @JsonProperty("state")
-    private String state;
-    @JsonProperty("title")
-    private String title;
-    @JsonProperty("body")
-    private String body;
-    @JsonProperty("assignee")
-    private Assignee assignee;
-    @JsonProperty("labels")
-    private List<Label> labels = null;
-    @JsonProperty("milestone")
-    private Milestone milestone;
-    @JsonProperty("locked")
-    private Boolean locked;
-    @JsonProperty("active_lock_reason")
-    private String activeLockReason;
-    @JsonProperty("created_at")
-    private String createdAt;
-    @JsonProperty("updated_at")
-    private String updatedAt;
-    @JsonProperty("closed_at")
-    private String closedAt;
-    @JsonProperty("merged_at")
-    private String mergedAt;
-    @JsonProperty("head")
-    private Head head;
-    @JsonProperty("base")
-    private Base base;
-    @JsonProperty("_links")
-    private Links links;
-    @JsonProperty("user")
-    private User user;
-    @JsonIgnore
-    private Map<String, Object> additionalProperties = new HashMap<>();
-
-    @JsonProperty("id")
-    public Integer getId() {
-        return id;
-    }
-
-    @JsonProperty("id")
-    public void setId(Integer id) {
-        this.id = id;
-    }
-
-    @JsonProperty("node_id")
-    public String getNodeId() {
-        return nodeId;
-    }
-
-    @JsonProperty("node_id")
-    public void setNodeId(String nodeId) {
-        this.nodeId = nodeId;
-    }
-
-    @JsonProperty("url")
-    public String getUrl() {
-        return url;
-    }
-
-    @JsonProperty("url")
-    public void setUrl(String url) {
-        this.url = url;
-    }
-
-    @JsonProperty("html_url")
-    public String getHtmlUrl() {
-        return htmlUrl;
-    }
-
-    @JsonProperty("html_url")
-    public void setHtmlUrl(String htmlUrl) {
-        this.htmlUrl = htmlUrl;
-    }
-
-    @JsonProperty("diff_url")
-    public String getDiffUrl() {
-        return diffUrl;
-    }
-
-    @JsonProperty("diff_url")
-    public void setDiffUrl(String diffUrl) {
-        this.diffUrl = diffUrl;
-    }
-
-    @JsonProperty("patch_url")
-    public String getPatchUrl() {
-        return patchUrl;
-    }
-
-    @JsonProperty("patch_url")
-    public void setPatchUrl(String patchUrl) {
-        this.patchUrl = patchUrl;
-    }
-
-    @JsonProperty("issue_url")
-    public String getIssueUrl() {
-        return issueUrl;
-    }
-
-    @JsonProperty("issue_url")
-    public void setIssueUrl(String issueUrl) {
-        this.issueUrl = issueUrl;
-    }
-
-    @JsonProperty("commits_url")
-    public String getCommitsUrl() {
-        return commitsUrl;
-    }
-
-    @JsonProperty("commits_url")
-    public void setCommitsUrl(String commitsUrl) {
-        this.commitsUrl = commitsUrl;
-    }
-
-    @JsonProperty("review_comments_url")
-    public String getReviewCommentsUrl() {
-        return reviewCommentsUrl;
-    }
-
-    @JsonProperty("review_comments_url")
-    public void setReviewCommentsUrl(String reviewCommentsUrl) {
-        this.reviewCommentsUrl = reviewCommentsUrl;
-    }
-
-    @JsonProperty("review_comment_url")
-    public String getReviewCommentUrl() {
-        return reviewCommentUrl;
-    }
-
-    @JsonProperty("review_comment_url")
-    public void setReviewCommentUrl(String reviewCommentUrl) {
-        this.reviewCommentUrl = reviewCommentUrl;
-    }
-
-    @JsonProperty("comments_url")
-    public String getCommentsUrl() {
-        return commentsUrl;
-    }
-
-    @JsonProperty("comments_url")
-    public void setCommentsUrl(String commentsUrl) {
-        this.commentsUrl = commentsUrl;
-    }
-
-    @JsonProperty("statuses_url")
-    public String getStatusesUrl() {
-        return statusesUrl;
-    }
-
-    @JsonProperty("statuses_url")
-    public void setStatusesUrl(String statusesUrl) {
-        this.statusesUrl = statusesUrl;
-    }
-
-    @JsonProperty("number")
-    public Integer getNumber() {
-        return number;
-    }
-
-    @JsonProperty("number")
-    public void setNumber(Integer number) {
-        this.number = number;
-    }
-
-    @JsonProperty("state")
-    public String getState() {
-        return state;
-    }
-
-    @JsonProperty("state")
-    public void setState(String state) {
-        this.state = state;
-    }
-
-    @JsonProperty("title")
-    public String getTitle() {
-        return title;
-    }
-
-    @JsonProperty("title")
-    public void setTitle(String title) {
-        this.title = title;
-    }
-
-    @JsonProperty("body")
-    public String getBody() {
-        return body;
-    }
-
-    @JsonProperty("body")
-    public void setBody(String body) {
-        this.body = body;
-    }
-
-    @JsonProperty("assignee")
-    public Assignee getAssignee() {
-        return assignee;
-    }
-
-    @JsonProperty("assignee")
-    public void setAssignee(Assignee assignee) {
-        this.assignee = assignee;
-    }
-
-    @JsonProperty("labels")
-    public List<Label> getLabels() {
-        return labels;
-    }
-
-    @JsonProperty("labels")
-    public void setLabels(List<Label> labels) {
-        this.labels = labels;
-    }
-
-    @JsonProperty("milestone")
-    public Milestone getMilestone() {
-        return milestone;
-    }
-
-    @JsonProperty("milestone")
-    public void setMilestone(Milestone milestone) {
-        this.milestone = milestone;
-    }
-
-    @JsonProperty("locked")
-    public Boolean getLocked() {
-        return locked;
-    }
-
-    @JsonProperty("locked")
-    public void setLocked(Boolean locked) {
-        this.locked = locked;
-    }
-
-    @JsonProperty("active_lock_reason")
-    public String getActiveLockReason() {
-        return activeLockReason;
-    }
-
-    @JsonProperty("active_lock_reason")
-    public void setActiveLockReason(String activeLockReason) {
-        this.activeLockReason = activeLockReason;
-    }
-
-    @JsonProperty("created_at")
-    public String getCreatedAt() {
-        return createdAt;
-    }
-
-    @JsonProperty("created_at")
-    public void setCreatedAt(String createdAt) {
-        this.createdAt = createdAt;
-    }
-
-    @JsonProperty("updated_at")
-    public String getUpdatedAt() {
-        return updatedAt;
-    }
-
-    @JsonProperty("updated_at")
-    public void setUpdatedAt(String updatedAt) {
-        this.updatedAt = updatedAt;
-    }
-
-    @JsonProperty("closed_at")
-    public String getClosedAt() {
-        return closedAt;
-    }
-
-    @JsonProperty("closed_at")
-    public void setClosedAt(String closedAt) {
-        this.closedAt = closedAt;
-    }
-
-    @JsonProperty("merged_at")
-    public String getMergedAt() {
-        return mergedAt;
-    }
-
-    @JsonProperty("merged_at")
-    public void setMergedAt(String mergedAt) {
-        this.mergedAt = mergedAt;
-    }
-
-    @JsonProperty("head")
-    public Head getHead() {
-        return head;
-    }
-
-    @JsonProperty("head")
-    public void setHead(Head head) {
-        this.head = head;
-    }
-
-    @JsonProperty("base")
-    public Base getBase() {
-        return base;
-    }
-
-    @JsonProperty("base")
-    public void setBase(Base base) {
-        this.base = base;
-    }
-
-    @JsonProperty("_links")
-    public Links getLinks() {
-        return links;
-    }
-
-    @JsonProperty("_links")
-    public void setLinks(Links links) {
-        this.links = links;
-    }
-
-    @JsonProperty("user")
-    public User getUser() {
-        return user;
-    }
-
-    @JsonProperty("user")
-    public void setUser(User user) {
-        this.user = user;
-    }
-
-    @JsonAnyGetter
-    public Map<String, Object> getAdditionalProperties() {
-        return this.additionalProperties;
-    }
-
-    @JsonAnySetter
-    public void setAdditionalProperty(String name, Object value) {
-        this.additionalProperties.put(name, value);
-    }
-
-}
@@ -5,21 +5,21 @@ import java.util.List;
 
 public class GithubPullRequests {
 
-	List<GithubPullRequest> allPullRequests = new ArrayList<>();
+	List<SlimPullRequest> allPullRequests = new ArrayList<>();
 
-	public List<GithubPullRequest> getAllPullRequests() {
+	public List<SlimPullRequest> getAllPullRequests() {
 		return allPullRequests;
 	}
 
-	public void setAllPullRequests(List<GithubPullRequest> allPullRequests) {
+	public void setAllPullRequests(List<SlimPullRequest> allPullRequests) {
 		this.allPullRequests = allPullRequests;
 	}
 	
-	public void addPullRequest(GithubPullRequest pullRequest) {
+	public void addPullRequest(SlimPullRequest pullRequest) {
 		this.allPullRequests.add(pullRequest);
 	}
 	
-	public void removePullRequest(GithubPullRequest pullRequest) {
+	public void removePullRequest(SlimPullRequest pullRequest) {
 		this.allPullRequests.remove(pullRequest);
 	}
 	
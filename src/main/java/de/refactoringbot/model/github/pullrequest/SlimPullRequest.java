@@ -0,0 +1,186 @@
+package de.refactoringbot.model.github.pullrequest;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Read model of a Github pull request that only contains the fields the bot
+ * uses. All other fields of the payload are skipped while parsing.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class SlimPullRequest {
+
+	private Integer number;
+	private String title;
+	private String body;
+	private String state;
+	private String url;
+	@JsonProperty("html_url")
+	private String htmlUrl;
+	@JsonProperty("review_comments_url")
+	private String reviewCommentsUrl;
+	@JsonProperty("created_at")
+	private String createdAt;
+	@JsonProperty("updated_at")
+	private String updatedAt;
+	private SlimUser user;
+	private SlimRef head;
+	private SlimRef base;
+
+	public Integer getNumber() {
+		return number;
+	}
+
+	public void setNumber(Integer number) {
+		this.number = number;
+	}
+
+	public String getTitle() {
+		return title;
+	}
+
+	public void setTitle(String title) {
+		this.title = title;
+	}
+
+	public String getBody() {
+		return body;
+	}
+
+	public void setBody(String body) {
+		this.body = body;
+	}
+
+	public String getState() {
+		return state;
+	}
+
+	public void setState(String state) {
+		this.state = state;
+	}
+
+	public String getUrl() {
+		return url;
+	}
+
+	public void setUrl(String url) {
+		this.url = url;
+	}
+
+	public String getHtmlUrl() {
+		return htmlUrl;
+	}
+
+	public void setHtmlUrl(String htmlUrl) {
+		this.htmlUrl = htmlUrl;
+	}
+
+	public String getReviewCommentsUrl() {
+		return reviewCommentsUrl;
+	}
+
+	public void setReviewCommentsUrl(String reviewCommentsUrl) {
+		this.reviewCommentsUrl = reviewCommentsUrl;
+	}
+
+	public String getCreatedAt() {
+		return createdAt;
+	}
+
+	public void setCreatedAt(String createdAt) {
+		this.createdAt = createdAt;
+	}
+
+	public String getUpdatedAt() {
+		return updatedAt;
+	}
+
+	public void setUpdatedAt(String updatedAt) {
+		this.updatedAt = updatedAt;
+	}
+
+	public SlimUser getUser() {
+		return user;
+	}
+
+	public void setUser(SlimUser user) {
+		this.user = user;
+	}
+
+	public SlimRef getHead() {
+		return head;
+	}
+
+	public void setHead(SlimRef head) {
+		this.head = head;
+	}
+
+	public SlimRef getBase() {
+		return base;
+	}
+
+	public void setBase(SlimRef base) {
+		this.base = base;
+	}
+
+	@JsonIgnoreProperties(ignoreUnknown = true)
+	public static class SlimUser {
+
+		private String login;
+
+		public String getLogin() {
+			return login;
+		}
+
+		public void setLogin(String login) {
+			this.login = login;
+		}
+	}
+
+	@JsonIgnoreProperties(ignoreUnknown = true)
+	public static class SlimRef {
+
+		private String ref;
+		private SlimUser user;
+		private SlimRepo repo;
+
+		public String getRef() {
+			return ref;
+		}
+
+		public void setRef(String ref) {
+			this.ref = ref;
+		}
+
+		public SlimUser getUser() {
+			return user;
+		}
+
+		public void setUser(SlimUser user) {
+			this.user = user;
+		}
+
+		public SlimRepo getRepo() {
+			return repo;
+		}
+
+		public void setRepo(SlimRepo repo) {
+			this.repo = repo;
+		}
+	}
+
+	@JsonIgnoreProperties(ignoreUnknown = true)
+	public static class SlimRepo {
+
+		@JsonProperty("full_name")
+		private String fullName;
+
+		public String getFullName() {
+			return fullName;
+		}
+
+		public void setFullName(String fullName) {
+			this.fullName = fullName;
+		}
+	}
+}
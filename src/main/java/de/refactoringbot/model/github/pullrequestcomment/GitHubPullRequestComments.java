@@ -1,25 +1,35 @@
 package de.refactoringbot.model.github.pullrequestcomment;
 
+import java.net.URI;
 import java.util.ArrayList;
 import java.util.List;
 
 public class GitHubPullRequestComments {
 
-	List<PullRequestComment> comments = new ArrayList<>();
+	List<SlimPullRequestComment> comments = new ArrayList<>();
+	URI nextPage;
 
-	public List<PullRequestComment> getComments() {
+	public List<SlimPullRequestComment> getComments() {
 		return comments;
 	}
 
-	public void setComments(List<PullRequestComment> comments) {
+	public void setComments(List<SlimPullRequestComment> comments) {
 		this.comments = comments;
 	}
 	
-	public void addComment(PullRequestComment comment) {
+	public URI getNextPage() {
+		return nextPage;
+	}
+
+	public void setNextPage(URI nextPage) {
+		this.nextPage = nextPage;
+	}
+
+	public void addComment(SlimPullRequestComment comment) {
 		this.comments.add(comment);
 	}
 	
-	public void removeComment(PullRequestComment comment) {
+	public void removeComment(SlimPullRequestComment comment) {
 		this.comments.remove(comment);
 	}
 }
@@ -0,0 +1,80 @@
+package de.refactoringbot.model.github.pullrequestcomment;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import de.refactoringbot.model.github.pullrequest.SlimPullRequest.SlimUser;
+
+/**
+ * Read model of a Github review comment that only contains the fields the bot
+ * uses. All other fields of the payload are skipped while parsing.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class SlimPullRequestComment {
+
+	private Integer id;
+	private String path;
+	private Integer position;
+	private String body;
+	private SlimUser user;
+	@JsonProperty("created_at")
+	private String createdAt;
+	@JsonProperty("pull_request_url")
+	private String pullRequestUrl;
+
+	public Integer getId() {
+		return id;
+	}
+
+	public void setId(Integer id) {
+		this.id = id;
+	}
+
+	public String getPath() {
+		return path;
+	}
+
+	public void setPath(String path) {
+		this.path = path;
+	}
+
+	public Integer getPosition() {
+		return position;
+	}
+
+	public void setPosition(Integer position) {
+		this.position = position;
+	}
+
+	public String getBody() {
+		return body;
+	}
+
+	public void setBody(String body) {
+		this.body = body;
+	}
+
+	public SlimUser getUser() {
+		return user;
+	}
+
+	public void setUser(SlimUser user) {
+		this.user = user;
+	}
+
+	public String getCreatedAt() {
+		return createdAt;
+	}
+
+	public void setCreatedAt(String createdAt) {
+		this.createdAt = createdAt;
+	}
+
+	public String getPullRequestUrl() {
+		return pullRequestUrl;
+	}
+
+	public void setPullRequestUrl(String pullRequestUrl) {
+		this.pullRequestUrl = pullRequestUrl;
+	}
+}
@@ -0,0 +1,5 @@
+package de.refactoringbot.model.job;
+
+public enum JobState {
+    QUEUED, RUNNING, FINISHED, FAILED
+}
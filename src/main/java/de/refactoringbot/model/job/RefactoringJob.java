@@ -0,0 +1,152 @@
+package de.refactoringbot.model.job;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import de.refactoringbot.model.refactoredissue.RefactoredIssue;
+
+/**
+ * Refactoring run that was requested through the REST-API and is executed by
+ * a worker in the background. The refactored issues are added while the job
+ * runs, so that the progress can be followed.
+ */
+public class RefactoringJob {
+
+	public static final String COMMENTS = "comments";
+	public static final String ANALYSIS_SERVICE = "analysisService";
+	public static final String ANALYSIS_REPORT = "analysisReport";
+
+	private final Long jobId;
+	private final Long configurationId;
+	private final String type;
+	private final long dateCreated = System.currentTimeMillis();
+	private volatile JobState state = JobState.QUEUED;
+	private volatile Long dateStarted;
+	private volatile Long dateFinished;
+	private volatile String errorMessage;
+	private volatile Long upstreamFetchAge;
+	private volatile Integer analysisPages;
+	private volatile Long analysisRequestTime;
+	private final List<RefactoredIssue> refactoredIssues = new CopyOnWriteArrayList<>();
+
+	public RefactoringJob(Long jobId, Long configurationId, String type) {
+		this.jobId = jobId;
+		this.configurationId = configurationId;
+		this.type = type;
+	}
+
+	public Long getJobId() {
+		return jobId;
+	}
+
+	public Long getConfigurationId() {
+		return configurationId;
+	}
+
+	public String getType() {
+		return type;
+	}
+
+	public long getDateCreated() {
+		return dateCreated;
+	}
+
+	public JobState getState() {
+		return state;
+	}
+
+	public Long getDateStarted() {
+		return dateStarted;
+	}
+
+	public Long getDateFinished() {
+		return dateFinished;
+	}
+
+	public String getErrorMessage() {
+		return errorMessage;
+	}
+
+	/**
+	 * Seconds since the last successful fetch of the upstream repository when the
+	 * job ran.
+	 * 
+	 * @return upstreamFetchAge or null
+	 */
+	public Long getUpstreamFetchAge() {
+		return upstreamFetchAge;
+	}
+
+	public void setUpstreamFetchAge(Long upstreamFetchAge) {
+		this.upstreamFetchAge = upstreamFetchAge;
+	}
+
+	/**
+	 * Amount of pages the job read from the analysis service.
+	 * 
+	 * @return analysisPages or null
+	 */
+	public Integer getAnalysisPages() {
+		return analysisPages;
+	}
+
+	public void setAnalysisPages(Integer analysisPages) {
+		this.analysisPages = analysisPages;
+	}
+
+	/**
+	 * Milliseconds the job spent reading pages from the analysis service.
+	 * 
+	 * @return analysisRequestTime or null
+	 */
+	public Long getAnalysisRequestTime() {
+		return analysisRequestTime;
+	}
+
+	public void setAnalysisRequestTime(Long analysisRequestTime) {
+		this.analysisRequestTime = analysisRequestTime;
+	}
+
+	public List<RefactoredIssue> getRefactoredIssues() {
+		return refactoredIssues;
+	}
+
+	public int getProcessedIssues() {
+		return refactoredIssues.size();
+	}
+
+	public int getSuccessfulIssues() {
+		return (int) refactoredIssues.stream().filter(issue -> "SUCCESSFUL".equals(issue.getStatus())).count();
+	}
+
+	public int getFailedIssues() {
+		return getProcessedIssues() - getSuccessfulIssues();
+	}
+
+	/**
+	 * This method marks the job as started.
+	 */
+	public void start() {
+		dateStarted = System.currentTimeMillis();
+		state = JobState.RUNNING;
+	}
+
+	/**
+	 * This method marks the job as finished.
+	 */
+	public void finish() {
+		dateFinished = System.currentTimeMillis();
+		state = JobState.FINISHED;
+	}
+
+	/**
+	 * This method marks the job as failed.
+	 * 
+	 * @param errorMessage
+	 */
+	public void fail(String errorMessage) {
+		this.errorMessage = errorMessage;
+		dateFinished = System.currentTimeMillis();
+		state = JobState.FAILED;
+	}
+}
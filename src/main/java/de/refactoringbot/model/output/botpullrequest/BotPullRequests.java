@@ -6,6 +6,7 @@ import java.util.List;
 public class BotPullRequests {
 
 	List<BotPullRequest> allPullRequests = new ArrayList<>();
+	Integer amountOfBotRequests;
 
 	public List<BotPullRequest> getAllPullRequests() {
 		return allPullRequests;
@@ -15,6 +16,14 @@ public class BotPullRequests {
 		this.allPullRequests = allPullRequests;
 	}
 	
+	public Integer getAmountOfBotRequests() {
+		return amountOfBotRequests;
+	}
+
+	public void setAmountOfBotRequests(Integer amountOfBotRequests) {
+		this.amountOfBotRequests = amountOfBotRequests;
+	}
+
 	public void addPullRequest(BotPullRequest pullRequest) {
 		this.allPullRequests.add(pullRequest);
 	}
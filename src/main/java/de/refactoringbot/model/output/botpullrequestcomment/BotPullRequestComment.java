@@ -7,6 +7,7 @@ public class BotPullRequestComment {
 	private String filepath;
 	private Integer position;
 	private String commentBody;
+	private String dateCreated;
 
 	public Integer getCommentID() {
 		return commentID;
@@ -48,4 +49,12 @@ public class BotPullRequestComment {
 		this.username = username;
 	}
 
+	public String getDateCreated() {
+		return dateCreated;
+	}
+
+	public void setDateCreated(String dateCreated) {
+		this.dateCreated = dateCreated;
+	}
+
 }
@@ -0,0 +1,25 @@
+package de.refactoringbot.model.output.botpullrequestcomment;
+
+import de.refactoringbot.model.output.botpullrequest.BotPullRequest;
+
+/**
+ * Comment together with the request it belongs to.
+ */
+public class RequestComment {
+
+	private final BotPullRequest request;
+	private final BotPullRequestComment comment;
+
+	public RequestComment(BotPullRequest request, BotPullRequestComment comment) {
+		this.request = request;
+		this.comment = comment;
+	}
+
+	public BotPullRequest getRequest() {
+		return request;
+	}
+
+	public BotPullRequestComment getComment() {
+		return comment;
+	}
+}
@@ -0,0 +1,61 @@
+package de.refactoringbot.model.output.botpullrequestcomment;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+
+import de.refactoringbot.model.output.botpullrequest.BotPullRequest;
+import de.refactoringbot.model.output.botpullrequest.BotPullRequests;
+
+/**
+ * Iterator over the comments of pull requests. Implementations may read the
+ * comments from the filehoster while iterating, so that no more comments are
+ * read than are processed. Failed reads are thrown as IllegalStateException.
+ */
+public interface RequestCommentIterator extends Iterator<RequestComment> {
+
+	/**
+	 * @return amount of open requests created by the bot if it was counted while
+	 *         the requests were read, otherwise null
+	 */
+	default Integer getAmountOfBotRequests() {
+		return null;
+	}
+
+	/**
+	 * This method creates an iterator over comments that are already loaded. The
+	 * comments are returned in the order of their creation.
+	 * 
+	 * @param requests
+	 * @return iterator
+	 */
+	static RequestCommentIterator of(BotPullRequests requests) {
+		List<RequestComment> allComments = new ArrayList<>();
+		for (BotPullRequest request : requests.getAllPullRequests()) {
+			for (BotPullRequestComment comment : request.getAllComments()) {
+				allComments.add(new RequestComment(request, comment));
+			}
+		}
+		allComments.sort(Comparator.comparing(requestComment -> requestComment.getComment().getCommentID()));
+
+		Iterator<RequestComment> iterator = allComments.iterator();
+		return new RequestCommentIterator() {
+
+			@Override
+			public boolean hasNext() {
+				return iterator.hasNext();
+			}
+
+			@Override
+			public RequestComment next() {
+				return iterator.next();
+			}
+
+			@Override
+			public Integer getAmountOfBotRequests() {
+				return requests.getAmountOfBotRequests();
+			}
+		};
+	}
+}
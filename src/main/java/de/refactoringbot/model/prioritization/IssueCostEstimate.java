@@ -0,0 +1,92 @@
+package de.refactoringbot.model.prioritization;
+
+/**
+ * This class holds the estimated cost of refactoring an issue. The cost is
+ * measured in bytes of Java code that the refactoring parses plus a fixed
+ * amount for the branch, push and pull request of the issue. The priority is
+ * the value of the issue per cost.
+ */
+public class IssueCostEstimate {
+
+	private String commentServiceID;
+	private String refactoringOperation;
+	private String filePath;
+	private Integer line;
+	private long fileSize;
+	private int fanOut;
+	private long cost;
+	private double value;
+	private double priority;
+
+	public String getCommentServiceID() {
+		return commentServiceID;
+	}
+
+	public void setCommentServiceID(String commentServiceID) {
+		this.commentServiceID = commentServiceID;
+	}
+
+	public String getRefactoringOperation() {
+		return refactoringOperation;
+	}
+
+	public void setRefactoringOperation(String refactoringOperation) {
+		this.refactoringOperation = refactoringOperation;
+	}
+
+	public String getFilePath() {
+		return filePath;
+	}
+
+	public void setFilePath(String filePath) {
+		this.filePath = filePath;
+	}
+
+	public Integer getLine() {
+		return line;
+	}
+
+	public void setLine(Integer line) {
+		this.line = line;
+	}
+
+	public long getFileSize() {
+		return fileSize;
+	}
+
+	public void setFileSize(long fileSize) {
+		this.fileSize = fileSize;
+	}
+
+	public int getFanOut() {
+		return fanOut;
+	}
+
+	public void setFanOut(int fanOut) {
+		this.fanOut = fanOut;
+	}
+
+	public long getCost() {
+		return cost;
+	}
+
+	public void setCost(long cost) {
+		this.cost = cost;
+	}
+
+	public double getValue() {
+		return value;
+	}
+
+	public void setValue(double value) {
+		this.value = value;
+	}
+
+	public double getPriority() {
+		return priority;
+	}
+
+	public void setPriority(double priority) {
+		this.priority = priority;
+	}
+}
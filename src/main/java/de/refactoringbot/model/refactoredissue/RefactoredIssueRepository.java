@@ -1,6 +1,6 @@
 package de.refactoringbot.model.refactoredissue;
 
-import java.util.Optional;
+import java.util.List;
 
 import javax.transaction.Transactional;
 
@@ -26,11 +26,8 @@ public interface RefactoredIssueRepository extends CrudRepository<RefactoredIssu
 	Iterable<RefactoredIssue> getAllUserIssues(@Param("repoService") String repoService,
 			@Param("repoOwner") String repoOwner);
 
-	@Query("SELECT a FROM RefactoredIssue a WHERE a.repoService=:repoService and a.commentServiceID=:commentServiceID")
-	Optional<RefactoredIssue> refactoredComment(@Param("repoService") FileHoster repoService,
-			@Param("commentServiceID") String commentServiceID);
-
-	@Query("SELECT a FROM RefactoredIssue a WHERE a.commentServiceID=:commentServiceID")
-	Optional<RefactoredIssue> refactoredAnalysisIssue(@Param("commentServiceID") String commentServiceID);
+	@Query("SELECT a.commentServiceID FROM RefactoredIssue a WHERE a.repoService=:repoService and a.repoOwner=:repoOwner and a.repoName=:repoName")
+	List<String> getRefactoredIssueIds(@Param("repoService") FileHoster repoService,
+			@Param("repoOwner") String repoOwner, @Param("repoName") String repoName);
 
 }
@@ -0,0 +1,35 @@
+package de.refactoringbot.model.sonarqube;
+
+/**
+ * This class holds the statistics of one page of a SonarQube issue search: the
+ * amount of issues it contained and the time it took to read it.
+ */
+public class SonarPageStats {
+
+	private final int page;
+	private final int issues;
+	private final long requestDuration;
+
+	public SonarPageStats(int page, int issues, long requestDuration) {
+		this.page = page;
+		this.issues = issues;
+		this.requestDuration = requestDuration;
+	}
+
+	public int getPage() {
+		return page;
+	}
+
+	public int getIssues() {
+		return issues;
+	}
+
+	/**
+	 * Milliseconds from sending the request until the page was read.
+	 *
+	 * @return requestDuration
+	 */
+	public long getRequestDuration() {
+		return requestDuration;
+	}
+}
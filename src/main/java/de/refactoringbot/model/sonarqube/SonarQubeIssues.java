@@ -36,6 +36,8 @@ public class SonarQubeIssues {
 	private List<Object> facets = null;
 	@JsonIgnore
 	private Map<String, Object> additionalProperties = new HashMap<>();
+	@JsonIgnore
+	private long requestDuration;
 
 	@JsonProperty("total")
 	public Integer getTotal() {
@@ -137,4 +139,19 @@ public class SonarQubeIssues {
 		this.additionalProperties.put(name, value);
 	}
 
+	/**
+	 * Milliseconds the request of this page took.
+	 * 
+	 * @return requestDuration
+	 */
+	@JsonIgnore
+	public long getRequestDuration() {
+		return requestDuration;
+	}
+
+	@JsonIgnore
+	public void setRequestDuration(long requestDuration) {
+		this.requestDuration = requestDuration;
+	}
+
 }
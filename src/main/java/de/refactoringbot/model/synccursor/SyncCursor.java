@@ -0,0 +1,81 @@
+package de.refactoringbot.model.synccursor;
+
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+/**
+ * Position up to which the bot has already read the data of a configuration,
+ * e.g. the newest pull request comment it has evaluated.
+ */
+@Entity
+@Table(name = "SYNC_CURSORS")
+public class SyncCursor {
+
+	public static final String REVIEW_COMMENTS = "reviewComments";
+	public static final String ANALYSIS_ISSUES = "analysisIssues";
+	/** Creation date up to which the first sync of the issues has read */
+	public static final String ANALYSIS_ISSUES_WINDOW = "analysisIssuesWindow";
+	/** Newest update of the closed requests whose branches were deleted */
+	public static final String CLOSED_REQUESTS = "closedRequests";
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long cursorId;
+
+	private Long configurationId;
+	private String type;
+	private Long lastId;
+	private String lastTimestamp;
+
+	public Long getCursorId() {
+		return cursorId;
+	}
+
+	public Long getConfigurationId() {
+		return configurationId;
+	}
+
+	public void setConfigurationId(Long configurationId) {
+		this.configurationId = configurationId;
+	}
+
+	public String getType() {
+		return type;
+	}
+
+	public void setType(String type) {
+		this.type = type;
+	}
+
+	public Long getLastId() {
+		return lastId;
+	}
+
+	public void setLastId(Long lastId) {
+		this.lastId = lastId;
+	}
+
+	public String getLastTimestamp() {
+		return lastTimestamp;
+	}
+
+	public void setLastTimestamp(String lastTimestamp) {
+		this.lastTimestamp = lastTimestamp;
+	}
+
+	/**
+	 * This method moves the cursor forward. It never moves backwards.
+	 * 
+	 * @param id
+	 * @param timestamp
+	 */
+	public void advance(Long id, String timestamp) {
+		if (lastId == null || id > lastId) {
+			lastId = id;
+			lastTimestamp = timestamp;
+		}
+	}
+}
@@ -0,0 +1,24 @@
+package de.refactoringbot.model.synccursor;
+
+import java.util.Optional;
+
+import javax.transaction.Transactional;
+
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+
+/**
+ * This interface is used to communicate with the database. It also implements
+ * Springs CrudRepository for direct access to existing CRUD-Methods.
+ */
+@Transactional
+public interface SyncCursorRepository extends CrudRepository<SyncCursor, Long> {
+
+	@Query("SELECT a FROM SyncCursor a WHERE a.configurationId=:configurationId and a.type=:type")
+	Optional<SyncCursor> getCursor(@Param("configurationId") Long configurationId, @Param("type") String type);
+
+	@Query("SELECT a FROM SyncCursor a WHERE a.configurationId=:configurationId")
+	Iterable<SyncCursor> getAllCursors(@Param("configurationId") Long configurationId);
+
+}
@@ -0,0 +1,39 @@
+package de.refactoringbot.model.workspace;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public class WorkspaceSnapshot {
+
+	private String branchName;
+	private List<String> localBranches = new ArrayList<>();
+	/** Untracked files and folders that existed before the refactoring */
+	private Set<String> untrackedPaths = new HashSet<>();
+
+	public String getBranchName() {
+		return branchName;
+	}
+
+	public void setBranchName(String branchName) {
+		this.branchName = branchName;
+	}
+
+	public List<String> getLocalBranches() {
+		return localBranches;
+	}
+
+	public void setLocalBranches(List<String> localBranches) {
+		this.localBranches = localBranches;
+	}
+
+	public Set<String> getUntrackedPaths() {
+		return untrackedPaths;
+	}
+
+	public void setUntrackedPaths(Set<String> untrackedPaths) {
+		this.untrackedPaths = untrackedPaths;
+	}
+
+}
@@ -0,0 +1,41 @@
+package de.refactoringbot.rest;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import de.refactoringbot.model.job.RefactoringJob;
+import de.refactoringbot.services.main.RefactoringJobService;
+import io.swagger.annotations.ApiOperation;
+
+/**
+ * This REST-Controller shows the state of queued refactoring jobs.
+ */
+@RestController
+@RequestMapping(path = "/jobs")
+public class JobController {
+
+	@Autowired
+	RefactoringJobService jobService;
+
+	/**
+	 * This method returns the state, the progress and the refactored issues of a
+	 * job.
+	 * 
+	 * @param jobId
+	 * @return job
+	 */
+	@GetMapping(path = "/{jobId}", produces = "application/json")
+	@ApiOperation(value = "Get state and results of a refactoring job")
+	public ResponseEntity<?> getJob(@PathVariable Long jobId) {
+		RefactoringJob job = jobService.getJob(jobId);
+		if (job == null) {
+			return new ResponseEntity<>("Job with given ID does not exist!", HttpStatus.NOT_FOUND);
+		}
+		return new ResponseEntity<>(job, HttpStatus.OK);
+	}
+}
@@ -1,5 +1,13 @@
 package de.refactoringbot.rest;
 
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+import javax.servlet.http.HttpServletRequest;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -9,13 +17,17 @@ import org.springframework.web.bind.annotation.*;
 
 import de.refactoringbot.model.exceptions.BotRefactoringException;
 import de.refactoringbot.model.exceptions.DatabaseConnectionException;
+import de.refactoringbot.model.job.RefactoringJob;
+import de.refactoringbot.services.main.ConfigurationService;
+import de.refactoringbot.services.main.RefactoringJobService;
 import de.refactoringbot.services.main.RefactoringService;
 import io.swagger.annotations.ApiOperation;
 import javassist.NotFoundException;
 
 /**
  * This REST-Controller creates an REST-API which allows the user to perform
- * refactorings with the bot.
+ * refactorings with the bot. Refactorings are queued as jobs, whose state can
+ * be read with the returned job id.
  * 
  * @author Stefan Basaric
  *
@@ -26,53 +38,116 @@ public class RefactoringController {
 
 	@Autowired
 	RefactoringService refactoringService;
+	@Autowired
+	RefactoringJobService jobService;
+	@Autowired
+	ConfigurationService configService;
 	
 	private static final Logger logger = LoggerFactory.getLogger(RefactoringController.class);
 
 	/**
-	 * This method performs refactorings with comments within Pull-Requests of a
+	 * This method queues refactorings with comments within Pull-Requests of a
 	 * Filehoster like GitHub.
 	 * 
 	 * @param configID
-	 * @return allRequests
+	 * @return job
 	 */
 	@PostMapping(value = "/{configID}/refactorWithComments", produces = "application/json")
-	@ApiOperation(value = "Perform refactorings with Pull-Request-Comments.")
+	@ApiOperation(value = "Queue refactorings with Pull-Request-Comments.")
 	public ResponseEntity<?> refactorWithComments(@PathVariable Long configID) {
-		// Refactor with comments and respond with result
+		// Queue refactoring with comments and respond with job
 		try {
-			return refactoringService.performRefactoring(configID, true);
+			configService.checkConfigurationExistance(configID);
+			return accepted(jobService.submit(configID, RefactoringJob.COMMENTS,
+					refactoredIssues -> refactoringService.performRefactoring(configID, true, refactoredIssues)));
 		} catch (DatabaseConnectionException d) {
 			logger.error(d.getMessage(), d);
 			return new ResponseEntity<>(d.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
 		} catch (NotFoundException n) {
 			return new ResponseEntity<>(n.getMessage(), HttpStatus.NOT_FOUND);
-		} catch (BotRefactoringException b) {
-			return new ResponseEntity<>(b.getMessage(), HttpStatus.BAD_REQUEST);
-		} catch (Exception e) {
-			logger.error(e.getMessage(), e);
-			return new ResponseEntity<>(e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
 		}
 	}
 
 	/**
-	 * This method performs refactorings according to findings with an analysis
+	 * This method queues refactorings according to findings with an analysis
 	 * service like SonarCube.
 	 * 
 	 * @param configID
-	 * @return allRefactoredIssues
+	 * @return job
 	 */
 	@PostMapping(value = "/{configID}/refactorWithAnalysisService", produces = "application/json")
-	@ApiOperation(value = "Perform refactorings with analysis service.")
+	@ApiOperation(value = "Queue refactorings with analysis service.")
 	public ResponseEntity<?> refactorWithSonarCube(@PathVariable Long configID) {
-		// Refactor with analysis service and respond with result
+		// Queue refactoring with analysis service and respond with job
+		try {
+			configService.checkConfigurationExistance(configID);
+			return accepted(jobService.submit(configID, RefactoringJob.ANALYSIS_SERVICE,
+					refactoredIssues -> refactoringService.performRefactoring(configID, false, refactoredIssues)));
+		} catch (DatabaseConnectionException d) {
+			logger.error(d.getMessage(), d);
+			return new ResponseEntity<>(d.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
+		} catch (NotFoundException n) {
+			return new ResponseEntity<>(n.getMessage(), HttpStatus.NOT_FOUND);
+		}
+	}
+
+	/**
+	 * This method queues refactorings according to the issues of an uploaded
+	 * analysis report, e.g. a SARIF file or a SonarQube issue export. The report is
+	 * written to a temporary file while it is received and read from there while
+	 * the issues are refactored.
+	 * 
+	 * @param configID
+	 * @param request
+	 * @return job
+	 */
+	@PostMapping(value = "/{configID}/refactorWithAnalysisReport", consumes = "application/json", produces = "application/json")
+	@ApiOperation(value = "Queue refactorings with an uploaded analysis report (SARIF or SonarQube issue export).")
+	public ResponseEntity<?> refactorWithAnalysisReport(@PathVariable Long configID, HttpServletRequest request) {
+		Path report = null;
 		try {
-			return refactoringService.performRefactoring(configID, false);
+			configService.checkConfigurationExistance(configID);
+
+			// Store report without holding it in memory
+			report = Files.createTempFile("analysis-report-", ".json");
+			Files.copy(request.getInputStream(), report, StandardCopyOption.REPLACE_EXISTING);
+
+			// Queue refactoring with report and respond with job, the job deletes the report
+			Path queuedReport = report;
+			report = null;
+			return accepted(jobService.submit(configID, RefactoringJob.ANALYSIS_REPORT,
+					refactoredIssues -> refactoringService.performReportRefactoring(configID, queuedReport,
+							refactoredIssues),
+					() -> deleteReport(queuedReport)));
 		} catch (DatabaseConnectionException d) {
 			logger.error(d.getMessage(), d);
 			return new ResponseEntity<>(d.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
 		} catch (NotFoundException n) {
 			return new ResponseEntity<>(n.getMessage(), HttpStatus.NOT_FOUND);
+		} catch (Exception e) {
+			logger.error(e.getMessage(), e);
+			return new ResponseEntity<>(e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
+		} finally {
+			deleteReport(report);
+		}
+	}
+
+	/**
+	 * This method estimates the cost of the next issues of the analysis service,
+	 * ordered by their priority.
+	 * 
+	 * @param configID
+	 * @param limit
+	 * @return estimates
+	 */
+	@GetMapping(value = "/{configID}/issueCostEstimates", produces = "application/json")
+	@ApiOperation(value = "Estimate the cost of the next analysis service issues, ordered by priority.")
+	public ResponseEntity<?> getIssueCostEstimates(@PathVariable Long configID,
+			@RequestParam(defaultValue = "100") int limit) {
+		try {
+			return new ResponseEntity<>(refactoringService.getIssueCostEstimates(configID, limit), HttpStatus.OK);
+		} catch (NotFoundException n) {
+			return new ResponseEntity<>(n.getMessage(), HttpStatus.NOT_FOUND);
 		} catch (BotRefactoringException b) {
 			return new ResponseEntity<>(b.getMessage(), HttpStatus.BAD_REQUEST);
 		} catch (Exception e) {
@@ -80,4 +155,30 @@ public class RefactoringController {
 			return new ResponseEntity<>(e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
 		}
 	}
+
+	/**
+	 * This method creates the response for a queued job.
+	 * 
+	 * @param job
+	 * @return response
+	 */
+	private ResponseEntity<?> accepted(RefactoringJob job) {
+		return ResponseEntity.accepted().location(URI.create("/jobs/" + job.getJobId())).body(job);
+	}
+
+	/**
+	 * This method deletes an uploaded report.
+	 * 
+	 * @param report
+	 */
+	private void deleteReport(Path report) {
+		if (report == null) {
+			return;
+		}
+		try {
+			Files.deleteIfExists(report);
+		} catch (IOException e) {
+			logger.error(e.getMessage(), e);
+		}
+	}
 }
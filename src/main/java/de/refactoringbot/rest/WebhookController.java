@@ -0,0 +1,67 @@
+package de.refactoringbot.rest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import de.refactoringbot.model.exceptions.ValidationException;
+import de.refactoringbot.services.github.GithubWebhookService;
+import io.swagger.annotations.ApiOperation;
+import javassist.NotFoundException;
+
+/**
+ * This REST-Controller receives the webhook events of filehosters, so that new
+ * comments are refactored right away instead of with the next poll.
+ */
+@RestController
+@RequestMapping(path = "/webhooks")
+public class WebhookController {
+
+	@Autowired
+	GithubWebhookService githubWebhookService;
+
+	private static final Logger logger = LoggerFactory.getLogger(WebhookController.class);
+
+	/**
+	 * This method receives the webhook events of Github. Only new review comments
+	 * of pull requests are processed.
+	 * 
+	 * @param event
+	 * @param signature256
+	 * @param signature1
+	 * @param payload
+	 * @return response
+	 */
+	@PostMapping(value = "/github", produces = "application/json")
+	@ApiOperation(value = "Receive webhook events from Github.")
+	public ResponseEntity<?> receiveGithubEvent(@RequestHeader("X-GitHub-Event") String event,
+			@RequestHeader(value = "X-Hub-Signature-256", required = false) String signature256,
+			@RequestHeader(value = "X-Hub-Signature", required = false) String signature1,
+			@RequestBody byte[] payload) {
+		try {
+			githubWebhookService.verifySignature(payload, signature256, signature1);
+
+			if (!GithubWebhookService.REVIEW_COMMENT_EVENT.equals(event)) {
+				return new ResponseEntity<>("Event '" + event + "' ignored.", HttpStatus.OK);
+			}
+			if (!githubWebhookService.queueReviewComment(payload)) {
+				return new ResponseEntity<>("Action ignored.", HttpStatus.OK);
+			}
+			return new ResponseEntity<>("Comment queued.", HttpStatus.ACCEPTED);
+		} catch (ValidationException v) {
+			return new ResponseEntity<>(v.getMessage(), HttpStatus.UNAUTHORIZED);
+		} catch (NotFoundException n) {
+			return new ResponseEntity<>(n.getMessage(), HttpStatus.NOT_FOUND);
+		} catch (Exception e) {
+			logger.error(e.getMessage(), e);
+			return new ResponseEntity<>(e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
+		}
+	}
+}
@@ -0,0 +1,176 @@
+package de.refactoringbot.services.analysisreport;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import de.refactoringbot.model.analysisreport.ReportIssue;
+import de.refactoringbot.model.botissue.BotIssue;
+import de.refactoringbot.model.configuration.GitConfiguration;
+import de.refactoringbot.refactoring.RefactoringOperations;
+import de.refactoringbot.services.main.FileService;
+import de.refactoringbot.services.sonarqube.SonarQubeObjectTranslator;
+
+/**
+ * This class translates issues of analysis reports into Bot-Objects.
+ */
+@Service
+public class AnalysisReportTranslator {
+
+	@Autowired
+	FileService fileController;
+	@Autowired
+	SonarQubeObjectTranslator sonarQubeTranslator;
+
+	/**
+	 * Refactoring operations of the supported rules. Rules are identified without
+	 * their repository (e.g. "squid:S1161", "java:S1161" and "S1161" are the same
+	 * rule) and by their current as well as their legacy key.
+	 */
+	private static final Map<String, String> OPERATIONS = new HashMap<>();
+
+	static {
+		OPERATIONS.put("S1161", RefactoringOperations.ADD_OVERRIDE_ANNOTATION);
+		OPERATIONS.put("S1124", RefactoringOperations.REORDER_MODIFIER);
+		OPERATIONS.put("ModifiersOrderCheck", RefactoringOperations.REORDER_MODIFIER);
+		OPERATIONS.put("S125", RefactoringOperations.REMOVE_COMMENTED_OUT_CODE);
+		OPERATIONS.put("CommentedOutCodeLine", RefactoringOperations.REMOVE_COMMENTED_OUT_CODE);
+		OPERATIONS.put("S1172", RefactoringOperations.REMOVE_PARAMETER);
+	}
+
+	/**
+	 * This method translates report issues to BotIssues while they are iterated.
+	 * Issues of unsupported rules are skipped.
+	 * 
+	 * @param issues
+	 * @param gitConfig
+	 * @return botIssues
+	 * @throws IOException
+	 */
+	public Iterator<BotIssue> translateReportIssues(Iterator<ReportIssue> issues, GitConfiguration gitConfig)
+			throws IOException {
+		// Collect all Java-Files and Java-Roots
+		List<String> allJavaFiles = fileController.getAllJavaFiles(gitConfig.getRepoFolder());
+		List<String> javaRoots = fileController.findJavaRoots(allJavaFiles);
+
+		return new Iterator<BotIssue>() {
+
+			private BotIssue nextIssue;
+
+			@Override
+			public boolean hasNext() {
+				while (nextIssue == null && issues.hasNext()) {
+					nextIssue = translateReportIssue(issues.next(), gitConfig, allJavaFiles, javaRoots);
+				}
+				return nextIssue != null;
+			}
+
+			@Override
+			public BotIssue next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				BotIssue botIssue = nextIssue;
+				nextIssue = null;
+				return botIssue;
+			}
+		};
+	}
+
+	/**
+	 * This method returns the refactoring operation of a rule.
+	 * 
+	 * @param rule
+	 * @return refactoringOperation or null if the rule is not supported
+	 */
+	public static String getRefactoringOperation(String rule) {
+		String normalizedRule = rule.substring(Math.max(rule.lastIndexOf(':'), rule.lastIndexOf('/')) + 1);
+		return OPERATIONS.get(normalizedRule);
+	}
+
+	/**
+	 * This method translates a report issue to a BotIssue.
+	 * 
+	 * @param issue
+	 * @param gitConfig
+	 * @param allJavaFiles
+	 * @param javaRoots
+	 * @return botIssue or null if the rule is not supported
+	 */
+	private BotIssue translateReportIssue(ReportIssue issue, GitConfiguration gitConfig, List<String> allJavaFiles,
+			List<String> javaRoots) {
+		String operation = getRefactoringOperation(issue.getRule());
+		if (operation == null) {
+			return null;
+		}
+
+		// Create bot issue
+		BotIssue botIssue = new BotIssue();
+		botIssue.setRefactoringOperation(operation);
+		botIssue.setFilePath(getRepositoryPath(issue.getFilePath(), gitConfig));
+		botIssue.setLine(issue.getLine());
+		botIssue.setCommentServiceID(issue.getKey());
+		botIssue.setCreationDate(issue.getCreationDate());
+		botIssue.setAllJavaFiles(allJavaFiles);
+		botIssue.setJavaRoots(javaRoots);
+
+		if (RefactoringOperations.REMOVE_PARAMETER.equals(operation) && issue.getMessage() != null) {
+			botIssue.setRefactorString(sonarQubeTranslator.getParameterName(issue.getMessage()));
+		}
+
+		return botIssue;
+	}
+
+	/**
+	 * This method turns the path of a report into a path relative to the
+	 * repository. Reports contain either relative paths, file URIs or absolute
+	 * paths of the machine that created them, e.g. a CI server that checked out
+	 * the repository into another folder. Such paths are matched by their longest
+	 * suffix that exists in the repository.
+	 * 
+	 * @param reportPath
+	 * @param gitConfig
+	 * @return repositoryPath
+	 */
+	String getRepositoryPath(String reportPath, GitConfiguration gitConfig) {
+		String path = reportPath.startsWith("file:") ? Paths.get(URI.create(reportPath)).toString()
+				: reportPath;
+		path = path.replace('\\', '/');
+
+		String repoFolder = Paths.get(gitConfig.getRepoFolder()).toString().replace('\\', '/');
+		if (path.startsWith(repoFolder + "/")) {
+			return path.substring(repoFolder.length() + 1);
+		}
+		while (path.startsWith("/")) {
+			path = path.substring(1);
+		}
+
+		// Drop leading folders of the other machine until the file is found
+		for (String suffix = path; suffix != null; suffix = getSubPath(suffix)) {
+			if (Files.isRegularFile(Paths.get(repoFolder, suffix))) {
+				return suffix;
+			}
+		}
+		return path;
+	}
+
+	/**
+	 * This method removes the first folder of a path.
+	 * 
+	 * @param path
+	 * @return subPath or null if the path has no folder
+	 */
+	private String getSubPath(String path) {
+		int separator = path.indexOf('/');
+		return separator >= 0 ? path.substring(separator + 1) : null;
+	}
+}
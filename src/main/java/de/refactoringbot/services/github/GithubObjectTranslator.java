@@ -4,7 +4,9 @@ import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 
 import org.modelmapper.ModelMapper;
 import org.slf4j.Logger;
@@ -18,12 +20,12 @@ import de.refactoringbot.model.configuration.GitConfiguration;
 import de.refactoringbot.model.configuration.GitConfigurationDTO;
 import de.refactoringbot.model.exceptions.GitHubAPIException;
 import de.refactoringbot.model.github.pullrequest.GithubCreateRequest;
-import de.refactoringbot.model.github.pullrequest.GithubPullRequest;
 import de.refactoringbot.model.github.pullrequest.GithubPullRequests;
 import de.refactoringbot.model.github.pullrequest.GithubUpdateRequest;
+import de.refactoringbot.model.github.pullrequest.SlimPullRequest;
 import de.refactoringbot.model.github.pullrequestcomment.GitHubPullRequestComments;
-import de.refactoringbot.model.github.pullrequestcomment.PullRequestComment;
 import de.refactoringbot.model.github.pullrequestcomment.ReplyComment;
+import de.refactoringbot.model.github.pullrequestcomment.SlimPullRequestComment;
 import de.refactoringbot.model.output.botpullrequest.BotPullRequest;
 import de.refactoringbot.model.output.botpullrequest.BotPullRequests;
 import de.refactoringbot.model.output.botpullrequestcomment.BotPullRequestComment;
@@ -91,38 +93,28 @@ public class GithubObjectTranslator {
 		// Create Requests
 		BotPullRequests translatedRequests = new BotPullRequests();
 
-		// Iterate all GitHub requests
-		for (GithubPullRequest githubRequest : githubRequests.getAllPullRequests()) {
-			// Create BotPullRequest
-			BotPullRequest pullRequest = new BotPullRequest();
-
-			// Fill request with data
-			pullRequest.setRequestName(githubRequest.getTitle());
-			pullRequest.setRequestDescription(githubRequest.getBody());
-			pullRequest.setRequestNumber(githubRequest.getNumber());
-			pullRequest.setRequestLink(githubRequest.getHtmlUrl());
-			pullRequest.setRequestStatus(githubRequest.getState());
-			pullRequest.setCreatorName(githubRequest.getUser().getLogin());
-			pullRequest.setDateCreated(githubRequest.getCreatedAt());
-			pullRequest.setDateUpdated(githubRequest.getUpdatedAt());
-			pullRequest.setBranchName(githubRequest.getHead().getRef());
-			pullRequest.setBranchCreator(githubRequest.getHead().getUser().getLogin());
-			pullRequest.setMergeBranchName(githubRequest.getBase().getRef());
-			pullRequest.setRepoName(githubRequest.getBase().getRepo().getFullName());
-
-			// Create URI for the comments of the request
-			URI commentUri = null;
+		// Create URIs for the comments of the requests
+		List<URI> commentUris = new ArrayList<>();
+		for (SlimPullRequest githubRequest : githubRequests.getAllPullRequests()) {
 			try {
-				commentUri = new URI(githubRequest.getReviewCommentsUrl());
+				commentUris.add(new URI(githubRequest.getReviewCommentsUrl()));
 			} catch (URISyntaxException e) {
 				logger.error(e.getMessage(), e);
 				throw new URISyntaxException("Could not build comment URI!", e.getMessage());
 			}
+		}
+
+		// Get comments of all requests from github
+		List<GitHubPullRequestComments> allGithubComments = grabber.getAllPullRequestComments(commentUris,
+				gitConfig);
+
+		// Iterate all GitHub requests
+		for (int i = 0; i < githubRequests.getAllPullRequests().size(); i++) {
+			// Create BotPullRequest
+			BotPullRequest pullRequest = translateRequest(githubRequests.getAllPullRequests().get(i));
 
-			// Get comments from github
-			GitHubPullRequestComments githubComments = grabber.getAllPullRequestComments(commentUri, gitConfig);
-			// Translate and add them to list
-			BotPullRequestComments comments = translatePullRequestComments(githubComments);
+			// Translate comments and add them to list
+			BotPullRequestComments comments = translatePullRequestComments(allGithubComments.get(i));
 			pullRequest.setAllComments(comments.getComments());
 
 			// Add request to translated request list
@@ -132,6 +124,34 @@ public class GithubObjectTranslator {
 		return translatedRequests;
 	}
 
+	/**
+	 * This method translates a GitHub Pull-Request without its comments to a
+	 * BotPullRequest.
+	 * 
+	 * @param githubRequest
+	 * @return pullRequest
+	 */
+	public BotPullRequest translateRequest(SlimPullRequest githubRequest) {
+		// Create BotPullRequest
+		BotPullRequest pullRequest = new BotPullRequest();
+
+		// Fill request with data
+		pullRequest.setRequestName(githubRequest.getTitle());
+		pullRequest.setRequestDescription(githubRequest.getBody());
+		pullRequest.setRequestNumber(githubRequest.getNumber());
+		pullRequest.setRequestLink(githubRequest.getHtmlUrl());
+		pullRequest.setRequestStatus(githubRequest.getState());
+		pullRequest.setCreatorName(githubRequest.getUser().getLogin());
+		pullRequest.setDateCreated(githubRequest.getCreatedAt());
+		pullRequest.setDateUpdated(githubRequest.getUpdatedAt());
+		pullRequest.setBranchName(githubRequest.getHead().getRef());
+		pullRequest.setBranchCreator(githubRequest.getHead().getUser().getLogin());
+		pullRequest.setMergeBranchName(githubRequest.getBase().getRef());
+		pullRequest.setRepoName(githubRequest.getBase().getRepo().getFullName());
+
+		return pullRequest;
+	}
+
 	/**
 	 * This method translates github comments to bot comments.
 	 * 
@@ -143,23 +163,34 @@ public class GithubObjectTranslator {
 		BotPullRequestComments translatedComments = new BotPullRequestComments();
 
 		// Iterate github comments
-		for (PullRequestComment githubComment : githubComments.getComments()) {
-			// Create bot comment
-			BotPullRequestComment translatedComment = new BotPullRequestComment();
-
-			// Fill comment with data
-			translatedComment.setCommentID(githubComment.getId());
-			translatedComment.setFilepath(githubComment.getPath());
-			translatedComment.setUsername(githubComment.getUser().getLogin());
-			translatedComment.setCommentBody(githubComment.getBody());
-
+		for (SlimPullRequestComment githubComment : githubComments.getComments()) {
 			// Add comment to list
-			translatedComments.addComment(translatedComment);
+			translatedComments.addComment(translatePullRequestComment(githubComment));
 		}
 
 		return translatedComments;
 	}
 
+	/**
+	 * This method translates a github comment to a bot comment.
+	 * 
+	 * @param githubComment
+	 * @return translatedComment
+	 */
+	public BotPullRequestComment translatePullRequestComment(SlimPullRequestComment githubComment) {
+		// Create bot comment
+		BotPullRequestComment translatedComment = new BotPullRequestComment();
+
+		// Fill comment with data
+		translatedComment.setCommentID(githubComment.getId());
+		translatedComment.setFilepath(githubComment.getPath());
+		translatedComment.setUsername(githubComment.getUser().getLogin());
+		translatedComment.setCommentBody(githubComment.getBody());
+		translatedComment.setDateCreated(githubComment.getCreatedAt());
+
+		return translatedComment;
+	}
+
 	/**
 	 * This method creates an Object that can be used to update a Pull-Request on
 	 * GitHub.
@@ -0,0 +1,152 @@
+package de.refactoringbot.services.github;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.InvalidKeyException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import de.refactoringbot.configuration.BotConfiguration;
+import de.refactoringbot.model.configuration.ConfigurationRepository;
+import de.refactoringbot.model.configuration.GitConfiguration;
+import de.refactoringbot.model.exceptions.ValidationException;
+import de.refactoringbot.model.github.pullrequest.SlimPullRequest;
+import de.refactoringbot.model.github.pullrequestcomment.GitHubPullRequestComments;
+import de.refactoringbot.model.github.pullrequestcomment.SlimPullRequestComment;
+import de.refactoringbot.model.output.botpullrequest.BotPullRequest;
+import de.refactoringbot.services.main.CommentQueueService;
+import javassist.NotFoundException;
+
+/**
+ * This class handles the webhook events that Github sends to the bot.
+ */
+@Service
+public class GithubWebhookService {
+
+	@Autowired
+	ObjectMapper mapper;
+	@Autowired
+	BotConfiguration botConfig;
+	@Autowired
+	ConfigurationRepository configRepo;
+	@Autowired
+	GithubObjectTranslator githubTranslator;
+	@Autowired
+	CommentQueueService commentQueue;
+
+	private static final Logger logger = LoggerFactory.getLogger(GithubWebhookService.class);
+
+	public static final String REVIEW_COMMENT_EVENT = "pull_request_review_comment";
+
+	/**
+	 * This method checks that a webhook event was signed with the configured
+	 * secret. The SHA-256 signature is preferred over the older SHA-1 signature.
+	 * 
+	 * @param payload
+	 * @param signature256
+	 * @param signature1
+	 * @throws ValidationException
+	 */
+	public void verifySignature(byte[] payload, String signature256, String signature1) throws ValidationException {
+		String secret = botConfig.getWebhookSecret();
+		if (secret == null || secret.isEmpty()) {
+			throw new ValidationException("Webhooks are disabled, because no webhook secret is configured!");
+		}
+
+		String expected;
+		String actual;
+		if (signature256 != null) {
+			expected = "sha256=" + createSignature("HmacSHA256", secret, payload);
+			actual = signature256;
+		} else if (signature1 != null) {
+			expected = "sha1=" + createSignature("HmacSHA1", secret, payload);
+			actual = signature1;
+		} else {
+			throw new ValidationException("Webhook event is not signed!");
+		}
+
+		// Compare in constant time
+		if (!MessageDigest.isEqual(expected.getBytes(StandardCharsets.US_ASCII),
+				actual.getBytes(StandardCharsets.US_ASCII))) {
+			throw new ValidationException("Invalid webhook signature!");
+		}
+	}
+
+	/**
+	 * This method queues the comment of a 'pull_request_review_comment' event for
+	 * the refactoring of every configuration of the repository. Events of other
+	 * actions than 'created' are ignored.
+	 * 
+	 * @param payload
+	 * @return isQueued
+	 * @throws IOException
+	 * @throws NotFoundException
+	 */
+	public boolean queueReviewComment(byte[] payload) throws IOException, NotFoundException {
+		JsonNode event = mapper.readTree(payload);
+
+		// Edited or deleted comments are not refactored again
+		if (!"created".equals(event.path("action").asText())) {
+			return false;
+		}
+
+		// Find all configurations of the repository
+		String repoName = event.path("repository").path("name").asText();
+		String repoOwner = event.path("repository").path("owner").path("login").asText();
+		List<GitConfiguration> configs = configRepo.getConfigsByName(repoName, repoOwner);
+		if (configs.isEmpty()) {
+			throw new NotFoundException("No configuration for the repository " + repoOwner + "/" + repoName + "!");
+		}
+
+		for (GitConfiguration config : configs) {
+			// Translate request and comment, every queue merges into its own objects
+			SlimPullRequest githubRequest = mapper.treeToValue(event.path("pull_request"), SlimPullRequest.class);
+			SlimPullRequestComment githubComment = mapper.treeToValue(event.path("comment"),
+					SlimPullRequestComment.class);
+			GitHubPullRequestComments githubComments = new GitHubPullRequestComments();
+			githubComments.addComment(githubComment);
+
+			BotPullRequest request = githubTranslator.translateRequest(githubRequest);
+			request.setAllComments(githubTranslator.translatePullRequestComments(githubComments).getComments());
+
+			logger.info("Queued comment " + githubComment.getId() + " of request " + request.getRequestNumber()
+					+ " of configuration " + config.getConfigurationId() + ".");
+			commentQueue.queue(config, request);
+		}
+		return true;
+	}
+
+	/**
+	 * This method creates the hex encoded HMAC of a payload.
+	 * 
+	 * @param algorithm
+	 * @param secret
+	 * @param payload
+	 * @return signature
+	 */
+	private String createSignature(String algorithm, String secret, byte[] payload) {
+		try {
+			Mac mac = Mac.getInstance(algorithm);
+			mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), algorithm));
+			StringBuilder signature = new StringBuilder();
+			for (byte b : mac.doFinal(payload)) {
+				signature.append(String.format("%02x", b));
+			}
+			return signature.toString();
+		} catch (NoSuchAlgorithmException | InvalidKeyException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
@@ -0,0 +1,62 @@
+package de.refactoringbot.services.localanalyzer;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Result of the analysis of a single Java file. It is cached until the file
+ * changes and only holds what is needed to create the issues of the file, not
+ * the syntax tree.
+ */
+class FileAnalysis {
+
+	final long lastModified;
+	final long length;
+	String packageName;
+	final List<TypeSummary> types = new ArrayList<>();
+	final List<Finding> findings = new ArrayList<>();
+
+	FileAnalysis(long lastModified, long length) {
+		this.lastModified = lastModified;
+		this.length = length;
+	}
+
+	/**
+	 * Class or interface of a file with its direct supertypes and methods.
+	 */
+	static class TypeSummary {
+
+		final String name;
+		final boolean isInterface;
+		final List<String> supertypes = new ArrayList<>();
+		final Set<String> methodKeys = new HashSet<>();
+
+		TypeSummary(String name, boolean isInterface) {
+			this.name = name;
+			this.isInterface = isInterface;
+		}
+	}
+
+	/**
+	 * Possible issue of a file. Findings of the rules that depend on the type
+	 * hierarchy are only turned into issues once all files are known.
+	 */
+	static class Finding {
+
+		final String rule;
+		final int line;
+		final String refactorString;
+		final TypeSummary owner;
+		final String methodKey;
+
+		Finding(String rule, int line, String refactorString, TypeSummary owner, String methodKey) {
+			this.rule = rule;
+			this.line = line;
+			this.refactorString = refactorString;
+			this.owner = owner;
+			this.methodKey = methodKey;
+		}
+	}
+}
@@ -0,0 +1,190 @@
+package de.refactoringbot.services.localanalyzer;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.Modifier;
+import com.github.javaparser.ast.NodeList;
+import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
+import com.github.javaparser.ast.body.FieldDeclaration;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import com.github.javaparser.ast.body.Parameter;
+import com.github.javaparser.ast.comments.Comment;
+import com.github.javaparser.ast.expr.NameExpr;
+
+import de.refactoringbot.services.localanalyzer.FileAnalysis.Finding;
+import de.refactoringbot.services.localanalyzer.FileAnalysis.TypeSummary;
+
+/**
+ * This class finds the issues of a single Java file for the rules the bot can
+ * refactor.
+ */
+class JavaFileAnalyzer {
+
+	static final String MISSING_OVERRIDE = "squid:S1161";
+	static final String MODIFIERS_ORDER = "squid:ModifiersOrderCheck";
+	static final String COMMENTED_OUT_CODE = "squid:CommentedOutCodeLine";
+	static final String UNUSED_PARAMETER = "squid:S1172";
+
+	/** Comment lines that look like statements, blocks or control structures */
+	private static final Pattern CODE_LINE = Pattern
+			.compile("^(.*;|.*[{}]|(if|for|while|switch|catch)\\s*\\(.*|[\\w.]+\\s*\\(.*\\)\\s*;?)$");
+
+	private JavaFileAnalyzer() {
+	}
+
+	/**
+	 * This method analyzes a Java file.
+	 * 
+	 * @param file
+	 * @return analysis
+	 * @throws IOException
+	 */
+	static FileAnalysis analyze(File file) throws IOException {
+		FileAnalysis analysis = new FileAnalysis(file.lastModified(), file.length());
+		CompilationUnit compilationUnit = JavaParser.parse(file);
+
+		analysis.packageName = compilationUnit.getPackageDeclaration().map(p -> p.getNameAsString()).orElse(null);
+
+		for (ClassOrInterfaceDeclaration type : compilationUnit.findAll(ClassOrInterfaceDeclaration.class)) {
+			TypeSummary summary = new TypeSummary(type.getNameAsString(), type.isInterface());
+			type.getExtendedTypes().forEach(supertype -> summary.supertypes.add(supertype.getNameAsString()));
+			type.getImplementedTypes().forEach(supertype -> summary.supertypes.add(supertype.getNameAsString()));
+			analysis.types.add(summary);
+
+			for (FieldDeclaration field : type.getFields()) {
+				if (field.getBegin().isPresent() && !isInOrder(field.getModifiers())) {
+					analysis.findings.add(new Finding(MODIFIERS_ORDER, field.getBegin().get().line, null, null, null));
+				}
+			}
+
+			for (MethodDeclaration method : type.getMethods()) {
+				analyzeMethod(analysis, summary, method);
+			}
+		}
+
+		List<Comment> comments = compilationUnit.getAllContainedComments();
+		comments.sort(Comparator.comparingInt(comment -> comment.getBegin().map(begin -> begin.line).orElse(0)));
+		analyzeComments(analysis, comments);
+		return analysis;
+	}
+
+	/**
+	 * This method finds the issues of a method.
+	 * 
+	 * @param analysis
+	 * @param owner
+	 * @param method
+	 */
+	private static void analyzeMethod(FileAnalysis analysis, TypeSummary owner, MethodDeclaration method) {
+		if (!method.getName().getBegin().isPresent()) {
+			return;
+		}
+		int line = method.getName().getBegin().get().line;
+		String methodKey = getMethodKey(method.getNameAsString(), method.getParameters().size());
+		owner.methodKeys.add(methodKey);
+
+		if (!isInOrder(method.getModifiers())) {
+			analysis.findings.add(new Finding(MODIFIERS_ORDER, line, null, null, null));
+		}
+
+		boolean hasOverride = method.isAnnotationPresent("Override");
+		if (!hasOverride && !method.isStatic() && !method.isPrivate()) {
+			// Only an issue if a supertype declares the method
+			analysis.findings.add(new Finding(MISSING_OVERRIDE, line, null, owner, methodKey));
+		}
+
+		// Overriding methods, empty methods and main methods need their parameters
+		if (hasOverride || !method.getBody().isPresent() || method.getBody().get().isEmpty()
+				|| (method.isStatic() && "main".equals(method.getNameAsString()))) {
+			return;
+		}
+		Set<String> usedNames = new HashSet<>();
+		method.getBody().get().findAll(NameExpr.class).forEach(name -> usedNames.add(name.getNameAsString()));
+		for (Parameter parameter : method.getParameters()) {
+			if (!usedNames.contains(parameter.getNameAsString())) {
+				analysis.findings
+						.add(new Finding(UNUSED_PARAMETER, line, parameter.getNameAsString(), owner, methodKey));
+			}
+		}
+	}
+
+	/**
+	 * This method finds commented out code. Consecutive line comments are one
+	 * issue at the line of their first comment, like SonarQube reports them.
+	 * 
+	 * @param analysis
+	 * @param comments
+	 */
+	private static void analyzeComments(FileAnalysis analysis, List<Comment> comments) {
+		int previousCodeLine = -2;
+		for (Comment comment : comments) {
+			if (comment.isJavadocComment() || !comment.getBegin().isPresent() || !isCommentedOutCode(comment)) {
+				continue;
+			}
+			int line = comment.getBegin().get().line;
+			if (!comment.isLineComment() || line != previousCodeLine + 1) {
+				analysis.findings.add(new Finding(COMMENTED_OUT_CODE, line, null, null, null));
+			}
+			previousCodeLine = comment.getEnd().map(end -> end.line).orElse(line);
+		}
+	}
+
+	/**
+	 * This method checks if a comment contains code.
+	 * 
+	 * @param comment
+	 * @return isCode
+	 */
+	private static boolean isCommentedOutCode(Comment comment) {
+		for (String line : comment.getContent().split("\\r?\\n")) {
+			String content = line.trim();
+			if (content.startsWith("*")) {
+				content = content.substring(1).trim();
+			}
+			if (!content.isEmpty() && !content.contains("{@") && CODE_LINE.matcher(content).matches()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * This method checks if modifiers are in the order of the Java Language
+	 * Specification.
+	 * 
+	 * @param modifiers
+	 * @return isInOrder
+	 */
+	private static boolean isInOrder(NodeList<Modifier> modifiers) {
+		List<Modifier.Keyword> keywords = new ArrayList<>();
+		modifiers.forEach(modifier -> keywords.add(modifier.getKeyword()));
+		for (int i = 1; i < keywords.size(); i++) {
+			if (keywords.get(i - 1).compareTo(keywords.get(i)) > 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * This method creates the key of a method that is used to find overridden
+	 * methods. Parameter types are left out, because type parameters of
+	 * supertypes can not be compared without resolving them.
+	 * 
+	 * @param name
+	 * @param parameterCount
+	 * @return methodKey
+	 */
+	static String getMethodKey(String name, int parameterCount) {
+		return name + "/" + parameterCount;
+	}
+}
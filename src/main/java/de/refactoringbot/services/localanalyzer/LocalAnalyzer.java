@@ -0,0 +1,298 @@
+package de.refactoringbot.services.localanalyzer;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import de.refactoringbot.model.botissue.BotIssue;
+import de.refactoringbot.model.configuration.GitConfiguration;
+import de.refactoringbot.model.exceptions.GitWorkflowException;
+import de.refactoringbot.services.analysisreport.AnalysisReportTranslator;
+import de.refactoringbot.services.localanalyzer.FileAnalysis.Finding;
+import de.refactoringbot.services.localanalyzer.FileAnalysis.TypeSummary;
+import de.refactoringbot.services.main.FileService;
+import de.refactoringbot.services.main.GitService;
+import de.refactoringbot.services.main.WorkspaceLockService;
+
+/**
+ * This class finds the issues the bot can refactor in the local workspace of a
+ * configuration, without an external analysis service. Files are analyzed in
+ * parallel and the results are cached per file, so that later runs only parse
+ * the files that changed.
+ */
+@Service
+public class LocalAnalyzer {
+
+	@Autowired
+	FileService fileController;
+	@Autowired
+	GitService gitService;
+	@Autowired
+	WorkspaceLockService lockService;
+
+	/** Methods every class inherits from java.lang.Object */
+	private static final Set<String> OBJECT_METHODS = new HashSet<>(Arrays.asList(
+			JavaFileAnalyzer.getMethodKey("equals", 1), JavaFileAnalyzer.getMethodKey("hashCode", 0),
+			JavaFileAnalyzer.getMethodKey("toString", 0), JavaFileAnalyzer.getMethodKey("clone", 0),
+			JavaFileAnalyzer.getMethodKey("finalize", 0)));
+
+	private static final Logger logger = LoggerFactory.getLogger(LocalAnalyzer.class);
+
+	private final Map<Long, Map<String, FileAnalysis>> cache = new ConcurrentHashMap<>();
+
+	/**
+	 * This method analyzes the master branch of the upstream repository inside
+	 * the workspace of a configuration and returns the found issues. The branch
+	 * is checked out while holding the workspace lock, so that the findings do
+	 * not come from a refactoring branch of the bot.
+	 * 
+	 * @param gitConfig
+	 * @return botIssues
+	 * @throws IOException
+	 * @throws GitWorkflowException
+	 */
+	public Iterator<BotIssue> analyze(GitConfiguration gitConfig) throws IOException, GitWorkflowException {
+		ReentrantLock lock = lockService.getLock(gitConfig);
+		lock.lock();
+		try {
+			gitService.checkoutUpstreamBranch(gitConfig, "master");
+			return analyzeWorkspace(gitConfig);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * This method analyzes the checked out files of the workspace.
+	 * 
+	 * @param gitConfig
+	 * @return botIssues
+	 * @throws IOException
+	 */
+	private Iterator<BotIssue> analyzeWorkspace(GitConfiguration gitConfig) throws IOException {
+		List<String> allJavaFiles = fileController.getAllJavaFiles(gitConfig.getRepoFolder());
+		Map<String, FileAnalysis> analyses = analyzeFiles(gitConfig, allJavaFiles);
+
+		// Index all types of the project by their name
+		Map<String, List<TypeSummary>> typeIndex = new HashMap<>();
+		for (FileAnalysis analysis : analyses.values()) {
+			for (TypeSummary type : analysis.types) {
+				typeIndex.computeIfAbsent(type.name, name -> new ArrayList<>()).add(type);
+			}
+		}
+
+		List<String> javaRoots = findJavaRoots(analyses);
+		String repoFolder = new File(gitConfig.getRepoFolder()).getCanonicalPath();
+		SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ssZ");
+
+		List<BotIssue> botIssues = new ArrayList<>();
+		for (String javaFile : allJavaFiles) {
+			FileAnalysis analysis = analyses.get(javaFile);
+			String filePath = javaFile.substring(repoFolder.length() + 1).replace('\\', '/');
+			for (Finding finding : analysis.findings) {
+				if (!isIssue(finding, typeIndex)) {
+					continue;
+				}
+				BotIssue botIssue = new BotIssue();
+				botIssue.setRefactoringOperation(AnalysisReportTranslator.getRefactoringOperation(finding.rule));
+				botIssue.setFilePath(filePath);
+				botIssue.setLine(finding.line);
+				botIssue.setRefactorString(finding.refactorString);
+				botIssue.setCommentServiceID(getIssueKey(finding, filePath));
+				// The file is at least as old as its issue
+				botIssue.setCreationDate(dateFormat.format(new Date(analysis.lastModified)));
+				botIssue.setAllJavaFiles(allJavaFiles);
+				botIssue.setJavaRoots(javaRoots);
+				botIssues.add(botIssue);
+			}
+		}
+
+		logger.debug("Local analysis of configuration {} found {} issues in {} files",
+				gitConfig.getConfigurationId(), botIssues.size(), allJavaFiles.size());
+		return botIssues.iterator();
+	}
+
+	/**
+	 * This method forgets the cached analyses of a configuration.
+	 * 
+	 * @param gitConfig
+	 */
+	public void invalidate(GitConfiguration gitConfig) {
+		cache.remove(gitConfig.getConfigurationId());
+	}
+
+	/**
+	 * This method returns the analyses of all files. Files that did not change
+	 * since the last run are taken from the cache, all others are analyzed in
+	 * parallel.
+	 * 
+	 * @param gitConfig
+	 * @param allJavaFiles
+	 * @return analyses
+	 */
+	private Map<String, FileAnalysis> analyzeFiles(GitConfiguration gitConfig, List<String> allJavaFiles) {
+		Map<String, FileAnalysis> cachedAnalyses = cache.computeIfAbsent(gitConfig.getConfigurationId(),
+				id -> new ConcurrentHashMap<>());
+
+		// Forget deleted files
+		cachedAnalyses.keySet().retainAll(new HashSet<>(allJavaFiles));
+
+		List<String> changedFiles = allJavaFiles.stream().filter(javaFile -> {
+			FileAnalysis cached = cachedAnalyses.get(javaFile);
+			File file = new File(javaFile);
+			return cached == null || cached.lastModified != file.lastModified() || cached.length != file.length();
+		}).collect(Collectors.toList());
+
+		changedFiles.parallelStream().forEach(javaFile -> {
+			try {
+				cachedAnalyses.put(javaFile, JavaFileAnalyzer.analyze(new File(javaFile)));
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			} catch (RuntimeException e) {
+				// Files that can not be parsed have no issues
+				logger.warn("Could not analyze {}: {}", javaFile, e.getMessage());
+				cachedAnalyses.put(javaFile, new FileAnalysis(0, -1));
+			}
+		});
+
+		logger.debug("Analyzed {} of {} files of configuration {}", changedFiles.size(), allJavaFiles.size(),
+				gitConfig.getConfigurationId());
+		return cachedAnalyses;
+	}
+
+	/**
+	 * This method decides if a finding is an issue. Missing override annotations
+	 * are only issues if a supertype declares the method, unused parameters only
+	 * if the method does not implement a method of a supertype. Supertypes that
+	 * are not part of the project, e.g. of the JDK or of libraries, may declare
+	 * any method, so unused parameters of their subtypes are not reported.
+	 * 
+	 * @param finding
+	 * @param typeIndex
+	 * @return isIssue
+	 */
+	private boolean isIssue(Finding finding, Map<String, List<TypeSummary>> typeIndex) {
+		switch (finding.rule) {
+		case JavaFileAnalyzer.MISSING_OVERRIDE:
+			return overridesMethod(finding.owner, finding.methodKey, typeIndex);
+		case JavaFileAnalyzer.UNUSED_PARAMETER:
+			return !finding.owner.isInterface && !overridesMethod(finding.owner, finding.methodKey, typeIndex)
+					&& isHierarchyKnown(finding.owner, typeIndex);
+		default:
+			return true;
+		}
+	}
+
+	/**
+	 * This method checks if a supertype of a type declares a method.
+	 * 
+	 * @param type
+	 * @param methodKey
+	 * @param typeIndex
+	 * @return overrides
+	 */
+	private boolean overridesMethod(TypeSummary type, String methodKey, Map<String, List<TypeSummary>> typeIndex) {
+		if (!type.isInterface && OBJECT_METHODS.contains(methodKey)) {
+			return true;
+		}
+		Set<TypeSummary> visited = new HashSet<>();
+		List<String> supertypes = new ArrayList<>(type.supertypes);
+		while (!supertypes.isEmpty()) {
+			String supertypeName = supertypes.remove(supertypes.size() - 1);
+			for (TypeSummary supertype : typeIndex.getOrDefault(supertypeName, new ArrayList<>())) {
+				if (!visited.add(supertype)) {
+					continue;
+				}
+				if (supertype.methodKeys.contains(methodKey)) {
+					return true;
+				}
+				supertypes.addAll(supertype.supertypes);
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * This method checks if all supertypes of a type are part of the project.
+	 * 
+	 * @param type
+	 * @param typeIndex
+	 * @return known
+	 */
+	private boolean isHierarchyKnown(TypeSummary type, Map<String, List<TypeSummary>> typeIndex) {
+		Set<TypeSummary> visited = new HashSet<>();
+		List<String> supertypes = new ArrayList<>(type.supertypes);
+		while (!supertypes.isEmpty()) {
+			List<TypeSummary> candidates = typeIndex.get(supertypes.remove(supertypes.size() - 1));
+			if (candidates == null) {
+				return false;
+			}
+			for (TypeSummary supertype : candidates) {
+				if (visited.add(supertype)) {
+					supertypes.addAll(supertype.supertypes);
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * This method finds the java roots of the project from the packages of the
+	 * analyzed files, in the same way as the FileService but without parsing the
+	 * files again.
+	 * 
+	 * @param analyses
+	 * @return javaRoots
+	 */
+	private List<String> findJavaRoots(Map<String, FileAnalysis> analyses) {
+		Set<String> javaRoots = new LinkedHashSet<>();
+		for (Map.Entry<String, FileAnalysis> entry : analyses.entrySet()) {
+			File root = new File(entry.getKey()).getParentFile();
+			String packageName = entry.getValue().packageName;
+			if (packageName != null) {
+				// Go up one folder per package segment
+				for (int i = 0; i < packageName.split("\\.").length && root != null; i++) {
+					root = root.getParentFile();
+				}
+			}
+			if (root != null) {
+				javaRoots.add(root.getAbsolutePath());
+			}
+		}
+		return new ArrayList<>(javaRoots);
+	}
+
+	/**
+	 * This method creates the key of an issue.
+	 * 
+	 * @param finding
+	 * @param filePath
+	 * @return key
+	 */
+	private String getIssueKey(Finding finding, String filePath) {
+		String key = "local:" + finding.rule + ":" + filePath + ":" + finding.line;
+		if (finding.refactorString != null) {
+			key += ":" + finding.refactorString;
+		}
+		return key;
+	}
+}
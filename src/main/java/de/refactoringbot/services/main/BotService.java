@@ -16,7 +16,6 @@ import org.springframework.stereotype.Service;
 import de.refactoringbot.model.botissue.BotIssue;
 import de.refactoringbot.model.configuration.GitConfiguration;
 import de.refactoringbot.model.output.botpullrequest.BotPullRequest;
-import de.refactoringbot.model.output.botpullrequest.BotPullRequests;
 import de.refactoringbot.model.output.botpullrequestcomment.BotPullRequestComment;
 import de.refactoringbot.model.refactoredissue.RefactoredIssue;
 
@@ -31,28 +30,6 @@ public class BotService {
 
 	private static final Logger logger = LoggerFactory.getLogger(BotService.class);
 
-	/**
-	 * This method returns the maximal amount of pull requests created by the bot.
-	 * 
-	 * @param requests
-	 * @param gitConfig
-	 * @throws Exception
-	 */
-	public Integer getAmountOfBotRequests(BotPullRequests requests, GitConfiguration gitConfig) {
-
-		// Init counter
-		int counter = 0;
-		// Iterate requests
-		for (BotPullRequest request : requests.getAllPullRequests()) {
-			// If request belongs to bot
-			if (request.getCreatorName().equals(gitConfig.getBotName())) {
-				counter++;
-			}
-		}
-
-		return counter;
-	}
-
 	/**
 	 * The Method creates a RefactoredIssue-Object from a
 	 * Analysis-Service-Refactoring.
@@ -0,0 +1,116 @@
+package de.refactoringbot.services.main;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import de.refactoringbot.configuration.BotConfiguration;
+import de.refactoringbot.model.configuration.GitConfiguration;
+import de.refactoringbot.model.output.botpullrequest.BotPullRequest;
+import de.refactoringbot.model.output.botpullrequest.BotPullRequests;
+
+/**
+ * This class collects the comments that the filehoster pushes to the bot.
+ * Comments of the same configuration that arrive within a short time are
+ * refactored together in one run, which is executed by the scheduler of the
+ * configurations.
+ */
+@Service
+public class CommentQueueService {
+
+	@Autowired
+	RefactoringService refactoringService;
+	@Autowired
+	BotConfiguration botConfig;
+	@Autowired
+	ConfigurationRunScheduler scheduler;
+
+	private static final Logger logger = LoggerFactory.getLogger(CommentQueueService.class);
+
+	private final Map<Long, PendingComments> pendingComments = new ConcurrentHashMap<>();
+	private final ScheduledExecutorService executor = Executors
+			.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("comment-queue-"));
+
+	/**
+	 * This method queues the comments of a request. The run of the configuration
+	 * starts after the debounce time of the first queued comment.
+	 * 
+	 * @param config
+	 * @param request
+	 */
+	public void queue(GitConfiguration config, BotPullRequest request) {
+		pendingComments.compute(config.getConfigurationId(), (configId, pending) -> {
+			if (pending == null) {
+				pending = new PendingComments(config);
+				executor.schedule(() -> scheduler.schedule(configId, () -> processComments(configId)),
+						botConfig.getWebhookDebounce(), TimeUnit.MILLISECONDS);
+			}
+			pending.add(request);
+			return pending;
+		});
+	}
+
+	/**
+	 * This method refactors all queued comments of a configuration.
+	 * 
+	 * @param configId
+	 */
+	private void processComments(Long configId) {
+		PendingComments pending = pendingComments.remove(configId);
+		if (pending == null) {
+			return;
+		}
+		try {
+			ResponseEntity<?> response = refactoringService.performCommentRefactoring(pending.config,
+					pending.requests);
+			logger.info("Processed queued comments of configuration " + configId + ": " + response.getBody());
+		} catch (Exception e) {
+			logger.error("Could not process queued comments of configuration " + configId + "!", e);
+		}
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		executor.shutdownNow();
+	}
+
+	/**
+	 * Comments of a configuration that wait for their run.
+	 */
+	private static class PendingComments {
+
+		private final GitConfiguration config;
+		private final BotPullRequests requests = new BotPullRequests();
+
+		private PendingComments(GitConfiguration config) {
+			this.config = config;
+		}
+
+		/**
+		 * This method adds the comments of a request. Comments of the same request
+		 * are merged.
+		 * 
+		 * @param request
+		 */
+		private void add(BotPullRequest request) {
+			for (BotPullRequest pendingRequest : requests.getAllPullRequests()) {
+				if (pendingRequest.getRequestNumber().equals(request.getRequestNumber())) {
+					pendingRequest.getAllComments().addAll(request.getAllComments());
+					return;
+				}
+			}
+			requests.addPullRequest(request);
+		}
+	}
+}
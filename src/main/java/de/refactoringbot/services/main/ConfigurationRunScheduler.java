@@ -0,0 +1,115 @@
+package de.refactoringbot.services.main;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+/**
+ * This class executes the runs of all configurations on the job workers. Runs
+ * of different configurations are executed concurrently, runs of the same
+ * configuration one after another while holding the workspace lock. The
+ * configurations take turns: after a run, a configuration with more queued runs
+ * is put behind all other waiting configurations, so that a configuration with
+ * many runs does not starve the others.
+ */
+@Service
+public class ConfigurationRunScheduler {
+
+	@Autowired
+	@Qualifier("jobExecutor")
+	ExecutorService jobExecutor;
+	@Autowired
+	WorkspaceLockService lockService;
+
+	private static final Logger logger = LoggerFactory.getLogger(ConfigurationRunScheduler.class);
+
+	/** Queued runs per configuration (guarded by this) */
+	private final Map<Long, Queue<Runnable>> queuedRuns = new HashMap<>();
+	/** Configurations waiting for a worker in the order of their turns (guarded by this) */
+	private final Queue<Long> waitingConfigs = new ArrayDeque<>();
+
+	/**
+	 * This method queues a run of a configuration.
+	 * 
+	 * @param configurationId
+	 * @param run
+	 */
+	public void schedule(Long configurationId, Runnable run) {
+		synchronized (this) {
+			Queue<Runnable> runs = queuedRuns.get(configurationId);
+			if (runs != null) {
+				// Configuration is waiting or running, it will take the run on its next turn
+				runs.add(run);
+				return;
+			}
+			runs = new ArrayDeque<>();
+			runs.add(run);
+			queuedRuns.put(configurationId, runs);
+			waitingConfigs.add(configurationId);
+		}
+		jobExecutor.execute(this::executeNextRun);
+	}
+
+	/**
+	 * This method returns the amount of queued runs of a configuration that did not
+	 * start yet.
+	 * 
+	 * @param configurationId
+	 * @return amountOfRuns
+	 */
+	public synchronized int getQueuedRuns(Long configurationId) {
+		Queue<Runnable> runs = queuedRuns.get(configurationId);
+		return runs == null ? 0 : runs.size();
+	}
+
+	/**
+	 * This method executes the next run of the configuration whose turn it is.
+	 */
+	private void executeNextRun() {
+		Long configurationId;
+		Runnable run;
+		synchronized (this) {
+			configurationId = waitingConfigs.poll();
+			if (configurationId == null) {
+				return;
+			}
+			run = queuedRuns.get(configurationId).poll();
+		}
+
+		ReentrantLock lock = lockService.getLock(configurationId);
+		lock.lock();
+		try {
+			run.run();
+		} catch (Exception e) {
+			logger.error("Run of configuration " + configurationId + " failed!", e);
+		} finally {
+			lock.unlock();
+			finishRun(configurationId);
+		}
+	}
+
+	/**
+	 * This method gives a configuration its next turn if it has more queued runs.
+	 * 
+	 * @param configurationId
+	 */
+	private void finishRun(Long configurationId) {
+		synchronized (this) {
+			if (queuedRuns.get(configurationId).isEmpty()) {
+				queuedRuns.remove(configurationId);
+				return;
+			}
+			waitingConfigs.add(configurationId);
+		}
+		jobExecutor.execute(this::executeNextRun);
+	}
+}
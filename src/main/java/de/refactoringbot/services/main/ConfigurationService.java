@@ -4,6 +4,7 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.file.Paths;
 import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.apache.commons.io.FileUtils;
 import org.slf4j.Logger;
@@ -15,12 +16,15 @@ import org.springframework.stereotype.Service;
 
 import de.refactoringbot.api.main.ApiGrabber;
 import de.refactoringbot.configuration.BotConfiguration;
+import de.refactoringbot.model.analysisissue.AnalysisIssueRepository;
 import de.refactoringbot.model.configuration.ConfigurationRepository;
 import de.refactoringbot.model.configuration.GitConfiguration;
 import de.refactoringbot.model.configuration.GitConfigurationDTO;
 import de.refactoringbot.model.exceptions.DatabaseConnectionException;
 import de.refactoringbot.model.exceptions.GitHubAPIException;
+import de.refactoringbot.model.synccursor.SyncCursorRepository;
 import de.refactoringbot.services.github.GithubObjectTranslator;
+import de.refactoringbot.services.localanalyzer.LocalAnalyzer;
 import javassist.NotFoundException;
 
 /**
@@ -44,6 +48,18 @@ public class ConfigurationService {
 	GitService gitService;
 	@Autowired
 	BotService botService;
+	@Autowired
+	ForkBranchCache branchCache;
+	@Autowired
+	UpstreamPrefetchService prefetchService;
+	@Autowired
+	SyncCursorRepository cursorRepo;
+	@Autowired
+	AnalysisIssueRepository analysisIssueRepo;
+	@Autowired
+	LocalAnalyzer localAnalyzer;
+	@Autowired
+	WorkspaceLockService lockService;
 
 	private static final Logger logger = LoggerFactory.getLogger(ConfigurationService.class);
 
@@ -166,6 +182,7 @@ public class ConfigurationService {
 		grabber.createFork(config);
 		// Clone fork + add remote of origin repository
 		gitService.initLocalWorkspace(config);
+		branchCache.invalidate(config);
 
 		// Add repo path and src-folder path to config
 		config.setRepoFolder(
@@ -175,7 +192,7 @@ public class ConfigurationService {
 		config = repo.save(config);
 
 		// Fetch target-Repository-Data
-		gitService.fetchRemote(config);
+		prefetchService.fetch(config);
 
 		return config;
 	}
@@ -194,6 +211,9 @@ public class ConfigurationService {
 		// Delete configuration from the database
 		try {
 			repo.delete(config);
+			cursorRepo.deleteAll(cursorRepo.getAllCursors(config.getConfigurationId()));
+			analysisIssueRepo.deleteAll(analysisIssueRepo.getAllIssues(config.getConfigurationId()));
+			localAnalyzer.invalidate(config);
 			userFeedback = "Configuration deleted from database!";
 		} catch (Exception d) {
 			logger.error(d.getMessage(), d);
@@ -206,12 +226,17 @@ public class ConfigurationService {
 			logger.error(e.getMessage(), e);
 			userFeedback = userFeedback.concat(e.getMessage());
 		}
-		// Delete local folder
+		branchCache.invalidate(config);
+		// Delete local folder after a running refactoring finished
+		ReentrantLock lock = lockService.getLock(config);
+		lock.lock();
 		try {
 			deleteConfigurationFolder(config);
 		} catch (IOException e) {
 			logger.error(e.getMessage(), e);
 			userFeedback = userFeedback.concat(e.getMessage());
+		} finally {
+			lock.unlock();
 		}
 		// Return feedback to user
 		return new ResponseEntity<>(userFeedback, HttpStatus.OK);
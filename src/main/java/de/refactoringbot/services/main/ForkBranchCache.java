@@ -0,0 +1,117 @@
+package de.refactoringbot.services.main;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import de.refactoringbot.configuration.BotConfiguration;
+import de.refactoringbot.model.configuration.GitConfiguration;
+
+/**
+ * This class holds an in-memory view of the branches that exist on the fork of
+ * each configuration. It is filled once per run from the remote refs of the
+ * fork and kept up to date with the branches the bot pushes itself.
+ */
+@Component
+public class ForkBranchCache {
+
+	@Autowired
+	BotConfiguration botConfig;
+
+	private final Map<Long, BranchSnapshot> snapshots = new ConcurrentHashMap<>();
+
+	/**
+	 * This method replaces the known branches of a configuration with the given
+	 * branch names.
+	 *
+	 * @param gitConfig
+	 * @param branchNames
+	 */
+	public void update(GitConfiguration gitConfig, Collection<String> branchNames) {
+		BranchSnapshot snapshot = new BranchSnapshot(System.currentTimeMillis());
+		snapshot.branches.addAll(branchNames);
+		snapshots.put(gitConfig.getConfigurationId(), snapshot);
+	}
+
+	/**
+	 * This method adds a branch to the known branches of a configuration, e.g.
+	 * after the bot pushed it to the fork.
+	 *
+	 * @param gitConfig
+	 * @param branchName
+	 */
+	public void addBranch(GitConfiguration gitConfig, String branchName) {
+		BranchSnapshot snapshot = snapshots.get(gitConfig.getConfigurationId());
+		if (snapshot != null) {
+			snapshot.branches.add(branchName);
+		}
+	}
+
+	/**
+	 * This method removes a branch from the known branches of a configuration,
+	 * e.g. after the bot deleted it on the fork.
+	 *
+	 * @param gitConfig
+	 * @param branchName
+	 */
+	public void removeBranch(GitConfiguration gitConfig, String branchName) {
+		BranchSnapshot snapshot = snapshots.get(gitConfig.getConfigurationId());
+		if (snapshot != null) {
+			snapshot.branches.remove(branchName);
+		}
+	}
+
+	/**
+	 * This method forgets all known branches of a configuration.
+	 *
+	 * @param gitConfig
+	 */
+	public void invalidate(GitConfiguration gitConfig) {
+		snapshots.remove(gitConfig.getConfigurationId());
+	}
+
+	/**
+	 * This method checks if a branch exists on the fork. If the known branches of
+	 * the configuration are missing or older than the configured maximum age, the
+	 * method returns null and the caller has to ask the filehoster instead.
+	 *
+	 * @param gitConfig
+	 * @param branchName
+	 * @return branchExists
+	 */
+	public Boolean branchExists(GitConfiguration gitConfig, String branchName) {
+		BranchSnapshot snapshot = snapshots.get(gitConfig.getConfigurationId());
+		if (snapshot == null || isStale(snapshot)) {
+			return null;
+		}
+		return snapshot.branches.contains(branchName);
+	}
+
+	/**
+	 * This method checks if a snapshot is older than the configured maximum age.
+	 *
+	 * @param snapshot
+	 * @return isStale
+	 */
+	private boolean isStale(BranchSnapshot snapshot) {
+		long maxAgeMillis = botConfig.getBranchCacheMaxAge() * 1000L;
+		return System.currentTimeMillis() - snapshot.refreshedAt > maxAgeMillis;
+	}
+
+	/**
+	 * Branches of a fork at a certain point in time.
+	 */
+	private static class BranchSnapshot {
+
+		private final long refreshedAt;
+		private final Set<String> branches = ConcurrentHashMap.newKeySet();
+
+		private BranchSnapshot(long refreshedAt) {
+			this.refreshedAt = refreshedAt;
+		}
+	}
+}
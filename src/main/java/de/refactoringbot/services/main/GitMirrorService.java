@@ -0,0 +1,134 @@
+package de.refactoringbot.services.main;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.jgit.api.Git;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+
+import de.refactoringbot.configuration.BotConfiguration;
+import de.refactoringbot.model.configuration.GitConfiguration;
+import de.refactoringbot.model.exceptions.GitWorkflowException;
+
+/**
+ * This class manages the bare mirrors of the upstream repositories. All
+ * configurations with the same upstream repository share one mirror as object
+ * store (via git alternates), so that the upstream objects are downloaded and
+ * stored only once.
+ */
+@Service
+public class GitMirrorService {
+
+	@Autowired
+	BotConfiguration botConfig;
+
+	private static final Logger logger = LoggerFactory.getLogger(GitMirrorService.class);
+
+	private static final String MIRROR_FOLDER = "mirrors";
+
+	private final Map<String, Object> mirrorLocks = new ConcurrentHashMap<>();
+	private final Map<String, Long> lastUpdates = new ConcurrentHashMap<>();
+
+	/**
+	 * This method returns the folder of the mirror of the upstream repository of a
+	 * configuration.
+	 * 
+	 * @param gitConfig
+	 * @return mirrorFolder
+	 */
+	public File getMirrorFolder(GitConfiguration gitConfig) {
+		String mirrorName = DigestUtils
+				.md5DigestAsHex(gitConfig.getRepoGitLink().getBytes(StandardCharsets.UTF_8));
+		return new File(botConfig.getBotRefactoringDirectory() + MIRROR_FOLDER, mirrorName + ".git");
+	}
+
+	/**
+	 * This method returns the object folder of the mirror that workspaces use as
+	 * alternate object store.
+	 * 
+	 * @param gitConfig
+	 * @return objectFolder
+	 */
+	public File getMirrorObjectFolder(GitConfiguration gitConfig) {
+		return new File(getMirrorFolder(gitConfig), "objects");
+	}
+
+	/**
+	 * This method creates the mirror of the upstream repository if it does not
+	 * exist yet and fetches it otherwise. Refs are never pruned, so that objects
+	 * used by workspaces are not removed from the mirror.
+	 * 
+	 * @param gitConfig
+	 * @throws GitWorkflowException
+	 */
+	public void updateMirror(GitConfiguration gitConfig) throws GitWorkflowException {
+		updateMirrorIfStale(gitConfig, 0);
+	}
+
+	/**
+	 * This method updates the mirror of the upstream repository of a configuration
+	 * unless it was updated within the given time. All configurations of the same
+	 * upstream repository share the mirror, so it is only fetched once for all of
+	 * them.
+	 * 
+	 * @param gitConfig
+	 * @param maxAge
+	 *            milliseconds since the last update for which the mirror is still
+	 *            considered up to date
+	 * @throws GitWorkflowException
+	 */
+	public void updateMirrorIfStale(GitConfiguration gitConfig, long maxAge) throws GitWorkflowException {
+		File mirrorFolder = getMirrorFolder(gitConfig);
+		String mirrorKey = mirrorFolder.getAbsolutePath();
+		synchronized (mirrorLocks.computeIfAbsent(mirrorKey, k -> new Object())) {
+			Long lastUpdate = lastUpdates.get(mirrorKey);
+			if (new File(mirrorFolder, "objects").isDirectory()) {
+				if (lastUpdate != null && System.currentTimeMillis() - lastUpdate < maxAge) {
+					return;
+				}
+				fetchMirror(mirrorFolder);
+			} else {
+				cloneMirror(gitConfig, mirrorFolder);
+			}
+			lastUpdates.put(mirrorKey, System.currentTimeMillis());
+		}
+	}
+
+	/**
+	 * This method clones the upstream repository as bare repository.
+	 * 
+	 * @param gitConfig
+	 * @param mirrorFolder
+	 * @throws GitWorkflowException
+	 */
+	private void cloneMirror(GitConfiguration gitConfig, File mirrorFolder) throws GitWorkflowException {
+		try (Git git = Git.cloneRepository().setURI(gitConfig.getRepoGitLink()).setDirectory(mirrorFolder)
+				.setBare(true).call()) {
+			logger.info("Created mirror of '" + gitConfig.getRepoGitLink() + "'.");
+		} catch (Exception e) {
+			logger.error(e.getMessage(), e);
+			throw new GitWorkflowException("Could not create mirror of '" + gitConfig.getRepoGitLink() + "'!");
+		}
+	}
+
+	/**
+	 * This method fetches the upstream repository into the mirror.
+	 * 
+	 * @param mirrorFolder
+	 * @throws GitWorkflowException
+	 */
+	private void fetchMirror(File mirrorFolder) throws GitWorkflowException {
+		try (Git git = Git.open(mirrorFolder)) {
+			git.fetch().setRemote("origin").call();
+		} catch (Exception e) {
+			logger.error(e.getMessage(), e);
+			throw new GitWorkflowException("Could not fetch mirror '" + mirrorFolder.getName() + "'!");
+		}
+	}
+}
@@ -1,18 +1,37 @@
 package de.refactoringbot.services.main;
 
 import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
 
 import org.eclipse.jgit.api.CreateBranchCommand;
 import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.PushCommand;
 import org.eclipse.jgit.api.RemoteAddCommand;
+import org.eclipse.jgit.api.ResetCommand;
+import org.eclipse.jgit.api.ResetCommand.ResetType;
+import org.eclipse.jgit.api.Status;
 import org.eclipse.jgit.api.errors.RefAlreadyExistsException;
 import org.eclipse.jgit.api.errors.RefNotFoundException;
 import org.eclipse.jgit.api.errors.TransportException;
+import org.eclipse.jgit.internal.storage.file.FileRepository;
+import org.eclipse.jgit.internal.storage.file.GC;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
 import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.lib.RefUpdate;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.transport.FetchResult;
 import org.eclipse.jgit.transport.URIish;
 import org.eclipse.jgit.transport.UsernamePasswordCredentialsProvider;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.apache.commons.io.FileUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -20,6 +39,7 @@ import de.refactoringbot.configuration.BotConfiguration;
 import de.refactoringbot.model.configuration.GitConfiguration;
 import de.refactoringbot.model.exceptions.BotRefactoringException;
 import de.refactoringbot.model.exceptions.GitWorkflowException;
+import de.refactoringbot.model.workspace.WorkspaceSnapshot;
 
 /**
  * This class uses git programmatically with JGIT.
@@ -32,6 +52,10 @@ public class GitService {
 
 	@Autowired
 	BotConfiguration botConfig;
+	@Autowired
+	ForkBranchCache branchCache;
+	@Autowired
+	GitMirrorService mirrorService;
 
 	private static final Logger logger = LoggerFactory.getLogger(GitService.class);
 
@@ -73,19 +97,254 @@ public class GitService {
 	 * This method fetches data from the 'upstrem' remote.
 	 * 
 	 * @param gitConfig
+	 * @return refsUpdated
 	 * @throws GitWorkflowException
 	 */
-	public void fetchRemote(GitConfiguration gitConfig) throws GitWorkflowException {
+	public boolean fetchRemote(GitConfiguration gitConfig) throws GitWorkflowException {
+		// Download new upstream objects only once into the shared mirror, which is
+		// shared by all configurations of the upstream repository
+		if (botConfig.isSharedObjectStore()) {
+			mirrorService.updateMirrorIfStale(gitConfig, botConfig.getFetchFreshnessWindow() * 1000);
+		}
+
 		try (Git git = Git.open(
 				new File(botConfig.getBotRefactoringDirectory() + gitConfig.getConfigurationId()))) {
 			// Fetch data
-			git.fetch().setRemote("upstream").call();
+			return !git.fetch().setRemote("upstream").call().getTrackingRefUpdates().isEmpty();
 		} catch (Exception e) {
 			logger.error(e.getMessage(), e);
 			throw new GitWorkflowException("Could not fetch data from 'upstream'!");
 		}
 	}
 
+	/**
+	 * This method checks out a branch of the 'upstream' remote without creating a
+	 * local branch (detached HEAD), so that the working tree shows the state of
+	 * the original repository.
+	 * 
+	 * @param gitConfig
+	 * @param branchName
+	 * @throws GitWorkflowException
+	 */
+	public void checkoutUpstreamBranch(GitConfiguration gitConfig, String branchName) throws GitWorkflowException {
+		try (Git git = Git.open(
+				new File(botConfig.getBotRefactoringDirectory() + gitConfig.getConfigurationId()))) {
+			git.checkout().setName(Constants.R_REMOTES + "upstream/" + branchName).call();
+		} catch (Exception e) {
+			logger.error(e.getMessage(), e);
+			throw new GitWorkflowException("Could not check out 'upstream/" + branchName + "'!");
+		}
+	}
+
+	/**
+	 * This method reads all branches of the fork with a single 'git ls-remote' and
+	 * stores them inside the branch cache of the configuration.
+	 * 
+	 * @param gitConfig
+	 * @throws GitWorkflowException
+	 */
+	public void refreshForkBranches(GitConfiguration gitConfig) throws GitWorkflowException {
+		try (Git git = Git.open(
+				new File(botConfig.getBotRefactoringDirectory() + gitConfig.getConfigurationId()))) {
+			// List branches of the fork
+			Collection<Ref> refs = git.lsRemote().setRemote("origin").setHeads(true)
+					.setCredentialsProvider(new UsernamePasswordCredentialsProvider(gitConfig.getBotToken(), ""))
+					.call();
+			List<String> branchNames = new ArrayList<>();
+			for (Ref ref : refs) {
+				branchNames.add(Repository.shortenRefName(ref.getName()));
+			}
+			branchCache.update(gitConfig, branchNames);
+		} catch (Exception e) {
+			logger.error(e.getMessage(), e);
+			branchCache.invalidate(gitConfig);
+			throw new GitWorkflowException("Could not read branches from 'origin'!");
+		}
+	}
+
+	/**
+	 * This method returns all local branches of the workspace.
+	 * 
+	 * @param gitConfig
+	 * @return branchNames
+	 * @throws GitWorkflowException
+	 */
+	public List<String> getLocalBranches(GitConfiguration gitConfig) throws GitWorkflowException {
+		try (Git git = Git.open(
+				new File(botConfig.getBotRefactoringDirectory() + gitConfig.getConfigurationId()))) {
+			List<String> branchNames = new ArrayList<>();
+			for (Ref ref : git.branchList().call()) {
+				branchNames.add(Repository.shortenRefName(ref.getName()));
+			}
+			return branchNames;
+		} catch (Exception e) {
+			logger.error(e.getMessage(), e);
+			throw new GitWorkflowException("Could not list local branches!");
+		}
+	}
+
+	/**
+	 * This method deletes branches locally and on the fork. The currently checked
+	 * out branch is never deleted.
+	 * 
+	 * @param gitConfig
+	 * @param branchNames
+	 * @return deletedBranches
+	 * @throws GitWorkflowException
+	 */
+	public List<String> deleteBranches(GitConfiguration gitConfig, Collection<String> branchNames)
+			throws GitWorkflowException {
+		List<String> deletedBranches = new ArrayList<>();
+		try (Git git = Git.open(
+				new File(botConfig.getBotRefactoringDirectory() + gitConfig.getConfigurationId()))) {
+			String currentBranch = git.getRepository().getBranch();
+			List<String> localBranches = new ArrayList<>();
+			for (Ref ref : git.branchList().call()) {
+				localBranches.add(Repository.shortenRefName(ref.getName()));
+			}
+
+			// Delete branches on the fork with a single push
+			PushCommand push = git.push().setRemote("origin")
+					.setCredentialsProvider(new UsernamePasswordCredentialsProvider(gitConfig.getBotToken(), ""));
+			for (String branchName : branchNames) {
+				if (!branchName.equals(currentBranch)) {
+					push.add(":refs/heads/" + branchName);
+					deletedBranches.add(branchName);
+				}
+			}
+			if (deletedBranches.isEmpty()) {
+				return deletedBranches;
+			}
+			push.call();
+
+			// Delete local branches
+			for (String branchName : deletedBranches) {
+				branchCache.removeBranch(gitConfig, branchName);
+				if (localBranches.contains(branchName)) {
+					git.branchDelete().setBranchNames(branchName).setForce(true).call();
+				}
+			}
+			return deletedBranches;
+		} catch (Exception e) {
+			logger.error(e.getMessage(), e);
+			throw new GitWorkflowException("Could not delete branches of the workspace!");
+		}
+	}
+
+	/**
+	 * This method packs the refs of the workspace and repacks its object store.
+	 * Unreachable objects older than the JGit default expiration are pruned.
+	 * Workspaces that borrow objects from a mirror only get their refs packed,
+	 * because JGit would copy all borrowed objects into the pack of the workspace.
+	 * 
+	 * @param gitConfig
+	 * @param aggressive
+	 * @return statistics
+	 * @throws GitWorkflowException
+	 */
+	public Properties collectGarbage(GitConfiguration gitConfig, boolean aggressive) throws GitWorkflowException {
+		try (Git git = Git.open(
+				new File(botConfig.getBotRefactoringDirectory() + gitConfig.getConfigurationId()))) {
+			FileRepository repository = (FileRepository) git.getRepository();
+			if (new File(repository.getObjectsDirectory(), "info/alternates").exists()) {
+				new GC(repository).packRefs();
+				return git.gc().getStatistics();
+			}
+			return git.gc().setAggressive(aggressive).call();
+		} catch (Exception e) {
+			logger.error(e.getMessage(), e);
+			throw new GitWorkflowException("Could not collect garbage of the workspace!");
+		}
+	}
+
+	/**
+	 * This method records the checked out branch, the local branches and the
+	 * untracked files of a workspace before an issue is refactored.
+	 * 
+	 * @param gitConfig
+	 * @return snapshot
+	 * @throws GitWorkflowException
+	 */
+	public WorkspaceSnapshot createSnapshot(GitConfiguration gitConfig) throws GitWorkflowException {
+		try (Git git = Git.open(
+				new File(botConfig.getBotRefactoringDirectory() + gitConfig.getConfigurationId()))) {
+			WorkspaceSnapshot snapshot = new WorkspaceSnapshot();
+			snapshot.setBranchName(git.getRepository().getBranch());
+			for (Ref ref : git.branchList().call()) {
+				snapshot.getLocalBranches().add(Repository.shortenRefName(ref.getName()));
+			}
+			Status status = git.status().call();
+			snapshot.getUntrackedPaths().addAll(status.getUntracked());
+			snapshot.getUntrackedPaths().addAll(status.getUntrackedFolders());
+			return snapshot;
+		} catch (Exception e) {
+			logger.error(e.getMessage(), e);
+			throw new GitWorkflowException("Could not create snapshot of the workspace!");
+		}
+	}
+
+	/**
+	 * This method rolls back a workspace after a failed refactoring. Only the paths
+	 * touched by the refactoring are restored from the object database instead of
+	 * resetting the whole working tree. Added and untracked files are deleted
+	 * unless they already existed when the snapshot was taken.
+	 * Afterwards the branch of the snapshot is checked out again and local
+	 * branches created since the snapshot are deleted.
+	 * 
+	 * @param gitConfig
+	 * @param snapshot
+	 * @throws GitWorkflowException
+	 */
+	public void rollbackWorkspace(GitConfiguration gitConfig, WorkspaceSnapshot snapshot)
+			throws GitWorkflowException {
+		try (Git git = Git.open(
+				new File(botConfig.getBotRefactoringDirectory() + gitConfig.getConfigurationId()))) {
+			Status status = git.status().call();
+
+			// Restore touched files of the last commit
+			Set<String> touchedPaths = new HashSet<>();
+			touchedPaths.addAll(status.getModified());
+			touchedPaths.addAll(status.getChanged());
+			touchedPaths.addAll(status.getRemoved());
+			touchedPaths.addAll(status.getMissing());
+			if (!touchedPaths.isEmpty()) {
+				git.checkout().setStartPoint(Constants.HEAD).addPaths(new ArrayList<>(touchedPaths)).call();
+			}
+			// Unstage files that were added since the last commit
+			if (!status.getAdded().isEmpty()) {
+				ResetCommand reset = git.reset();
+				for (String addedPath : status.getAdded()) {
+					reset.addPath(addedPath);
+				}
+				reset.call();
+			}
+			// Delete files the refactoring created, so that no later commit picks them up.
+			// Files that were untracked before (e.g. build output) are kept.
+			Set<String> createdPaths = new HashSet<>();
+			createdPaths.addAll(status.getAdded());
+			createdPaths.addAll(status.getUntracked());
+			createdPaths.addAll(status.getUntrackedFolders());
+			createdPaths.removeAll(snapshot.getUntrackedPaths());
+			if (!createdPaths.isEmpty()) {
+				git.clean().setCleanDirectories(true).setPaths(createdPaths).call();
+			}
+
+			// Return to the branch of the snapshot
+			if (!git.getRepository().getBranch().equals(snapshot.getBranchName())) {
+				git.checkout().setName(snapshot.getBranchName()).call();
+			}
+			for (Ref ref : git.branchList().call()) {
+				String branchName = Repository.shortenRefName(ref.getName());
+				if (!snapshot.getLocalBranches().contains(branchName)) {
+					git.branchDelete().setBranchNames(branchName).setForce(true).call();
+				}
+			}
+		} catch (Exception e) {
+			logger.error(e.getMessage(), e);
+			throw new GitWorkflowException("Could not roll back the workspace!");
+		}
+	}
+
 	/**
 	 * This method stashes all changes since the last commit.
 	 * 
@@ -111,6 +370,12 @@ public class GitService {
 	 * @throws GitWorkflowException
 	 */
 	public void cloneRepository(GitConfiguration gitConfig) throws GitWorkflowException {
+		// Share the upstream objects with other configurations if possible
+		if (botConfig.isSharedObjectStore()) {
+			cloneWithSharedObjects(gitConfig);
+			return;
+		}
+
 		Git git = null;
 		try {
 			// Clone repository into git folder
@@ -128,6 +393,78 @@ public class GitService {
 		}
 	}
 
+	/**
+	 * This method creates a lightweight clone of the fork. The workspace uses the
+	 * mirror of the upstream repository as alternate object store, so that only
+	 * the objects that exist on the fork alone have to be downloaded and stored.
+	 * 
+	 * @param gitConfig
+	 * @throws GitWorkflowException
+	 */
+	public void cloneWithSharedObjects(GitConfiguration gitConfig) throws GitWorkflowException {
+		File workspace = new File(botConfig.getBotRefactoringDirectory() + gitConfig.getConfigurationId());
+		try {
+			// Create or update the shared mirror
+			mirrorService.updateMirror(gitConfig);
+
+			// Create empty repository that borrows the objects of the mirror
+			Git.init().setDirectory(workspace).call().close();
+			File alternates = new File(workspace, Constants.DOT_GIT + "/objects/info/alternates");
+			FileUtils.writeStringToFile(alternates,
+					mirrorService.getMirrorObjectFolder(gitConfig).getAbsolutePath() + "\n", StandardCharsets.UTF_8);
+		} catch (GitWorkflowException g) {
+			throw g;
+		} catch (Exception e) {
+			logger.error(e.getMessage(), e);
+			throw new GitWorkflowException("Faild to clone " + "'" + gitConfig.getForkGitLink() + "' successfully!");
+		}
+
+		// Reopen repository so that JGit reads the alternates
+		try (Git git = Git.open(workspace)) {
+			// Add fork as 'origin' and fetch the missing objects
+			RemoteAddCommand remoteAddCommand = git.remoteAdd();
+			remoteAddCommand.setName("origin");
+			remoteAddCommand.setUri(new URIish(gitConfig.getForkGitLink()));
+			remoteAddCommand.call();
+			FetchResult fetchResult = git.fetch().setRemote("origin").call();
+
+			// Check out the default branch of the fork
+			String defaultBranch = findDefaultBranch(fetchResult);
+			git.branchCreate().setName(defaultBranch).setStartPoint("origin/" + defaultBranch)
+					.setUpstreamMode(CreateBranchCommand.SetupUpstreamMode.TRACK).call();
+			RefUpdate headUpdate = git.getRepository().updateRef(Constants.HEAD);
+			headUpdate.link(Constants.R_HEADS + defaultBranch);
+			git.reset().setMode(ResetType.HARD).call();
+		} catch (Exception e) {
+			logger.error(e.getMessage(), e);
+			throw new GitWorkflowException("Faild to clone " + "'" + gitConfig.getForkGitLink() + "' successfully!");
+		}
+	}
+
+	/**
+	 * This method finds the default branch of a remote from the advertised refs
+	 * of a fetch.
+	 * 
+	 * @param fetchResult
+	 * @return defaultBranch
+	 */
+	private String findDefaultBranch(FetchResult fetchResult) {
+		Ref head = fetchResult.getAdvertisedRef(Constants.HEAD);
+		Ref master = fetchResult.getAdvertisedRef(Constants.R_HEADS + Constants.MASTER);
+		// Prefer 'master' if it is the default branch or HEAD is unknown
+		if (master != null && (head == null || head.getObjectId().equals(master.getObjectId()))) {
+			return Constants.MASTER;
+		}
+		if (head != null) {
+			for (Ref ref : fetchResult.getAdvertisedRefs()) {
+				if (ref.getName().startsWith(Constants.R_HEADS) && head.getObjectId().equals(ref.getObjectId())) {
+					return Repository.shortenRefName(ref.getName());
+				}
+			}
+		}
+		return Constants.MASTER;
+	}
+
 	/**
 	 * This method creates a new branch.
 	 * 
@@ -182,19 +519,99 @@ public class GitService {
 	}
 
 	/**
-	 * This method performs 'git push' programmically
+	 * This method performs 'git add .' and 'git commit' programmically on the
+	 * checked out branch.
 	 * 
+	 * @param gitConfig
+	 * @param commitMessage
+	 * @return branchName of the commit
 	 * @throws GitWorkflowException
 	 */
-	public void pushChanges(GitConfiguration gitConfig, String commitMessage) throws GitWorkflowException {
+	public String commitChanges(GitConfiguration gitConfig, String commitMessage) throws GitWorkflowException {
 		try (Git git = Git.open(new File(botConfig.getBotRefactoringDirectory() + gitConfig.getConfigurationId()))) {
 			// Perform 'git add .'
 			git.add().addFilepattern(".").call();
 			// Perform 'git commit -m'
 			git.commit().setMessage(commitMessage).setCommitter(gitConfig.getBotName(), gitConfig.getBotEmail()).call();
+			return git.getRepository().getBranch();
+		} catch (Exception e) {
+			logger.error(e.getMessage(), e);
+			throw new GitWorkflowException("Could not successfully perform 'git commit'!");
+		}
+	}
+
+	/**
+	 * This method returns the id of the checked out commit.
+	 * 
+	 * @param gitConfig
+	 * @return commitId
+	 * @throws GitWorkflowException
+	 */
+	public String getHeadCommit(GitConfiguration gitConfig) throws GitWorkflowException {
+		try (Git git = Git.open(new File(botConfig.getBotRefactoringDirectory() + gitConfig.getConfigurationId()))) {
+			return git.getRepository().resolve(Constants.HEAD).getName();
+		} catch (Exception e) {
+			logger.error(e.getMessage(), e);
+			throw new GitWorkflowException("Could not read the checked out commit!");
+		}
+	}
+
+	/**
+	 * This method removes a commit that could not be pushed from its branch by
+	 * resetting the branch to the parent of the commit. If the branch moved on
+	 * since, it is left alone.
+	 * 
+	 * @param gitConfig
+	 * @param branchName
+	 * @param commitId
+	 * @throws GitWorkflowException
+	 */
+	public void resetBranch(GitConfiguration gitConfig, String branchName, String commitId)
+			throws GitWorkflowException {
+		try (Git git = Git.open(new File(botConfig.getBotRefactoringDirectory() + gitConfig.getConfigurationId()))) {
+			Repository repository = git.getRepository();
+			Ref branch = repository.exactRef(Constants.R_HEADS + branchName);
+			if (branch == null || !branch.getObjectId().getName().equals(commitId)) {
+				logger.warn("Branch " + branchName + " has new commits, the failed commit " + commitId
+						+ " is not removed.");
+				return;
+			}
+
+			ObjectId parentId = repository.resolve(commitId + "^");
+			if (branchName.equals(repository.getBranch())) {
+				// Checked out branch needs the working tree reset as well
+				git.reset().setMode(ResetType.HARD).setRef(parentId.getName()).call();
+			} else {
+				RefUpdate update = repository.updateRef(Constants.R_HEADS + branchName);
+				update.setNewObjectId(parentId);
+				update.setForceUpdate(true);
+				if (update.update() != RefUpdate.Result.FORCED) {
+					throw new IllegalStateException("Branch " + branchName + " could not be updated!");
+				}
+			}
+		} catch (Exception e) {
+			logger.error(e.getMessage(), e);
+			throw new GitWorkflowException("Could not remove the failed commit from branch " + branchName + "!");
+		}
+	}
+
+	/**
+	 * This method performs 'git push' programmically for a single branch. The
+	 * branch is named explicitly, so it does not need to be checked out and the
+	 * workspace may already be used for the next refactoring.
+	 * 
+	 * @param gitConfig
+	 * @param branchName
+	 * @throws GitWorkflowException
+	 */
+	public void pushBranch(GitConfiguration gitConfig, String branchName) throws GitWorkflowException {
+		try (Git git = Git.open(new File(botConfig.getBotRefactoringDirectory() + gitConfig.getConfigurationId()))) {
 			// Push with bot credenials
-			git.push().setCredentialsProvider(new UsernamePasswordCredentialsProvider(gitConfig.getBotToken(), ""))
-					.call();
+			git.push().setRemote("origin")
+					.setCredentialsProvider(new UsernamePasswordCredentialsProvider(gitConfig.getBotToken(), ""))
+					.add("refs/heads/" + branchName + ":refs/heads/" + branchName).call();
+			// Remember pushed branch
+			branchCache.addBranch(gitConfig, branchName);
 		} catch (TransportException t) {
 			logger.error(t.getMessage(), t);
 			throw new GitWorkflowException("Wrong bot token!");
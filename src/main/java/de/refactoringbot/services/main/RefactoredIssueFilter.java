@@ -0,0 +1,51 @@
+package de.refactoringbot.services.main;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * This class holds the IDs of the comments and analysis issues a configuration
+ * already refactored (or failed to refactor). It is loaded once per run with a
+ * single query, so that a run does not ask the database for every candidate.
+ * IDs of issues that are handed over to the refactoring are added during the
+ * run. The filter may be used by several threads.
+ */
+public class RefactoredIssueFilter {
+
+	private final Set<String> refactoredIds = ConcurrentHashMap.newKeySet();
+
+	public RefactoredIssueFilter(Collection<String> refactoredIds) {
+		this.refactoredIds.addAll(refactoredIds);
+	}
+
+	/**
+	 * This method checks if an issue was already refactored.
+	 * 
+	 * @param commentServiceID
+	 * @return isRefactored
+	 */
+	public boolean contains(String commentServiceID) {
+		return commentServiceID != null && refactoredIds.contains(commentServiceID);
+	}
+
+	/**
+	 * This method adds an issue that is refactored. It returns false if the issue
+	 * was already known.
+	 * 
+	 * @param commentServiceID
+	 * @return added
+	 */
+	public boolean add(String commentServiceID) {
+		return commentServiceID != null && refactoredIds.add(commentServiceID);
+	}
+
+	/**
+	 * This method returns the amount of known issues.
+	 * 
+	 * @return size
+	 */
+	public int size() {
+		return refactoredIds.size();
+	}
+}
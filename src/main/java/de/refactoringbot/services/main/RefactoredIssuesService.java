@@ -5,6 +5,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import de.refactoringbot.model.configuration.GitConfiguration;
 import de.refactoringbot.model.exceptions.DatabaseConnectionException;
 import de.refactoringbot.model.refactoredissue.RefactoredIssue;
 import de.refactoringbot.model.refactoredissue.RefactoredIssueRepository;
@@ -52,6 +53,18 @@ public class RefactoredIssuesService {
 		}
 	}
 
+	/**
+	 * This method loads the IDs of all issues that were refactored for the
+	 * repository of a configuration with a single query.
+	 * 
+	 * @param config
+	 * @return filter
+	 */
+	public RefactoredIssueFilter createFilter(GitConfiguration config) {
+		return new RefactoredIssueFilter(
+				repo.getRefactoredIssueIds(config.getRepoService(), config.getRepoOwner(), config.getRepoName()));
+	}
+
 	/**
 	 * This method deletes all refactored issues from the database.
 	 * 
@@ -0,0 +1,140 @@
+package de.refactoringbot.services.main;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import de.refactoringbot.model.job.JobState;
+import de.refactoringbot.model.job.RefactoringJob;
+import de.refactoringbot.model.refactoredissue.RefactoredIssue;
+
+/**
+ * This class queues refactoring runs as jobs and executes them with the
+ * scheduler of the configurations, so that the REST-API can answer right away.
+ * Finished jobs are kept for a while, so that their results can be read.
+ */
+@Service
+public class RefactoringJobService {
+
+	@Autowired
+	ConfigurationRunScheduler scheduler;
+
+	/** Amount of finished jobs whose results are kept */
+	private static final int MAX_FINISHED_JOBS = 100;
+
+	private static final Logger logger = LoggerFactory.getLogger(RefactoringJobService.class);
+
+	private final AtomicLong nextJobId = new AtomicLong(1);
+	private final Map<Long, RefactoringJob> jobs = new ConcurrentHashMap<>();
+
+	/**
+	 * Refactoring run of a job. It adds the refactored issues to the given list.
+	 */
+	@FunctionalInterface
+	public interface JobRun {
+		ResponseEntity<?> run(List<RefactoredIssue> refactoredIssues) throws Exception;
+	}
+
+	/**
+	 * This method queues a job.
+	 * 
+	 * @param configurationId
+	 * @param type
+	 * @param run
+	 * @return job
+	 */
+	public RefactoringJob submit(Long configurationId, String type, JobRun run) {
+		return submit(configurationId, type, run, null);
+	}
+
+	/**
+	 * This method queues a job.
+	 * 
+	 * @param configurationId
+	 * @param type
+	 * @param run
+	 * @param cleanup
+	 *            executed after the job, e.g. to delete uploaded files (optional)
+	 * @return job
+	 */
+	public RefactoringJob submit(Long configurationId, String type, JobRun run, Runnable cleanup) {
+		RefactoringJob job = new RefactoringJob(nextJobId.getAndIncrement(), configurationId, type);
+		jobs.put(job.getJobId(), job);
+		removeOldJobs();
+
+		scheduler.schedule(configurationId, () -> execute(job, run, cleanup));
+		return job;
+	}
+
+	/**
+	 * This method returns a job.
+	 * 
+	 * @param jobId
+	 * @return job or null
+	 */
+	public RefactoringJob getJob(Long jobId) {
+		return jobs.get(jobId);
+	}
+
+	/**
+	 * This method executes a job on a worker.
+	 * 
+	 * @param job
+	 * @param run
+	 * @param cleanup
+	 */
+	private void execute(RefactoringJob job, JobRun run, Runnable cleanup) {
+		job.start();
+		try {
+			ResponseEntity<?> response = run.run(job.getRefactoredIssues());
+			// Keep the age of the upstream data and the time spent reading the analysis
+			// service, the response itself is not returned
+			String fetchAge = response.getHeaders().getFirst(RefactoringService.UPSTREAM_FETCH_AGE_HEADER);
+			if (fetchAge != null) {
+				job.setUpstreamFetchAge(Long.valueOf(fetchAge));
+			}
+			String analysisPages = response.getHeaders().getFirst(RefactoringService.ANALYSIS_PAGES_HEADER);
+			if (analysisPages != null) {
+				job.setAnalysisPages(Integer.valueOf(analysisPages));
+			}
+			String analysisRequestTime = response.getHeaders()
+					.getFirst(RefactoringService.ANALYSIS_REQUEST_TIME_HEADER);
+			if (analysisRequestTime != null) {
+				job.setAnalysisRequestTime(Long.valueOf(analysisRequestTime));
+			}
+			if (response.getStatusCode().isError()) {
+				job.fail(String.valueOf(response.getBody()));
+			} else {
+				job.finish();
+			}
+		} catch (Exception e) {
+			logger.error(e.getMessage(), e);
+			job.fail(e.getMessage());
+		} finally {
+			if (cleanup != null) {
+				cleanup.run();
+			}
+		}
+	}
+
+	/**
+	 * This method forgets the oldest finished jobs if too many are kept.
+	 */
+	private void removeOldJobs() {
+		List<RefactoringJob> finishedJobs = jobs.values().stream()
+				.filter(job -> job.getState() == JobState.FINISHED || job.getState() == JobState.FAILED)
+				.sorted(Comparator.comparing(RefactoringJob::getJobId)).collect(Collectors.toList());
+		for (int i = 0; i < finishedJobs.size() - MAX_FINISHED_JOBS; i++) {
+			jobs.remove(finishedJobs.get(i).getJobId());
+		}
+	}
+}
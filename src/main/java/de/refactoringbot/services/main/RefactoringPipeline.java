@@ -0,0 +1,176 @@
+package de.refactoringbot.services.main;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class connects the stages of a refactoring run. The thread of the run
+ * discovers the issues and refactors and commits them inside the workspace.
+ * Afterwards each issue is handed over to the push stage and then to the
+ * publish stage, which creates the pull request or replies and saves the
+ * result. While an issue is pushed and published, the run already refactors
+ * the next issue.
+ * 
+ * Only a limited amount of issues may be in the later stages at the same time.
+ * If they are full, the run waits before it refactors further issues, so that
+ * a slow filehoster throttles the whole run.
+ * 
+ * Only the thread of the run holds the lock of the workspace. If a later stage
+ * has to change the workspace, it queues a task that the run performs before
+ * it refactors the next issue or when it finishes. Before the run commits to a
+ * branch again, it waits until the earlier issues of the branch are pushed, so
+ * that the tasks of a failed push are performed before the next commit.
+ */
+class RefactoringPipeline {
+
+	private static final Logger logger = LoggerFactory.getLogger(RefactoringPipeline.class);
+
+	private final Executor pushExecutor;
+	private final Executor publishExecutor;
+	private final Semaphore capacity;
+	private final List<CompletableFuture<Void>> inFlight = new ArrayList<>();
+	private final Queue<Stage> workspaceTasks = new ConcurrentLinkedQueue<>();
+	private final Map<String, CompletableFuture<Void>> pushes = new ConcurrentHashMap<>();
+
+	/**
+	 * Stage of an issue that may throw checked exceptions.
+	 */
+	@FunctionalInterface
+	interface Stage {
+		void run() throws Exception;
+	}
+
+	/**
+	 * @param pushExecutor
+	 *            workers of the push stage
+	 * @param publishExecutor
+	 *            workers of the publish stage
+	 * @param capacity
+	 *            maximum amount of issues that are pushed or published at the same
+	 *            time
+	 */
+	RefactoringPipeline(Executor pushExecutor, Executor publishExecutor, int capacity) {
+		this.pushExecutor = pushExecutor;
+		this.publishExecutor = publishExecutor;
+		this.capacity = new Semaphore(Math.max(capacity, 1));
+	}
+
+	/**
+	 * This method hands a committed issue over to the push and publish stages. It
+	 * blocks while the stages are full.
+	 * 
+	 * @param branchName
+	 *            branch the issue was committed to
+	 * @param push
+	 * @param publish
+	 * @param onFailure
+	 *            called with the cause if pushing or publishing failed
+	 */
+	void submit(String branchName, Stage push, Stage publish, Consumer<Exception> onFailure) {
+		capacity.acquireUninterruptibly();
+		CompletableFuture<Void> pushed = CompletableFuture.runAsync(() -> runStage(push), pushExecutor);
+		pushes.put(branchName, pushed);
+		CompletableFuture<Void> issue = pushed.thenRunAsync(() -> runStage(publish), publishExecutor).handle((result, error) -> {
+					try {
+						if (error != null) {
+							onFailure.accept(getCause(error));
+						}
+					} catch (Exception e) {
+						logger.error(e.getMessage(), e);
+					} finally {
+						capacity.release();
+					}
+					return null;
+				});
+		synchronized (inFlight) {
+			inFlight.add(issue);
+		}
+	}
+
+	/**
+	 * This method waits until the last issue that was committed to a branch is
+	 * pushed and performs the changes of the workspace queued until then. It may
+	 * only be called by the thread of the run. A failed push is processed by the
+	 * pipeline, so it is not thrown.
+	 * 
+	 * @param branchName
+	 */
+	void awaitPush(String branchName) {
+		CompletableFuture<Void> pushed = pushes.remove(branchName);
+		if (pushed != null) {
+			try {
+				pushed.join();
+			} catch (CompletionException e) {
+				logger.debug("Earlier push of branch {} failed: {}", branchName, e.getMessage());
+			}
+		}
+		runWorkspaceTasks();
+	}
+
+	/**
+	 * This method queues a change of the workspace for the thread of the run.
+	 * 
+	 * @param task
+	 */
+	void queueWorkspaceTask(Stage task) {
+		workspaceTasks.add(task);
+	}
+
+	/**
+	 * This method performs the queued changes of the workspace. It may only be
+	 * called by the thread of the run. Errors are only logged.
+	 */
+	void runWorkspaceTasks() {
+		Stage task;
+		while ((task = workspaceTasks.poll()) != null) {
+			try {
+				task.run();
+			} catch (Exception e) {
+				logger.error(e.getMessage(), e);
+			}
+		}
+	}
+
+	/**
+	 * This method waits until all handed over issues are pushed and published and
+	 * performs the changes of the workspace they queued.
+	 */
+	void finish() {
+		List<CompletableFuture<Void>> issues;
+		synchronized (inFlight) {
+			issues = new ArrayList<>(inFlight);
+			inFlight.clear();
+		}
+		pushes.clear();
+		CompletableFuture.allOf(issues.toArray(new CompletableFuture<?>[0])).join();
+		runWorkspaceTasks();
+	}
+
+	private static void runStage(Stage stage) {
+		try {
+			stage.run();
+		} catch (Exception e) {
+			throw new CompletionException(e);
+		}
+	}
+
+	private static Exception getCause(Throwable error) {
+		Throwable cause = error;
+		while (cause instanceof CompletionException && cause.getCause() != null) {
+			cause = cause.getCause();
+		}
+		return cause instanceof Exception ? (Exception) cause : new IllegalStateException(cause);
+	}
+}
@@ -1,16 +1,20 @@
 package de.refactoringbot.services.main;
 
+import java.io.Closeable;
 import java.io.IOException;
-import java.net.URISyntaxException;
-import java.util.ArrayList;
+import java.nio.file.Path;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
 
 import javax.transaction.NotSupportedException;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
@@ -19,18 +23,27 @@ import de.refactoringbot.api.main.ApiGrabber;
 import de.refactoringbot.api.sonarqube.SonarQubeDataGrabber;
 import de.refactoringbot.configuration.BotConfiguration;
 import de.refactoringbot.model.botissue.BotIssue;
+import de.refactoringbot.model.configuration.AnalysisProvider;
 import de.refactoringbot.model.configuration.ConfigurationRepository;
 import de.refactoringbot.model.configuration.GitConfiguration;
 import de.refactoringbot.model.exceptions.BotRefactoringException;
 import de.refactoringbot.model.exceptions.DatabaseConnectionException;
-import de.refactoringbot.model.exceptions.GitHubAPIException;
 import de.refactoringbot.model.exceptions.GitWorkflowException;
 import de.refactoringbot.model.output.botpullrequest.BotPullRequest;
 import de.refactoringbot.model.output.botpullrequest.BotPullRequests;
 import de.refactoringbot.model.output.botpullrequestcomment.BotPullRequestComment;
+import de.refactoringbot.model.output.botpullrequestcomment.RequestComment;
+import de.refactoringbot.model.output.botpullrequestcomment.RequestCommentIterator;
+import de.refactoringbot.model.prioritization.IssueCostEstimate;
 import de.refactoringbot.model.refactoredissue.RefactoredIssue;
 import de.refactoringbot.model.refactoredissue.RefactoredIssueRepository;
+import de.refactoringbot.model.sonarqube.SonarPageStats;
+import de.refactoringbot.model.synccursor.SyncCursor;
+import de.refactoringbot.model.synccursor.SyncCursorRepository;
+import de.refactoringbot.model.workspace.WorkspaceSnapshot;
 import de.refactoringbot.refactoring.RefactoringPicker;
+import de.refactoringbot.services.prioritization.IssuePrioritizer;
+import de.refactoringbot.services.sonarqube.SonarQubeIssueStore;
 import de.refactoringbot.services.sonarqube.SonarQubeObjectTranslator;
 import javassist.NotFoundException;
 
@@ -65,9 +78,34 @@ public class RefactoringService {
 	SonarQubeObjectTranslator sonarTranslator;
 	@Autowired
 	BotService botService;
+	@Autowired
+	WorkspaceMaintenanceService maintenanceService;
+	@Autowired
+	UpstreamPrefetchService prefetchService;
+	@Autowired
+	SyncCursorRepository cursorRepo;
+	@Autowired
+	SonarQubeIssueStore issueStore;
+	@Autowired
+	IssuePrioritizer prioritizer;
+	@Autowired
+	RefactoredIssuesService refactoredIssuesService;
+	@Autowired
+	@Qualifier("pushExecutor")
+	ExecutorService pushExecutor;
+	@Autowired
+	@Qualifier("ioExecutor")
+	ExecutorService ioExecutor;
 
 	private static final Logger logger = LoggerFactory.getLogger(RefactoringService.class);
 
+	/** Seconds since the last successful fetch of the upstream repository */
+	public static final String UPSTREAM_FETCH_AGE_HEADER = "X-Upstream-Fetch-Age";
+	/** Amount of pages the run read from the analysis service */
+	public static final String ANALYSIS_PAGES_HEADER = "X-Analysis-Pages";
+	/** Milliseconds the run spent reading pages from the analysis service */
+	public static final String ANALYSIS_REQUEST_TIME_HEADER = "X-Analysis-Request-Time";
+
 	/**
 	 * This method performs a refactoring from a comment or an analysis service
 	 * issue.
@@ -78,26 +116,192 @@ public class RefactoringService {
 	 * @throws Exception
 	 */
 	public ResponseEntity<?> performRefactoring(Long configID, boolean isCommentRefactoring) throws Exception {
+		return performRefactoring(configID, isCommentRefactoring, new CopyOnWriteArrayList<>());
+	}
+
+	/**
+	 * This method performs a refactoring from a comment or an analysis service
+	 * issue. The refactored issues are added to the given list while the run
+	 * proceeds, so that other threads can follow the progress of the run. The list
+	 * must be thread safe, because issues are published by the pipeline workers.
+	 * 
+	 * @param configID
+	 * @param isCommentRefactoring
+	 * @param allRefactoredIssues
+	 * @return response
+	 * @throws Exception
+	 */
+	public ResponseEntity<?> performRefactoring(Long configID, boolean isCommentRefactoring,
+			List<RefactoredIssue> allRefactoredIssues) throws Exception {
 
 		// Check and create configuration
 		GitConfiguration config = checkConfigurationExistance(configID);
 
+		// Refuse new branches while the workspaces exceed their disk quota
+		if (maintenanceService.isQuotaExceeded()) {
+			throw new BotRefactoringException("Disk quota of the bot workspaces exceeded!");
+		}
+
 		// If analysis service data is missing
-		if (!isCommentRefactoring
-				&& (config.getAnalysisService() == null || config.getAnalysisServiceProjectKey() == null)) {
-			throw new BotRefactoringException("Configuration is missing analysis service data!");
+		if (!isCommentRefactoring) {
+			checkAnalysisServiceData(config);
 		}
 
-		// Get all pull requests
-		BotPullRequests allRequests = getPullRequests(config);
-		// Count all open pull requests created by bot
-		int amountOfBotRequests = botService.getAmountOfBotRequests(allRequests, config);
+		prepareRun(config);
 
 		// Return all refactored issues
+		ResponseEntity<?> response;
 		if (isCommentRefactoring) {
-			return processComments(config, allRequests, amountOfBotRequests);
+			// Read the comments since the last run while they are processed
+			SyncCursor cursor = getCommentCursor(config);
+			RequestCommentIterator comments = grabber.getRequestComments(config, cursor);
+
+			// Count all open pull requests created by bot, unless they were counted while
+			// reading the requests (GraphQL-API)
+			Integer countedBotRequests = comments.getAmountOfBotRequests();
+			int amountOfBotRequests = countedBotRequests != null ? countedBotRequests
+					: grabber.getAmountOfBotRequests(config);
+			checkRequestLimit(config, amountOfBotRequests);
+
+			response = processComments(config, comments, amountOfBotRequests, cursor, allRefactoredIssues);
 		} else {
-			return processAnalysisIssues(config, amountOfBotRequests);
+			// Count all open pull requests created by bot
+			int amountOfBotRequests = grabber.getAmountOfBotRequests(config);
+			checkRequestLimit(config, amountOfBotRequests);
+
+			response = processAnalysisIssues(config, amountOfBotRequests, null, allRefactoredIssues);
+		}
+
+		// Tell the user how old the upstream data of this run was
+		ResponseEntity.BodyBuilder builder = ResponseEntity.status(response.getStatusCode())
+				.header(UPSTREAM_FETCH_AGE_HEADER, String.valueOf(prefetchService.getFetchAge(config) / 1000));
+
+		// Tell the user how long the issues were read from SonarQube
+		if (!isCommentRefactoring && config.getAnalysisService() == AnalysisProvider.sonarqube) {
+			List<SonarPageStats> pageStats = issueStore.getLastSyncStats(config);
+			builder.header(ANALYSIS_PAGES_HEADER, String.valueOf(pageStats.size()))
+					.header(ANALYSIS_REQUEST_TIME_HEADER,
+							String.valueOf(SonarQubeIssueStore.getRequestDuration(pageStats)));
+		}
+		return builder.body(response.getBody());
+	}
+
+	/**
+	 * This method performs the refactorings of the issues listed in an analysis
+	 * report, e.g. a SARIF file created by a CI build. The configured analysis
+	 * service is not used.
+	 * 
+	 * @param configID
+	 * @param report
+	 * @param allRefactoredIssues
+	 *            list the refactored issues are added to while the run proceeds
+	 * @return response
+	 * @throws Exception
+	 */
+	public ResponseEntity<?> performReportRefactoring(Long configID, Path report,
+			List<RefactoredIssue> allRefactoredIssues) throws Exception {
+		// Check and create configuration
+		GitConfiguration config = checkConfigurationExistance(configID);
+
+		// Refuse new branches while the workspaces exceed their disk quota
+		if (maintenanceService.isQuotaExceeded()) {
+			throw new BotRefactoringException("Disk quota of the bot workspaces exceeded!");
+		}
+
+		// Count all open pull requests created by bot
+		prepareRun(config);
+		int amountOfBotRequests = grabber.getAmountOfBotRequests(config);
+		checkRequestLimit(config, amountOfBotRequests);
+
+		ResponseEntity<?> response = processAnalysisIssues(config, amountOfBotRequests, report,
+				allRefactoredIssues);
+
+		// Tell the user how old the upstream data of this run was
+		return ResponseEntity.status(response.getStatusCode())
+				.header(UPSTREAM_FETCH_AGE_HEADER, String.valueOf(prefetchService.getFetchAge(config) / 1000))
+				.body(response.getBody());
+	}
+
+	/**
+	 * This method estimates the cost of the next issues of the analysis service
+	 * of a configuration, ordered by their priority. No issue is refactored or
+	 * marked: SonarQube issues are read from the local store without syncing it,
+	 * and the local analyzer holds the workspace lock while it analyzes.
+	 * 
+	 * @param configID
+	 * @param limit
+	 *            maximum amount of issues that are estimated
+	 * @return estimates
+	 * @throws Exception
+	 */
+	public List<IssueCostEstimate> getIssueCostEstimates(Long configID, int limit) throws Exception {
+		GitConfiguration config = checkConfigurationExistance(configID);
+		checkAnalysisServiceData(config);
+
+		Iterator<BotIssue> botIssues = config.getAnalysisService() == AnalysisProvider.sonarqube
+				? issueStore.getStoredActionableIssues(config)
+				: getBotIssues(config);
+		try {
+			return prioritizer.estimate(botIssues, config, limit);
+		} finally {
+			if (botIssues instanceof Closeable) {
+				((Closeable) botIssues).close();
+			}
+		}
+	}
+
+	/**
+	 * This method checks if the analysis service of a configuration is
+	 * configured. The local analyzer needs no project key.
+	 * 
+	 * @param config
+	 * @throws BotRefactoringException
+	 */
+	private void checkAnalysisServiceData(GitConfiguration config) throws BotRefactoringException {
+		if (config.getAnalysisService() == null || (config.getAnalysisService() != AnalysisProvider.localanalyzer
+				&& config.getAnalysisServiceProjectKey() == null)) {
+			throw new BotRefactoringException("Configuration is missing analysis service data!");
+		}
+	}
+
+	/**
+	 * This method performs the refactorings of single comments that the
+	 * filehoster pushed to the bot, without reading all requests again.
+	 * 
+	 * @param config
+	 * @param requests
+	 *            requests that only contain the new comments
+	 * @return response
+	 * @throws Exception
+	 */
+	public ResponseEntity<?> performCommentRefactoring(GitConfiguration config, BotPullRequests requests)
+			throws Exception {
+		// Refuse new branches while the workspaces exceed their disk quota
+		if (maintenanceService.isQuotaExceeded()) {
+			throw new BotRefactoringException("Disk quota of the bot workspaces exceeded!");
+		}
+
+		prepareRun(config);
+		int amountOfBotRequests = grabber.getAmountOfBotRequests(config);
+		return processComments(config, requests, amountOfBotRequests);
+	}
+
+	/**
+	 * This method brings the local data of a configuration up to date before a
+	 * run.
+	 * 
+	 * @param config
+	 * @throws GitWorkflowException
+	 */
+	private void prepareRun(GitConfiguration config) throws GitWorkflowException {
+		// Fetch target-Repository-Data if the background fetch is outdated
+		prefetchService.ensureFresh(config);
+
+		// Read branches of the fork once for all issues of this run
+		try {
+			dataGetter.refreshForkBranches(config);
+		} catch (GitWorkflowException e) {
+			logger.warn("Checking branches with the filehoster API instead: " + e.getMessage());
 		}
 	}
 
@@ -110,33 +314,57 @@ public class RefactoringService {
 	 * @return response
 	 */
 	public ResponseEntity<?> processAnalysisIssues(GitConfiguration config, int amountBotRequests) {
-		List<RefactoredIssue> allRefactoredIssues = new ArrayList<>();
-		try {
-			// Get issues from analysis service API
-			List<BotIssue> botIssues = getBotIssues(config);
+		return processAnalysisIssues(config, amountBotRequests, null, new CopyOnWriteArrayList<>());
+	}
 
-			// Iterate all issues
-			for (BotIssue botIssue : botIssues) {
-				// When Bot-Pull-Request-Limit reached -> return
-				if (amountBotRequests >= config.getMaxAmountRequests()) {
-					// Return all refactored issues
-					return new ResponseEntity<>(allRefactoredIssues, HttpStatus.OK);
+	/**
+	 * This method processes the refactoring of issues detected by an analysis
+	 * service or listed in an analysis report.
+	 * 
+	 * @param config
+	 * @param amountBotRequests
+	 * @param report
+	 *            report file or null to read the issues of the configured analysis
+	 *            service
+	 * @param allRefactoredIssues
+	 *            thread safe list the refactored issues are added to
+	 * @return response
+	 */
+	public ResponseEntity<?> processAnalysisIssues(GitConfiguration config, int amountBotRequests, Path report,
+			List<RefactoredIssue> allRefactoredIssues) {
+		Iterator<BotIssue> botIssues = null;
+		RefactoringPipeline pipeline = createPipeline();
+		RequestLimit requestLimit = new RequestLimit(config.getMaxAmountRequests(), amountBotRequests);
+		try {
+			// Get issues from analysis service API or report, cheapest first
+			botIssues = report == null ? getBotIssues(config) : grabber.getReportIssues(config, report);
+			botIssues = prioritizer.prioritize(botIssues, config);
+
+			// Issues of the local SonarQube store are only returned once, issues of
+			// reports have to be checked against the refactored issues
+			boolean fromIssueStore = report == null && config.getAnalysisService() == AnalysisProvider.sonarqube;
+			RefactoredIssueFilter refactoredIssues = fromIssueStore ? null
+					: refactoredIssuesService.createFilter(config);
+
+			// Iterate issues until the Bot-Pull-Request-Limit is reached, so that no
+			// further issues are read from the analysis service
+			while (!isRequestLimitReached(requestLimit, pipeline) && botIssues.hasNext()) {
+				BotIssue botIssue = botIssues.next();
+				if (!fromIssueStore && !isAnalysisIssueValid(botIssue, refactoredIssues)) {
+					continue;
 				}
 
 				try {
-					// If issue was not already refactored
-					if (isAnalysisIssueValid(botIssue)) {
-						// Perform refactoring
-						allRefactoredIssues = refactorIssue(false, false, config, null, null, botIssue,
-								allRefactoredIssues);
-						amountBotRequests++;
-					}
+					// Perform refactoring
+					refactorIssue(false, false, config, null, null, botIssue, pipeline, requestLimit,
+							allRefactoredIssues);
 				} catch (Exception e) {
 					// Create failed Refactored-Object
-					botIssue.setErrorMessage("Bot could not refactor this comment! Internal server error!");
-					allRefactoredIssues = processFailedRefactoring(allRefactoredIssues, config, null, null, botIssue,
-							false);
-					logger.error(e.getMessage(), e);
+					processFailedRefactoring(allRefactoredIssues, config, null, null, botIssue, false, e);
+				} finally {
+					if (fromIssueStore) {
+						issueStore.markAttempted(config, botIssue.getCommentServiceID());
+					}
 				}
 			}
 
@@ -144,6 +372,17 @@ public class RefactoringService {
 		} catch (Exception e) {
 			logger.error(e.getMessage(), e);
 			return new ResponseEntity<>(e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
+		} finally {
+			// Wait for the pull requests of the last issues
+			pipeline.finish();
+			// Release the report if not all issues were read
+			if (botIssues instanceof Closeable) {
+				try {
+					((Closeable) botIssues).close();
+				} catch (IOException e) {
+					logger.error(e.getMessage(), e);
+				}
+			}
 		}
 	}
 
@@ -157,19 +396,55 @@ public class RefactoringService {
 	 */
 	public ResponseEntity<?> processComments(GitConfiguration config, BotPullRequests allRequests,
 			int amountBotRequests) {
-		List<RefactoredIssue> allRefactoredIssues = new ArrayList<>();
-		// Iterate through all requests
-		for (BotPullRequest request : allRequests.getAllPullRequests()) {
+		return processComments(config, RequestCommentIterator.of(allRequests), amountBotRequests, null,
+				new CopyOnWriteArrayList<>());
+	}
+
+	/**
+	 * This method processes the comment driven refactoring. The comments are
+	 * pulled from the iterator one by one, so that no more comments are read than
+	 * are needed until the request limit or the deadline of the run is reached. If
+	 * a cursor is given, it is moved to the newest evaluated comment and stored, so
+	 * that the next run only reads newer comments.
+	 * 
+	 * @param config
+	 * @param comments
+	 * @param amountOfBotRequests
+	 * @param cursor
+	 * @param allRefactoredIssues
+	 *            thread safe list the refactored issues are added to
+	 * @return response
+	 */
+	public ResponseEntity<?> processComments(GitConfiguration config, RequestCommentIterator comments,
+			int amountBotRequests, SyncCursor cursor, List<RefactoredIssue> allRefactoredIssues) {
+		long deadline = botConfig.getRunDeadline() > 0
+				? System.currentTimeMillis() + botConfig.getRunDeadline() * 1000
+				: Long.MAX_VALUE;
+		RefactoringPipeline pipeline = createPipeline();
+		RefactoredIssueFilter refactoredIssues = refactoredIssuesService.createFilter(config);
+		RequestLimit requestLimit = new RequestLimit(config.getMaxAmountRequests(), amountBotRequests);
+
+		try {
 			// Iterate through all comments
-			for (BotPullRequestComment comment : request.getAllComments()) {
+			while (comments.hasNext()) {
 				// When Bot-Pull-Request-Limit reached -> return
-				if (amountBotRequests >= config.getMaxAmountRequests()) {
+				if (isRequestLimitReached(requestLimit, pipeline)) {
 					// Return all refactored issues
 					return new ResponseEntity<>(allRefactoredIssues, HttpStatus.OK);
 				}
 
+				// Leave the remaining comments to the next run
+				if (System.currentTimeMillis() > deadline) {
+					logger.info("Deadline of the run for configuration " + config.getConfigurationId() + " reached.");
+					return new ResponseEntity<>(allRefactoredIssues, HttpStatus.OK);
+				}
+
+				RequestComment requestComment = comments.next();
+				BotPullRequest request = requestComment.getRequest();
+				BotPullRequestComment comment = requestComment.getComment();
+
 				// Check if comment is valid and not already refactored
-				if (isCommentValid(config, comment)) {
+				if (isCommentValid(comment, refactoredIssues)) {
 					// Create issue
 					BotIssue botIssue;
 					try {
@@ -181,39 +456,94 @@ public class RefactoringService {
 
 					try {
 						// For Requests created by someone else
-						if (!request.getCreatorName().equals(config.getBotName())) {
+						if (!config.getBotName().equals(request.getCreatorName())) {
 							// Perform refactoring
-							allRefactoredIssues = refactorIssue(false, true, config, comment, request, botIssue,
-									allRefactoredIssues);
-							amountBotRequests++;
+							refactorIssue(false, true, config, comment, request, botIssue, pipeline,
+									requestLimit, allRefactoredIssues);
 							// For Requests created by the bot
 						} else {
-							allRefactoredIssues = refactorIssue(true, true, config, comment, request, botIssue,
+							refactorIssue(true, true, config, comment, request, botIssue, pipeline, null,
 									allRefactoredIssues);
 						}
-					} catch (BotRefactoringException e) {
-						// If refactoring failed
-						botIssue.setErrorMessage(e.getMessage());
-						allRefactoredIssues = processFailedRefactoring(allRefactoredIssues, config, comment, request,
-								botIssue, true);
-						logger.error(e.getMessage(), e);
-						// Catch other errors
 					} catch (Exception e) {
-						// If botservice faild before or after the refactoring
-						botIssue.setErrorMessage("Bot could not refactor this comment! Internal server error!");
-						allRefactoredIssues = processFailedRefactoring(allRefactoredIssues, config, comment, request,
-								botIssue, true);
-						logger.error(e.getMessage(), e);
+						// If refactoring failed
+						processFailedRefactoring(allRefactoredIssues, config, comment, request, botIssue, true, e);
 					}
 				}
+
+				// Comment is done
+				if (cursor != null) {
+					cursor.advance(comment.getCommentID().longValue(), comment.getDateCreated());
+				}
 			}
+			return new ResponseEntity<>(allRefactoredIssues, HttpStatus.OK);
+		} catch (IllegalStateException e) {
+			// Reading further comments from the filehoster failed
+			logger.error(e.getMessage(), e);
+			return new ResponseEntity<>(e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
+		} finally {
+			// Evaluated comments are only done after their replies were sent
+			pipeline.finish();
+			// Comments after the newest evaluated one are read again in the next run.
+			// The first run reads the comments request by request, so older comments
+			// of the requests it did not reach are skipped.
+			if (cursor != null) {
+				cursorRepo.save(cursor);
+			}
+		}
+	}
+
+	/**
+	 * This method returns the cursor of the comments of a configuration that
+	 * were already evaluated.
+	 * 
+	 * @param config
+	 * @return cursor
+	 */
+	private SyncCursor getCommentCursor(GitConfiguration config) {
+		Optional<SyncCursor> cursor = cursorRepo.getCursor(config.getConfigurationId(), SyncCursor.REVIEW_COMMENTS);
+		if (cursor.isPresent()) {
+			return cursor.get();
+		}
+		SyncCursor newCursor = new SyncCursor();
+		newCursor.setConfigurationId(config.getConfigurationId());
+		newCursor.setType(SyncCursor.REVIEW_COMMENTS);
+		return newCursor;
+	}
+
+	/**
+	 * This method creates the pipeline of a run.
+	 * 
+	 * @return pipeline
+	 */
+	private RefactoringPipeline createPipeline() {
+		return new RefactoringPipeline(pushExecutor, ioExecutor, botConfig.getPipelineCapacity());
+	}
+
+	/**
+	 * This method checks if the run may not create further requests. Requests
+	 * only count once they are published, so if the limit is only reached with
+	 * the pending ones, the run waits for them first.
+	 * 
+	 * @param requestLimit
+	 * @param pipeline
+	 * @return reached
+	 */
+	private boolean isRequestLimitReached(RequestLimit requestLimit, RefactoringPipeline pipeline) {
+		if (requestLimit.isReached() && requestLimit.hasPending()) {
+			pipeline.finish();
 		}
-		return new ResponseEntity<>(allRefactoredIssues, HttpStatus.OK);
+		return requestLimit.isReached();
 	}
 
 	/**
-	 * This method configures the local workspace, refactors the issue, pushes the
-	 * changes and creates an PR.
+	 * This method configures the local workspace, refactors the issue and commits
+	 * the changes. Pushing the changes, creating the PR or replying and saving the
+	 * result is handed over to the pipeline, so that the next issue can be
+	 * refactored in the meantime. Failures of the later stages are processed like
+	 * failed refactorings. If the push fails, the commit is removed from the
+	 * branch again before the next issue is committed to it. A created request
+	 * only counts towards the request limit once it was published.
 	 * 
 	 * @param isBotPR
 	 * @param isCommentRefactoring
@@ -221,37 +551,115 @@ public class RefactoringService {
 	 * @param comment
 	 * @param request
 	 * @param botIssue
+	 * @param pipeline
+	 * @param requestLimit
+	 *            limit of the run or null if the issue creates no request
 	 * @param allRefactoredIssues
-	 * @return allRefactoredIssues
 	 * @throws Exception
 	 */
-	public List<RefactoredIssue> refactorIssue(boolean isBotPR, boolean isCommentRefactoring, GitConfiguration config,
-			BotPullRequestComment comment, BotPullRequest request, BotIssue botIssue,
-			List<RefactoredIssue> allRefactoredIssues) throws Exception {
+	void refactorIssue(boolean isBotPR, boolean isCommentRefactoring, GitConfiguration config,
+			BotPullRequestComment comment, BotPullRequest request, BotIssue botIssue, RefactoringPipeline pipeline,
+			RequestLimit requestLimit, List<RefactoredIssue> allRefactoredIssues) throws Exception {
+		// Undo commits of earlier issues whose push failed, an existing branch only
+		// after its last push finished
+		if (isBotPR) {
+			pipeline.awaitPush(request.getBranchName());
+		} else {
+			pipeline.runWorkspaceTasks();
+		}
+
+		// Remember the workspace state before the issue
+		WorkspaceSnapshot snapshot = dataGetter.createSnapshot(config);
+		String branchName;
+		try {
+			branchName = refactorIssueInWorkspace(isBotPR, isCommentRefactoring, config, comment, request,
+					botIssue);
+		} catch (Exception e) {
+			// Do not leave half-applied edits for the next issue
+			rollbackWorkspace(config, snapshot);
+			throw e;
+		}
+
+		// Nothing to publish if refactoring was not possible
+		if (branchName == null) {
+			return;
+		}
+
+		// Create Refactored-Object
+		RefactoredIssue refactoredIssue = botController.buildRefactoredIssue(botIssue, config);
+		String commitId = dataGetter.getHeadCommit(config);
+		if (requestLimit != null) {
+			requestLimit.reserve();
+		}
+		pipeline.submit(branchName, () -> {
+			try {
+				dataGetter.pushBranch(config, branchName);
+			} catch (GitWorkflowException e) {
+				// Do not push the commit with a later issue of the same branch
+				pipeline.queueWorkspaceTask(() -> dataGetter.resetBranch(config, branchName, commitId));
+				throw e;
+			}
+		}, () -> {
+			if (!isCommentRefactoring) {
+				grabber.makeCreateRequestWithAnalysisService(botIssue, config, branchName);
+			} else if (isBotPR) {
+				// Reply to User
+				grabber.replyToUserInsideBotRequest(request, comment, config);
+			} else {
+				grabber.makeCreateRequest(request, comment, config, branchName);
+			}
+
+			// Save to Database + add to list
+			RefactoredIssue savedIssue = issueRepo.save(refactoredIssue);
+			allRefactoredIssues.add(savedIssue);
+			if (requestLimit != null) {
+				requestLimit.confirm();
+			}
+		}, e -> {
+			if (requestLimit != null) {
+				requestLimit.release();
+			}
+			processFailedRefactoring(allRefactoredIssues, config, comment, request, botIssue, isCommentRefactoring,
+					e);
+		});
+	}
+
+	/**
+	 * This method rolls back the workspace to a snapshot. Errors are only logged
+	 * because the failure of the refactoring itself is more important.
+	 * 
+	 * @param config
+	 * @param snapshot
+	 */
+	private void rollbackWorkspace(GitConfiguration config, WorkspaceSnapshot snapshot) {
+		try {
+			dataGetter.rollbackWorkspace(config, snapshot);
+		} catch (GitWorkflowException e) {
+			logger.error(e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * This method performs the steps of refactorIssue inside the workspace: it
+	 * prepares the branch, refactors the issue and commits the changes.
+	 * 
+	 * @param isBotPR
+	 * @param isCommentRefactoring
+	 * @param config
+	 * @param comment
+	 * @param request
+	 * @param botIssue
+	 * @return branchName of the commit or null if the issue was not refactored
+	 * @throws Exception
+	 */
+	private String refactorIssueInWorkspace(boolean isBotPR, boolean isCommentRefactoring, GitConfiguration config,
+			BotPullRequestComment comment, BotPullRequest request, BotIssue botIssue) throws Exception {
 		// If refactoring via comment
 		if (isCommentRefactoring) {
 			// If PR owner = bot
 			if (isBotPR) {
 				// Change to existing Refactoring-Branch
 				dataGetter.switchBranch(config, request.getBranchName());
-
-				// Try to refactor
-				botIssue.setCommitMessage(refactoring.pickAndRefactor(botIssue, config));
-
-				// If successful
-				if (botIssue.getCommitMessage() != null) {
-					// Create Refactored-Object
-					RefactoredIssue refactoredIssue = botController.buildRefactoredIssue(botIssue, config);
-
-					// Push changes
-					dataGetter.pushChanges(config, botIssue.getCommitMessage());
-					// Reply to User
-					grabber.replyToUserInsideBotRequest(request, comment, config);
-
-					// Save to Database + add to list
-					RefactoredIssue savedIssue = issueRepo.save(refactoredIssue);
-					allRefactoredIssues.add(savedIssue);
-				}
 				// If PR owner != bot
 			} else {
 				// Create refactoring branch with Filehoster-Service + Comment-ID
@@ -260,22 +668,6 @@ public class RefactoringService {
 				grabber.checkBranch(config, newBranch);
 				// Create new Branch
 				dataGetter.createBranch(config, request.getBranchName(), newBranch, "upstream");
-				// Try to refactor
-				botIssue.setCommitMessage(refactoring.pickAndRefactor(botIssue, config));
-
-				// If successful
-				if (botIssue.getCommitMessage() != null) {
-					// Create Refactored-Object
-					RefactoredIssue refactoredIssue = botController.buildRefactoredIssue(botIssue, config);
-
-					// Push changes + create Pull-Request
-					dataGetter.pushChanges(config, botIssue.getCommitMessage());
-					grabber.makeCreateRequest(request, comment, config, newBranch);
-
-					// Save to Database + add to list
-					RefactoredIssue savedIssue = issueRepo.save(refactoredIssue);
-					allRefactoredIssues.add(savedIssue);
-				}
 			}
 			// If analysis service refactoring
 		} else {
@@ -284,25 +676,16 @@ public class RefactoringService {
 			// Check if branch already exists (throws exception if it does)
 			grabber.checkBranch(config, newBranch);
 			dataGetter.createBranch(config, "master", newBranch, "upstream");
-			// Try to refactor
-			botIssue.setCommitMessage(refactoring.pickAndRefactor(botIssue, config));
-
-			// If successful
-			if (botIssue.getCommitMessage() != null) {
-				// Create Refactored-Object
-				RefactoredIssue refactoredIssue = botController.buildRefactoredIssue(botIssue, config);
+		}
 
-				// Push changes + create Pull-Request
-				dataGetter.pushChanges(config, botIssue.getCommitMessage());
-				grabber.makeCreateRequestWithAnalysisService(botIssue, config, newBranch);
+		// Try to refactor
+		botIssue.setCommitMessage(refactoring.pickAndRefactor(botIssue, config));
 
-				// Save to database + add to list
-				RefactoredIssue savedIssue = issueRepo.save(refactoredIssue);
-				allRefactoredIssues.add(savedIssue);
-			}
+		// If successful
+		if (botIssue.getCommitMessage() == null) {
+			return null;
 		}
-
-		return allRefactoredIssues;
+		return dataGetter.commitChanges(config, botIssue.getCommitMessage());
 	}
 
 	/**
@@ -339,54 +722,45 @@ public class RefactoringService {
 	}
 
 	/**
-	 * This method returns all pull requests from a filehosting service.
+	 * This method checks if the maximal amount of bot requests is reached.
 	 * 
 	 * @param config
-	 * @return allRequests
-	 * @throws Exception
+	 * @param amountBotRequests
+	 * @throws BotRefactoringException
 	 */
-	public BotPullRequests getPullRequests(GitConfiguration config)
-			throws URISyntaxException, GitHubAPIException, IOException, BotRefactoringException, GitWorkflowException {
-		// Fetch target-Repository-Data
-		dataGetter.fetchRemote(config);
-
-		// Get Pull-Requests with comments
-		BotPullRequests allRequests = grabber.getRequestsWithComments(config);
-		Integer amountBotRequests = botController.getAmountOfBotRequests(allRequests, config);
-
-		// Check if max amount is reached
+	private void checkRequestLimit(GitConfiguration config, int amountBotRequests) throws BotRefactoringException {
 		if (amountBotRequests >= config.getMaxAmountRequests()) {
 			throw new BotRefactoringException("Maximal amount of requests reached." + "(Maximum = "
 					+ config.getMaxAmountRequests() + "; Currently = " + amountBotRequests + " bot requests are open)");
 		}
-
-		return allRequests;
 	}
 
 	/**
 	 * This method checks if a comment is valid for refactoring. The service will
 	 * only refactor the comment if it was not already refactored in the past and if
-	 * the comment fulfills the bot grammar.
+	 * the comment fulfills the bot grammar. A valid comment is added to the
+	 * refactored issues of the run.
 	 * 
-	 * @param config
 	 * @param comment
+	 * @param refactoredIssues
 	 * @return isValid
 	 */
-	public boolean isCommentValid(GitConfiguration config, BotPullRequestComment comment) {
-		return (grammarController.checkComment(comment.getCommentBody()) && !issueRepo
-				.refactoredComment(config.getRepoService(), comment.getCommentID().toString()).isPresent());
+	public boolean isCommentValid(BotPullRequestComment comment, RefactoredIssueFilter refactoredIssues) {
+		return grammarController.checkComment(comment.getCommentBody())
+				&& refactoredIssues.add(comment.getCommentID().toString());
 	}
 
 	/**
 	 * This method checks if a from a AnalysisServiceIssue translated BotIssue is
-	 * valid, e.g. not already refactored.
+	 * valid, e.g. not already refactored. A valid issue is added to the refactored
+	 * issues of the run.
 	 * 
-	 * @param config
 	 * @param issue
-	 * @return
+	 * @param refactoredIssues
+	 * @return isValid
 	 */
-	public boolean isAnalysisIssueValid(BotIssue issue) {
-		return (!issueRepo.refactoredAnalysisIssue(issue.getCommentServiceID()).isPresent());
+	public boolean isAnalysisIssueValid(BotIssue issue, RefactoredIssueFilter refactoredIssues) {
+		return refactoredIssues.add(issue.getCommentServiceID());
 	}
 
 	/**
@@ -401,6 +775,32 @@ public class RefactoringService {
 		return grammarController.createIssueFromComment(comment, config);
 	}
 
+	/**
+	 * This method processes a failed refactoring with the error message of its
+	 * cause.
+	 * 
+	 * @param allRefactoredIssues
+	 * @param config
+	 * @param comment
+	 * @param request
+	 * @param botIssue
+	 * @param isCommentRefactoring
+	 * @param cause
+	 */
+	private void processFailedRefactoring(List<RefactoredIssue> allRefactoredIssues, GitConfiguration config,
+			BotPullRequestComment comment, BotPullRequest request, BotIssue botIssue, boolean isCommentRefactoring,
+			Exception cause) {
+		logger.error(cause.getMessage(), cause);
+		if (isCommentRefactoring && cause instanceof BotRefactoringException) {
+			// If refactoring failed
+			botIssue.setErrorMessage(cause.getMessage());
+		} else {
+			// If botservice faild before or after the refactoring
+			botIssue.setErrorMessage("Bot could not refactor this comment! Internal server error!");
+		}
+		processFailedRefactoring(allRefactoredIssues, config, comment, request, botIssue, isCommentRefactoring);
+	}
+
 	/**
 	 * This method processes a faild refactoring. It creates a RefactoredIssue
 	 * object and saves it to the database so that the bot won't try to refactor a
@@ -438,15 +838,15 @@ public class RefactoringService {
 
 	/**
 	 * This method collects all issues from a analysis service and translates them
-	 * to BotIssues.
+	 * to BotIssues while they are iterated.
 	 * 
 	 * @param config
 	 * @return botIssues
 	 * @throws Exception
 	 */
-	public List<BotIssue> getBotIssues(GitConfiguration config) throws Exception {
+	public Iterator<BotIssue> getBotIssues(GitConfiguration config) throws Exception {
 		// Get BotIssues from AnalysisServiceIssues
-		List<BotIssue> botIssues = grabber.getAnalysisServiceIssues(config);
+		Iterator<BotIssue> botIssues = grabber.getAnalysisServiceIssues(config);
 
 		// BotIssues are null if analysis service not supported
 		if (botIssues == null) {
@@ -0,0 +1,69 @@
+package de.refactoringbot.services.main;
+
+/**
+ * This class counts the bot requests of a run against the maximal amount of
+ * requests of a configuration. A request only counts once it was published.
+ * Until then it is pending: pending requests keep the run from refactoring more
+ * issues than requests may be created, but a pending request that fails frees
+ * its place again. The limit is used by the thread of the run and the workers
+ * of the pipeline.
+ */
+class RequestLimit {
+
+	private final int maxAmount;
+	private int openRequests;
+	private int pendingRequests;
+
+	/**
+	 * @param maxAmount
+	 *            maximal amount of open bot requests
+	 * @param openRequests
+	 *            amount of bot requests that are already open
+	 */
+	RequestLimit(int maxAmount, int openRequests) {
+		this.maxAmount = maxAmount;
+		this.openRequests = openRequests;
+	}
+
+	/**
+	 * This method tells if no further request may be created, counting the
+	 * pending requests as if they succeed.
+	 *
+	 * @return reached
+	 */
+	synchronized boolean isReached() {
+		return openRequests + pendingRequests >= maxAmount;
+	}
+
+	/**
+	 * This method tells if requests are still pending, so that the limit may be
+	 * freed again.
+	 *
+	 * @return pending
+	 */
+	synchronized boolean hasPending() {
+		return pendingRequests > 0;
+	}
+
+	/**
+	 * This method adds a request that is handed over to the pipeline.
+	 */
+	synchronized void reserve() {
+		pendingRequests++;
+	}
+
+	/**
+	 * This method counts a pending request that was published.
+	 */
+	synchronized void confirm() {
+		pendingRequests--;
+		openRequests++;
+	}
+
+	/**
+	 * This method removes a pending request that failed.
+	 */
+	synchronized void release() {
+		pendingRequests--;
+	}
+}
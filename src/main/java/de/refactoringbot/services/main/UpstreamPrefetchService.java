@@ -0,0 +1,154 @@
+package de.refactoringbot.services.main;
+
+import java.io.File;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import de.refactoringbot.configuration.BotConfiguration;
+import de.refactoringbot.model.configuration.ConfigurationRepository;
+import de.refactoringbot.model.configuration.GitConfiguration;
+import de.refactoringbot.model.exceptions.GitWorkflowException;
+
+/**
+ * This class keeps the 'upstream' refs of all workspaces warm in the
+ * background. Repositories that changed recently are fetched more often than
+ * repositories that did not change for a while. Refactoring runs only fetch
+ * themselves if the last successful fetch is outside of the freshness window.
+ */
+@Service
+public class UpstreamPrefetchService {
+
+	@Autowired
+	ConfigurationRepository configRepo;
+	@Autowired
+	GitService gitService;
+	@Autowired
+	BotConfiguration botConfig;
+	@Autowired
+	WorkspaceLockService lockService;
+
+	private static final Logger logger = LoggerFactory.getLogger(UpstreamPrefetchService.class);
+
+	private final Map<Long, FetchState> fetchStates = new ConcurrentHashMap<>();
+
+	/**
+	 * This method fetches all workspaces whose background fetch is due. Workspaces
+	 * that are locked by a run are skipped, the run fetches them if necessary.
+	 */
+	@Scheduled(fixedDelayString = "${bot.prefetchTick:10000}")
+	public void prefetchAllWorkspaces() {
+		Iterable<GitConfiguration> configs;
+		try {
+			configs = configRepo.findAll();
+		} catch (Exception e) {
+			logger.error(e.getMessage(), e);
+			return;
+		}
+
+		long now = System.currentTimeMillis();
+		for (GitConfiguration config : configs) {
+			FetchState state = getFetchState(config);
+			if (now < state.nextFetch || !workspaceExists(config)) {
+				continue;
+			}
+			ReentrantLock lock = lockService.getLock(config);
+			if (!lock.tryLock()) {
+				continue;
+			}
+			try {
+				fetch(config);
+			} catch (GitWorkflowException e) {
+				logger.error("Background fetch of configuration " + config.getConfigurationId() + " failed!", e);
+			} finally {
+				lock.unlock();
+			}
+		}
+	}
+
+	/**
+	 * This method makes sure that the 'upstream' refs of a workspace are not
+	 * older than the freshness window. If they are, the workspace is fetched
+	 * immediately.
+	 * 
+	 * @param config
+	 * @throws GitWorkflowException
+	 */
+	public void ensureFresh(GitConfiguration config) throws GitWorkflowException {
+		long fetchAge = getFetchAge(config);
+		if (fetchAge < 0 || fetchAge > botConfig.getFetchFreshnessWindow() * 1000) {
+			fetch(config);
+		}
+	}
+
+	/**
+	 * This method fetches the 'upstream' remote of a workspace and adapts the
+	 * interval of the next background fetch. The interval is reset to the minimum
+	 * if refs changed and doubled up to the maximum otherwise. The fetch holds the
+	 * lock of the workspace.
+	 * 
+	 * @param config
+	 * @throws GitWorkflowException
+	 */
+	public void fetch(GitConfiguration config) throws GitWorkflowException {
+		FetchState state = getFetchState(config);
+		ReentrantLock lock = lockService.getLock(config);
+		lock.lock();
+		try {
+			long minInterval = botConfig.getPrefetchMinInterval() * 1000;
+			long maxInterval = botConfig.getPrefetchMaxInterval() * 1000;
+			try {
+				boolean refsUpdated = gitService.fetchRemote(config);
+				state.lastSuccessfulFetch = System.currentTimeMillis();
+				if (refsUpdated) {
+					state.interval = minInterval;
+				} else {
+					state.interval = Math.min(Math.max(state.interval * 2, minInterval), maxInterval);
+				}
+			} finally {
+				state.nextFetch = System.currentTimeMillis() + Math.max(state.interval, minInterval);
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * This method returns the milliseconds since the last successful fetch of a
+	 * workspace or -1 if it was not fetched yet.
+	 * 
+	 * @param config
+	 * @return fetchAge
+	 */
+	public long getFetchAge(GitConfiguration config) {
+		FetchState state = fetchStates.get(config.getConfigurationId());
+		if (state == null || state.lastSuccessfulFetch == 0) {
+			return -1;
+		}
+		return System.currentTimeMillis() - state.lastSuccessfulFetch;
+	}
+
+	private FetchState getFetchState(GitConfiguration config) {
+		return fetchStates.computeIfAbsent(config.getConfigurationId(), id -> new FetchState());
+	}
+
+	private boolean workspaceExists(GitConfiguration config) {
+		return new File(botConfig.getBotRefactoringDirectory() + config.getConfigurationId(), ".git").exists();
+	}
+
+	/**
+	 * Fetch history of a workspace.
+	 */
+	private static class FetchState {
+
+		private volatile long lastSuccessfulFetch = 0;
+		private volatile long nextFetch = 0;
+		private long interval = 0;
+	}
+}
@@ -0,0 +1,42 @@
+package de.refactoringbot.services.main;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.stereotype.Service;
+
+import de.refactoringbot.model.configuration.GitConfiguration;
+
+/**
+ * This class holds one lock per workspace. Everything that changes the local
+ * workspace of a configuration (refactoring runs, fetches, maintenance,
+ * deletion) holds the lock of the configuration, so that the workspace is
+ * never changed by two threads at the same time. The locks are reentrant, so a
+ * run may fetch its own workspace.
+ */
+@Service
+public class WorkspaceLockService {
+
+	private final Map<Long, ReentrantLock> locks = new ConcurrentHashMap<>();
+
+	/**
+	 * This method returns the lock of the workspace of a configuration.
+	 * 
+	 * @param config
+	 * @return lock
+	 */
+	public ReentrantLock getLock(GitConfiguration config) {
+		return getLock(config.getConfigurationId());
+	}
+
+	/**
+	 * This method returns the lock of the workspace of a configuration.
+	 * 
+	 * @param configurationId
+	 * @return lock
+	 */
+	public ReentrantLock getLock(Long configurationId) {
+		return locks.computeIfAbsent(configurationId, id -> new ReentrantLock(true));
+	}
+}
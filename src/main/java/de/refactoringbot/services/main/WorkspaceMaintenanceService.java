@@ -0,0 +1,213 @@
+package de.refactoringbot.services.main;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.commons.io.FileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import de.refactoringbot.api.main.ApiGrabber;
+import de.refactoringbot.configuration.BotConfiguration;
+import de.refactoringbot.model.configuration.ConfigurationRepository;
+import de.refactoringbot.model.configuration.GitConfiguration;
+import de.refactoringbot.model.exceptions.GitWorkflowException;
+import de.refactoringbot.model.synccursor.SyncCursor;
+import de.refactoringbot.model.synccursor.SyncCursorRepository;
+
+/**
+ * This class keeps the local workspaces of all configurations small. It deletes
+ * bot branches whose pull requests were merged or closed since the last
+ * maintenance, packs the refs and repacks the object stores and enforces the
+ * disk quota of the bot refactoring directory.
+ */
+@Service
+public class WorkspaceMaintenanceService {
+
+	@Autowired
+	ConfigurationRepository configRepo;
+	@Autowired
+	ApiGrabber grabber;
+	@Autowired
+	GitService gitService;
+	@Autowired
+	BotConfiguration botConfig;
+	@Autowired
+	WorkspaceLockService lockService;
+	@Autowired
+	SyncCursorRepository cursorRepo;
+
+	private static final Logger logger = LoggerFactory.getLogger(WorkspaceMaintenanceService.class);
+
+	private static final long BYTES_PER_MEGABYTE = 1024L * 1024L;
+
+	private volatile boolean quotaExceeded = false;
+
+	/**
+	 * This method maintains all workspaces periodically. Workspaces that are locked
+	 * by a run are skipped until the next maintenance.
+	 */
+	@Scheduled(initialDelayString = "${bot.maintenanceInterval:3600000}", fixedDelayString = "${bot.maintenanceInterval:3600000}")
+	public void maintainAllWorkspaces() {
+		List<GitConfiguration> configs = new ArrayList<>();
+		try {
+			configRepo.findAll().forEach(configs::add);
+		} catch (Exception e) {
+			logger.error(e.getMessage(), e);
+			return;
+		}
+
+		for (GitConfiguration config : configs) {
+			ReentrantLock lock = lockService.getLock(config);
+			if (!lock.tryLock()) {
+				logger.info("Skipped maintenance of busy configuration " + config.getConfigurationId() + ".");
+				continue;
+			}
+			try {
+				maintainWorkspace(config);
+			} catch (Exception e) {
+				logger.error("Maintenance of configuration " + config.getConfigurationId() + " failed!", e);
+			} finally {
+				lock.unlock();
+			}
+		}
+
+		enforceQuota(configs);
+	}
+
+	/**
+	 * This method deletes the bot branches of finished pull requests and collects
+	 * the garbage of the workspace of a configuration.
+	 * 
+	 * @param config
+	 * @throws Exception
+	 */
+	public void maintainWorkspace(GitConfiguration config) throws Exception {
+		if (!workspaceExists(config)) {
+			return;
+		}
+
+		// Delete branches of bot requests merged or closed since the last maintenance
+		SyncCursor cursor = getClosedRequestsCursor(config);
+		Set<String> closedBranches = grabber.getClosedBotBranches(config, cursor);
+		List<String> staleBranches = new ArrayList<>();
+		for (String branchName : gitService.getLocalBranches(config)) {
+			if (isBotBranch(config, branchName) && closedBranches.contains(branchName)) {
+				staleBranches.add(branchName);
+			}
+		}
+		List<String> deletedBranches = gitService.deleteBranches(config, staleBranches);
+		logger.info("Deleted " + deletedBranches.size() + " stale branches of configuration "
+				+ config.getConfigurationId() + ".");
+		// Branches that could not be deleted are tried again with all requests
+		if (deletedBranches.size() == staleBranches.size()) {
+			cursorRepo.save(cursor);
+		}
+
+		// Pack refs and objects
+		gitService.collectGarbage(config, false);
+	}
+
+	/**
+	 * This method checks the size of the bot refactoring directory. If it exceeds
+	 * the quota, the workspaces are repacked aggressively. If that does not help,
+	 * new refactorings are refused until enough space is available again.
+	 * 
+	 * @param configs
+	 */
+	public void enforceQuota(List<GitConfiguration> configs) {
+		if (botConfig.getWorkspaceQuota() <= 0) {
+			quotaExceeded = false;
+			return;
+		}
+
+		if (getDirectorySize() > getQuotaInBytes()) {
+			for (GitConfiguration config : configs) {
+				ReentrantLock lock = lockService.getLock(config);
+				if (!workspaceExists(config) || !lock.tryLock()) {
+					continue;
+				}
+				try {
+					gitService.collectGarbage(config, true);
+				} catch (GitWorkflowException e) {
+					logger.error(e.getMessage(), e);
+				} finally {
+					lock.unlock();
+				}
+			}
+		}
+
+		long size = getDirectorySize();
+		quotaExceeded = size > getQuotaInBytes();
+		if (quotaExceeded) {
+			logger.error("Bot refactoring directory uses " + size / BYTES_PER_MEGABYTE + " MB and exceeds the quota of "
+					+ botConfig.getWorkspaceQuota() + " MB!");
+		}
+	}
+
+	/**
+	 * This method returns if the bot refactoring directory exceeded its quota
+	 * during the last maintenance run.
+	 * 
+	 * @return quotaExceeded
+	 */
+	public boolean isQuotaExceeded() {
+		return quotaExceeded;
+	}
+
+	/**
+	 * This method returns the cursor of the closed requests of a configuration
+	 * that were already maintained.
+	 * 
+	 * @param config
+	 * @return cursor
+	 */
+	private SyncCursor getClosedRequestsCursor(GitConfiguration config) {
+		Optional<SyncCursor> cursor = cursorRepo.getCursor(config.getConfigurationId(), SyncCursor.CLOSED_REQUESTS);
+		if (cursor.isPresent()) {
+			return cursor.get();
+		}
+		SyncCursor newCursor = new SyncCursor();
+		newCursor.setConfigurationId(config.getConfigurationId());
+		newCursor.setType(SyncCursor.CLOSED_REQUESTS);
+		return newCursor;
+	}
+
+	/**
+	 * This method checks if a branch was created by the bot.
+	 * 
+	 * @param config
+	 * @param branchName
+	 * @return isBotBranch
+	 */
+	private boolean isBotBranch(GitConfiguration config, String branchName) {
+		return branchName.startsWith("sonarCube_Refactoring_")
+				|| branchName.startsWith(config.getRepoService() + "_Refactoring_");
+	}
+
+	/**
+	 * This method checks if the local workspace of a configuration exists.
+	 * 
+	 * @param config
+	 * @return workspaceExists
+	 */
+	private boolean workspaceExists(GitConfiguration config) {
+		return new File(botConfig.getBotRefactoringDirectory() + config.getConfigurationId(), ".git").exists();
+	}
+
+	private long getDirectorySize() {
+		File directory = new File(botConfig.getBotRefactoringDirectory());
+		return directory.isDirectory() ? FileUtils.sizeOfDirectory(directory) : 0;
+	}
+
+	private long getQuotaInBytes() {
+		return botConfig.getWorkspaceQuota() * BYTES_PER_MEGABYTE;
+	}
+}
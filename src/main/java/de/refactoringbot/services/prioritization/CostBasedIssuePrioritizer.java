@@ -0,0 +1,182 @@
+package de.refactoringbot.services.prioritization;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import de.refactoringbot.configuration.BotConfiguration;
+import de.refactoringbot.model.botissue.BotIssue;
+import de.refactoringbot.model.configuration.GitConfiguration;
+import de.refactoringbot.model.prioritization.IssueCostEstimate;
+import de.refactoringbot.refactoring.RefactoringOperations;
+
+/**
+ * This class orders issues by their value per cost, so that cheap single file
+ * refactorings are not stuck behind expensive project wide ones when the
+ * amount of pull requests per run is limited. Every issue has the same value
+ * (one pull request). The cost is estimated from the size of the file of the
+ * issue and, for refactorings that search the whole project for sub classes and
+ * method calls, from the size of all Java files.
+ * 
+ * The issues are ordered within a window that is read ahead, so that issues of
+ * large projects are still streamed.
+ */
+@Service
+public class CostBasedIssuePrioritizer implements IssuePrioritizer {
+
+	@Autowired
+	BotConfiguration botConfig;
+
+	/** Cost of the branch, push and pull request of an issue in bytes of parsed code */
+	static final long BASE_COST = 20000;
+	/** Passes of project wide refactorings over all Java files */
+	static final int PROJECT_WIDE_PASSES = 3;
+	/** Value of a refactored issue */
+	static final double ISSUE_VALUE = 1.0;
+
+	private static final Set<String> PROJECT_WIDE_OPERATIONS = new HashSet<>(
+			Arrays.asList(RefactoringOperations.RENAME_METHOD, RefactoringOperations.REMOVE_PARAMETER));
+
+	@Override
+	public Iterator<BotIssue> prioritize(Iterator<BotIssue> issues, GitConfiguration config) {
+		if (botConfig.getPrioritizationWindow() <= 1) {
+			return issues;
+		}
+		return new PrioritizedIterator(issues, new CostModel(config), botConfig.getPrioritizationWindow());
+	}
+
+	@Override
+	public List<IssueCostEstimate> estimate(Iterator<BotIssue> issues, GitConfiguration config, int limit) {
+		CostModel costModel = new CostModel(config);
+		List<IssueCostEstimate> estimates = new ArrayList<>();
+		while (estimates.size() < limit && issues.hasNext()) {
+			estimates.add(costModel.estimate(issues.next()));
+		}
+		return estimates.stream()
+				.sorted(Comparator.comparingDouble(IssueCostEstimate::getPriority).reversed())
+				.collect(Collectors.toList());
+	}
+
+	/**
+	 * Estimates the cost of the issues of one configuration. The size of the
+	 * project is only computed once per list of Java files.
+	 */
+	static class CostModel {
+
+		private final GitConfiguration config;
+		private final Map<List<String>, Long> projectSizes = new IdentityHashMap<>();
+
+		CostModel(GitConfiguration config) {
+			this.config = config;
+		}
+
+		IssueCostEstimate estimate(BotIssue issue) {
+			IssueCostEstimate estimate = new IssueCostEstimate();
+			estimate.setCommentServiceID(issue.getCommentServiceID());
+			estimate.setRefactoringOperation(issue.getRefactoringOperation());
+			estimate.setFilePath(issue.getFilePath());
+			estimate.setLine(issue.getLine());
+
+			long fileSize = issue.getFilePath() == null ? 0
+					: new File(config.getRepoFolder(), issue.getFilePath()).length();
+			estimate.setFileSize(fileSize);
+
+			long cost = BASE_COST + fileSize;
+			if (PROJECT_WIDE_OPERATIONS.contains(issue.getRefactoringOperation()) && issue.getAllJavaFiles() != null) {
+				estimate.setFanOut(issue.getAllJavaFiles().size());
+				cost += PROJECT_WIDE_PASSES * getProjectSize(issue.getAllJavaFiles());
+			} else {
+				estimate.setFanOut(1);
+			}
+			estimate.setCost(cost);
+
+			// Value per megabyte of parsed code
+			estimate.setValue(ISSUE_VALUE);
+			estimate.setPriority(ISSUE_VALUE * 1000000 / cost);
+			return estimate;
+		}
+
+		private long getProjectSize(List<String> allJavaFiles) {
+			return projectSizes.computeIfAbsent(allJavaFiles,
+					files -> files.stream().mapToLong(path -> new File(path).length()).sum());
+		}
+	}
+
+	/**
+	 * Returns the issues with the highest priority of the window first. Issues
+	 * with the same priority keep the order of the analysis service.
+	 */
+	static class PrioritizedIterator implements Iterator<BotIssue>, Closeable {
+
+		private final Iterator<BotIssue> issues;
+		private final CostModel costModel;
+		private final int window;
+		private final PriorityQueue<RankedIssue> queue = new PriorityQueue<>(Comparator
+				.comparingDouble((RankedIssue ranked) -> ranked.priority).reversed()
+				.thenComparingLong(ranked -> ranked.position));
+		private long position = 0;
+
+		PrioritizedIterator(Iterator<BotIssue> issues, CostModel costModel, int window) {
+			this.issues = issues;
+			this.costModel = costModel;
+			this.window = window;
+		}
+
+		@Override
+		public boolean hasNext() {
+			fillWindow();
+			return !queue.isEmpty();
+		}
+
+		@Override
+		public BotIssue next() {
+			fillWindow();
+			if (queue.isEmpty()) {
+				throw new NoSuchElementException();
+			}
+			return queue.poll().issue;
+		}
+
+		@Override
+		public void close() throws IOException {
+			if (issues instanceof Closeable) {
+				((Closeable) issues).close();
+			}
+		}
+
+		private void fillWindow() {
+			while (queue.size() < window && issues.hasNext()) {
+				BotIssue issue = issues.next();
+				queue.add(new RankedIssue(issue, costModel.estimate(issue).getPriority(), position++));
+			}
+		}
+	}
+
+	private static class RankedIssue {
+
+		private final BotIssue issue;
+		private final double priority;
+		private final long position;
+
+		private RankedIssue(BotIssue issue, double priority, long position) {
+			this.issue = issue;
+			this.priority = priority;
+			this.position = position;
+		}
+	}
+}
@@ -0,0 +1,39 @@
+package de.refactoringbot.services.prioritization;
+
+import java.util.Iterator;
+import java.util.List;
+
+import de.refactoringbot.model.botissue.BotIssue;
+import de.refactoringbot.model.configuration.GitConfiguration;
+import de.refactoringbot.model.prioritization.IssueCostEstimate;
+
+/**
+ * This interface decides in which order the issues of an analysis service are
+ * refactored. A different strategy can be plugged in by declaring another bean
+ * of this type as primary.
+ */
+public interface IssuePrioritizer {
+
+	/**
+	 * This method orders issues while they are iterated. Implementations should
+	 * only read as many issues ahead as they need, so that the analysis service
+	 * is not read completely. If the given iterator is closeable, the returned
+	 * one closes it.
+	 * 
+	 * @param issues
+	 * @param config
+	 * @return orderedIssues
+	 */
+	Iterator<BotIssue> prioritize(Iterator<BotIssue> issues, GitConfiguration config);
+
+	/**
+	 * This method estimates the cost of the next issues, ordered by priority.
+	 * 
+	 * @param issues
+	 * @param config
+	 * @param limit
+	 *            maximum amount of issues that are read
+	 * @return estimates
+	 */
+	List<IssueCostEstimate> estimate(Iterator<BotIssue> issues, GitConfiguration config, int limit);
+}
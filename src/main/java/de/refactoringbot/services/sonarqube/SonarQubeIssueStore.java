@@ -0,0 +1,384 @@
+package de.refactoringbot.services.sonarqube;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import de.refactoringbot.api.sonarqube.SonarIssuePageIterator;
+import de.refactoringbot.api.sonarqube.SonarQubeDataGrabber;
+import de.refactoringbot.model.analysisissue.AnalysisIssue;
+import de.refactoringbot.model.analysisissue.AnalysisIssueRepository;
+import de.refactoringbot.model.botissue.BotIssue;
+import de.refactoringbot.model.configuration.GitConfiguration;
+import de.refactoringbot.model.sonarqube.SonarIssue;
+import de.refactoringbot.model.sonarqube.SonarPageStats;
+import de.refactoringbot.model.synccursor.SyncCursor;
+import de.refactoringbot.model.synccursor.SyncCursorRepository;
+import de.refactoringbot.services.main.RefactoredIssueFilter;
+import de.refactoringbot.services.main.RefactoredIssuesService;
+
+/**
+ * This class keeps a local copy of the SonarQube issues of each configuration.
+ * The first sync reads all open issues, later syncs only read the issues that
+ * were updated since the newest update the bot has seen.
+ */
+@Service
+public class SonarQubeIssueStore {
+
+	@Autowired
+	SonarQubeDataGrabber sonarQubeGrabber;
+	@Autowired
+	SonarQubeObjectTranslator sonarQubeTranslator;
+	@Autowired
+	AnalysisIssueRepository analysisIssueRepo;
+	@Autowired
+	RefactoredIssuesService refactoredIssuesService;
+	@Autowired
+	SyncCursorRepository cursorRepo;
+
+	/** Statuses of issues that can be refactored */
+	public static final List<String> OPEN_STATUSES = Arrays.asList("OPEN", "REOPENED");
+
+	private static final DateTimeFormatter SONAR_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ssZ");
+
+	private static final Logger logger = LoggerFactory.getLogger(SonarQubeIssueStore.class);
+
+	private final Map<Long, List<SonarPageStats>> lastSyncStats = new ConcurrentHashMap<>();
+
+	/**
+	 * This method syncs the local issues of a configuration and returns the open
+	 * issues that the bot has not attempted to refactor yet.
+	 * 
+	 * @param gitConfig
+	 * @return botIssues
+	 * @throws Exception
+	 */
+	public Iterator<BotIssue> getActionableIssues(GitConfiguration gitConfig) throws Exception {
+		sync(gitConfig);
+		return getStoredActionableIssues(gitConfig);
+	}
+
+	/**
+	 * This method returns the open issues of the local store that the bot has not
+	 * attempted to refactor yet, without syncing the store with SonarQube.
+	 * 
+	 * @param gitConfig
+	 * @return botIssues
+	 * @throws Exception
+	 */
+	public Iterator<BotIssue> getStoredActionableIssues(GitConfiguration gitConfig) throws Exception {
+		List<AnalysisIssue> issues = analysisIssueRepo.getActionableIssues(gitConfig.getConfigurationId(),
+				OPEN_STATUSES);
+		Iterator<AnalysisIssue> storedIssues = issues.iterator();
+		Iterator<SonarIssue> sonarIssues = new Iterator<SonarIssue>() {
+
+			@Override
+			public boolean hasNext() {
+				return storedIssues.hasNext();
+			}
+
+			@Override
+			public SonarIssue next() {
+				return toSonarIssue(storedIssues.next());
+			}
+		};
+		return sonarQubeTranslator.translateSonarIssues(sonarIssues, gitConfig);
+	}
+
+	/**
+	 * This method reads the issues that changed on SonarQube since the last sync
+	 * into the local store. SonarQube returns at most 10000 issues per search, so
+	 * the first sync reads the open issues in windows of their creation date and
+	 * stores its position after each window. A later sync that hits this limit
+	 * does not store its position and the next sync reads the changes again.
+	 * 
+	 * @param gitConfig
+	 */
+	public void sync(GitConfiguration gitConfig) {
+		SyncCursor cursor = getCursor(gitConfig, SyncCursor.ANALYSIS_ISSUES);
+		SyncCursor window = getCursor(gitConfig, SyncCursor.ANALYSIS_ISSUES_WINDOW);
+
+		// Issues refactored before the store existed count as attempted
+		RefactoredIssueFilter refactoredIssues = refactoredIssuesService.createFilter(gitConfig);
+
+		// First sync reads all open issues, later syncs only the changed ones
+		List<SonarPageStats> pageStats = new ArrayList<>();
+		try {
+			if (cursor.getLastTimestamp() == null || window.getCursorId() != null) {
+				syncWindows(gitConfig, cursor, window, refactoredIssues, pageStats);
+			} else {
+				syncChanges(gitConfig, cursor, refactoredIssues, pageStats);
+			}
+		} finally {
+			lastSyncStats.put(gitConfig.getConfigurationId(), pageStats);
+			logger.info("Read {} SonarQube pages of configuration {} in {} ms", pageStats.size(),
+					gitConfig.getConfigurationId(), getRequestDuration(pageStats));
+		}
+	}
+
+	/**
+	 * This method returns the statistics of the pages that the last sync of a
+	 * configuration read from SonarQube.
+	 * 
+	 * @param gitConfig
+	 * @return pageStats or an empty list if the configuration was not synced
+	 */
+	public List<SonarPageStats> getLastSyncStats(GitConfiguration gitConfig) {
+		return lastSyncStats.getOrDefault(gitConfig.getConfigurationId(), Collections.emptyList());
+	}
+
+	/**
+	 * This method sums up the request time of pages.
+	 * 
+	 * @param pageStats
+	 * @return requestDuration in milliseconds
+	 */
+	public static long getRequestDuration(List<SonarPageStats> pageStats) {
+		return pageStats.stream().mapToLong(SonarPageStats::getRequestDuration).sum();
+	}
+
+	/**
+	 * This method reads all open issues, oldest first. Each window starts at the
+	 * creation date of the last issue of the previous one and is stored once it
+	 * was read, so that an interrupted sync continues with the next window.
+	 * 
+	 * @param gitConfig
+	 * @param cursor
+	 * @param window
+	 * @param refactoredIssues
+	 * @param pageStats
+	 *            list the statistics of the read pages are added to
+	 */
+	private void syncWindows(GitConfiguration gitConfig, SyncCursor cursor, SyncCursor window,
+			RefactoredIssueFilter refactoredIssues, List<SonarPageStats> pageStats) {
+		IssueDates dates = new IssueDates(cursor.getLastTimestamp());
+		while (true) {
+			String createdAfter = window.getLastTimestamp();
+			SonarIssuePageIterator issues = sonarQubeGrabber.streamIssues(gitConfig.getAnalysisServiceProjectKey(),
+					SonarQubeObjectTranslator.SUPPORTED_RULES, createdAfter);
+
+			String lastCreation = createdAfter;
+			int windowIssues = 0;
+			while (issues.hasNext()) {
+				SonarIssue issue = issues.next();
+				storeIssue(gitConfig, issue, refactoredIssues);
+				dates.add(issue.getUpdateDate());
+				lastCreation = issue.getCreationDate();
+				windowIssues++;
+			}
+			pageStats.addAll(issues.getPageStats());
+
+			logger.debug("Synced {} SonarQube issues created after {} of configuration {}", windowIssues,
+					createdAfter, gitConfig.getConfigurationId());
+
+			if (!issues.isTruncated()) {
+				break;
+			}
+			// Windows only move on if their issues were created at different times
+			if (lastCreation == null || lastCreation.equals(createdAfter)) {
+				logger.warn("SonarQube returned only a part of the issues created at {} of configuration {}.",
+						createdAfter, gitConfig.getConfigurationId());
+				break;
+			}
+
+			window.setLastTimestamp(lastCreation);
+			cursorRepo.save(window);
+		}
+
+		if (window.getCursorId() != null) {
+			cursorRepo.delete(window);
+		}
+		if (dates.getNewest() != null) {
+			cursor.setLastTimestamp(dates.getNewest());
+			cursorRepo.save(cursor);
+		}
+	}
+
+	/**
+	 * This method reads the issues in all statuses that were updated since the
+	 * newest update of the cursor. The position is only stored if all changes
+	 * were read.
+	 * 
+	 * @param gitConfig
+	 * @param cursor
+	 * @param refactoredIssues
+	 * @param pageStats
+	 *            list the statistics of the read pages are added to
+	 */
+	private void syncChanges(GitConfiguration gitConfig, SyncCursor cursor, RefactoredIssueFilter refactoredIssues,
+			List<SonarPageStats> pageStats) {
+		SonarIssuePageIterator issues = sonarQubeGrabber.streamIssueChanges(gitConfig.getAnalysisServiceProjectKey(),
+				SonarQubeObjectTranslator.SUPPORTED_RULES);
+
+		Instant since = parseDate(cursor.getLastTimestamp());
+		IssueDates dates = new IssueDates(cursor.getLastTimestamp());
+		int changedIssues = 0;
+		boolean reachedKnownIssues = false;
+		while (issues.hasNext()) {
+			SonarIssue issue = issues.next();
+			Instant updateDate = parseDate(issue.getUpdateDate());
+
+			// Changes are sorted by update date, older ones are already known
+			if (updateDate != null && updateDate.isBefore(since)) {
+				reachedKnownIssues = true;
+				break;
+			}
+
+			storeIssue(gitConfig, issue, refactoredIssues);
+			dates.add(issue.getUpdateDate());
+			changedIssues++;
+		}
+		pageStats.addAll(issues.getPageStats());
+
+		logger.debug("Synced {} changed SonarQube issues of configuration {}", changedIssues,
+				gitConfig.getConfigurationId());
+
+		// Changes beyond the limit of SonarQube were not read
+		if (!reachedKnownIssues && issues.isTruncated()) {
+			logger.warn("SonarQube returned only a part of the issues of configuration {}, the sync is repeated.",
+					gitConfig.getConfigurationId());
+			return;
+		}
+
+		cursor.setLastTimestamp(dates.getNewest());
+		cursorRepo.save(cursor);
+	}
+
+	/**
+	 * This method marks an issue as attempted, so that it does not show up as
+	 * actionable again.
+	 * 
+	 * @param gitConfig
+	 * @param issueKey
+	 */
+	public void markAttempted(GitConfiguration gitConfig, String issueKey) {
+		Optional<AnalysisIssue> issue = analysisIssueRepo.getIssue(gitConfig.getConfigurationId(), issueKey);
+		if (issue.isPresent()) {
+			issue.get().setAttempted(true);
+			analysisIssueRepo.save(issue.get());
+		}
+	}
+
+	/**
+	 * This method inserts or updates a local issue.
+	 * 
+	 * @param gitConfig
+	 * @param issue
+	 * @param refactoredIssues
+	 */
+	private void storeIssue(GitConfiguration gitConfig, SonarIssue issue, RefactoredIssueFilter refactoredIssues) {
+		Optional<AnalysisIssue> existingIssue = analysisIssueRepo.getIssue(gitConfig.getConfigurationId(),
+				issue.getKey());
+
+		AnalysisIssue storedIssue;
+		if (existingIssue.isPresent()) {
+			storedIssue = existingIssue.get();
+		} else {
+			storedIssue = new AnalysisIssue();
+			storedIssue.setConfigurationId(gitConfig.getConfigurationId());
+			storedIssue.setIssueKey(issue.getKey());
+			storedIssue.setAttempted(refactoredIssues.contains(issue.getKey()));
+		}
+
+		storedIssue.setRule(issue.getRule());
+		storedIssue.setComponent(issue.getComponent());
+		storedIssue.setProject(issue.getProject());
+		storedIssue.setLine(issue.getLine());
+		storedIssue.setMessage(issue.getMessage());
+		storedIssue.setStatus(issue.getStatus());
+		storedIssue.setCreationDate(issue.getCreationDate());
+		storedIssue.setUpdateDate(issue.getUpdateDate());
+
+		analysisIssueRepo.save(storedIssue);
+	}
+
+	/**
+	 * This method creates a SonarIssue from a local issue.
+	 * 
+	 * @param storedIssue
+	 * @return issue
+	 */
+	private SonarIssue toSonarIssue(AnalysisIssue storedIssue) {
+		SonarIssue issue = new SonarIssue();
+		issue.setKey(storedIssue.getIssueKey());
+		issue.setRule(storedIssue.getRule());
+		issue.setComponent(storedIssue.getComponent());
+		issue.setProject(storedIssue.getProject());
+		issue.setLine(storedIssue.getLine());
+		issue.setMessage(storedIssue.getMessage());
+		issue.setStatus(storedIssue.getStatus());
+		issue.setCreationDate(storedIssue.getCreationDate());
+		issue.setUpdateDate(storedIssue.getUpdateDate());
+		return issue;
+	}
+
+	/**
+	 * This method returns a sync cursor of a configuration.
+	 * 
+	 * @param gitConfig
+	 * @param type
+	 * @return cursor
+	 */
+	private SyncCursor getCursor(GitConfiguration gitConfig, String type) {
+		Optional<SyncCursor> cursor = cursorRepo.getCursor(gitConfig.getConfigurationId(), type);
+		if (cursor.isPresent()) {
+			return cursor.get();
+		}
+		SyncCursor newCursor = new SyncCursor();
+		newCursor.setConfigurationId(gitConfig.getConfigurationId());
+		newCursor.setType(type);
+		return newCursor;
+	}
+
+	/**
+	 * This method parses a date of SonarQube.
+	 * 
+	 * @param date
+	 * @return instant or null
+	 */
+	private static Instant parseDate(String date) {
+		if (date == null) {
+			return null;
+		}
+		return OffsetDateTime.parse(date, SONAR_DATE_FORMAT).toInstant();
+	}
+
+	/**
+	 * Newest update date of the issues read by a sync.
+	 */
+	private static class IssueDates {
+
+		private String newest;
+		private Instant newestDate;
+
+		IssueDates(String newest) {
+			this.newest = newest;
+			this.newestDate = parseDate(newest);
+		}
+
+		void add(String date) {
+			Instant instant = parseDate(date);
+			if (instant != null && (newestDate == null || instant.isAfter(newestDate))) {
+				newestDate = instant;
+				newest = date;
+			}
+		}
+
+		String getNewest() {
+			return newest;
+		}
+	}
+}
@@ -3,7 +3,10 @@ package de.refactoringbot.services.sonarqube;
 import java.io.IOException;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -25,6 +28,12 @@ import de.refactoringbot.services.main.FileService;
 @Service
 public class SonarQubeObjectTranslator {
 
+	/**
+	 * Rules of SonarCloud/SonarQube that the bot can refactor.
+	 */
+	public static final List<String> SUPPORTED_RULES = Arrays.asList("squid:S1161", "squid:ModifiersOrderCheck",
+			"squid:CommentedOutCodeLine", "squid:S1172");
+
 	@Autowired
 	FileService fileController;
 
@@ -39,69 +48,115 @@ public class SonarQubeObjectTranslator {
 		// Create empty list of bot issues
 		List<BotIssue> botIssues = new ArrayList<>();
 
-		// Iterate all SonarCube issues
-		for (SonarIssue issue : issues.getIssues()) {
-			// Create bot issue
-			BotIssue botIssue = new BotIssue();
-
-			// Create filepath
-			String project = issue.getProject();
-			String component = issue.getComponent();
-			String sonarIssuePath = Paths.get(component.substring(project.length() + 1, component.length())).toString();
-
-			// Set all Java-Files and Java-Roots
-			List<String> allJavaFiles = fileController.getAllJavaFiles(gitConfig.getRepoFolder());
-			botIssue.setAllJavaFiles(allJavaFiles);
-			botIssue.setJavaRoots(fileController.findJavaRoots(allJavaFiles));
-
-			// Create full path for sonar issue
-			sonarIssuePath = gitConfig.getSrcFolder().substring(0, gitConfig.getSrcFolder().length() - 3)
-					+ sonarIssuePath;
-
-			// Cut path outside the repository
-			String translatedPath = StringUtils.difference(gitConfig.getRepoFolder(), sonarIssuePath);
-			// Remove leading '/'
-			translatedPath = translatedPath.substring(1);
-
-			botIssue.setFilePath(translatedPath);
-
-			// Fill object
-			botIssue.setLine(issue.getLine());
-			botIssue.setCommentServiceID(issue.getKey());
-
-			// Set creation date to determine the age of the issue
-			botIssue.setCreationDate(issue.getCreationDate());
-
-			// Translate SonarCube rule
-			switch (issue.getRule()) {
-			case "squid:S1161":
-				botIssue.setRefactoringOperation(RefactoringOperations.ADD_OVERRIDE_ANNOTATION);
-				// Add bot issue to list
-				botIssues.add(botIssue);
-				break;
-			case "squid:ModifiersOrderCheck":
-				botIssue.setRefactoringOperation(RefactoringOperations.REORDER_MODIFIER);
-				// Add bot issue to list
-				botIssues.add(botIssue);
-				break;
-			case "squid:CommentedOutCodeLine":
-				botIssue.setRefactoringOperation(RefactoringOperations.REMOVE_COMMENTED_OUT_CODE);
-				botIssues.add(botIssue);
-				break;
-			case "squid:S1172":
-				botIssue.setRefactoringOperation(RefactoringOperations.REMOVE_PARAMETER);
-				botIssue.setRefactorString(getParameterName(issue));
-				botIssues.add(botIssue);
-				break;
-			default:
-				botIssue.setRefactoringOperation(RefactoringOperations.UNKNOWN);
-				break;
-			}
+		Iterator<BotIssue> translatedIssues = translateSonarIssues(issues.getIssues().iterator(), gitConfig);
+		while (translatedIssues.hasNext()) {
+			botIssues.add(translatedIssues.next());
 		}
 
 		return botIssues;
 	}
 
+	/**
+	 * This method translates SonarCubeIssues to BotIssues while they are
+	 * iterated. The Java-Files and Java-Roots of the repository are only collected
+	 * once and shared by all issues. Issues of unsupported rules are skipped.
+	 * 
+	 * @param issues
+	 * @param gitConfig
+	 * @return botIssues
+	 * @throws IOException
+	 */
+	public Iterator<BotIssue> translateSonarIssues(Iterator<SonarIssue> issues, GitConfiguration gitConfig)
+			throws IOException {
+		// Collect all Java-Files and Java-Roots
+		List<String> allJavaFiles = fileController.getAllJavaFiles(gitConfig.getRepoFolder());
+		List<String> javaRoots = fileController.findJavaRoots(allJavaFiles);
+
+		return new Iterator<BotIssue>() {
+
+			private BotIssue nextIssue;
+
+			@Override
+			public boolean hasNext() {
+				while (nextIssue == null && issues.hasNext()) {
+					nextIssue = translateSonarIssue(issues.next(), gitConfig, allJavaFiles, javaRoots);
+				}
+				return nextIssue != null;
+			}
+
+			@Override
+			public BotIssue next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				BotIssue botIssue = nextIssue;
+				nextIssue = null;
+				return botIssue;
+			}
+		};
+	}
+
+	/**
+	 * This method translates a SonarCubeIssue to a BotIssue.
+	 * 
+	 * @param issue
+	 * @param gitConfig
+	 * @param allJavaFiles
+	 * @param javaRoots
+	 * @return botIssue or null if the rule is not supported
+	 */
+	private BotIssue translateSonarIssue(SonarIssue issue, GitConfiguration gitConfig, List<String> allJavaFiles,
+			List<String> javaRoots) {
+		// Create bot issue
+		BotIssue botIssue = new BotIssue();
+
+		// Create filepath
+		String project = issue.getProject();
+		String component = issue.getComponent();
+		String sonarIssuePath = Paths.get(component.substring(project.length() + 1, component.length())).toString();
+
+		// Set all Java-Files and Java-Roots
+		botIssue.setAllJavaFiles(allJavaFiles);
+		botIssue.setJavaRoots(javaRoots);
+
+		// Create full path for sonar issue
+		sonarIssuePath = gitConfig.getSrcFolder().substring(0, gitConfig.getSrcFolder().length() - 3)
+				+ sonarIssuePath;
+
+		// Cut path outside the repository
+		String translatedPath = StringUtils.difference(gitConfig.getRepoFolder(), sonarIssuePath);
+		// Remove leading '/'
+		translatedPath = translatedPath.substring(1);
+
+		botIssue.setFilePath(translatedPath);
+
+		// Fill object
+		botIssue.setLine(issue.getLine());
+		botIssue.setCommentServiceID(issue.getKey());
+
+		// Set creation date to determine the age of the issue
+		botIssue.setCreationDate(issue.getCreationDate());
+
+		// Translate SonarCube rule
+		switch (issue.getRule()) {
+		case "squid:S1161":
+			botIssue.setRefactoringOperation(RefactoringOperations.ADD_OVERRIDE_ANNOTATION);
+			return botIssue;
+		case "squid:ModifiersOrderCheck":
+			botIssue.setRefactoringOperation(RefactoringOperations.REORDER_MODIFIER);
+			return botIssue;
+		case "squid:CommentedOutCodeLine":
+			botIssue.setRefactoringOperation(RefactoringOperations.REMOVE_COMMENTED_OUT_CODE);
+			return botIssue;
+		case "squid:S1172":
+			botIssue.setRefactoringOperation(RefactoringOperations.REMOVE_PARAMETER);
+			botIssue.setRefactorString(getParameterName(issue));
+			return botIssue;
+		default:
+			return null;
+		}
+	}
+
 	/**
 	 * This method scans the message of a "RemoveParameter" issue of
 	 * SonarCloud/SonarQube and returns the parameter name of the unused parameter.
@@ -110,7 +165,17 @@ public class SonarQubeObjectTranslator {
 	 * @return parameterName
 	 */
 	public String getParameterName(SonarIssue issue) {
-		String message = issue.getMessage();
+		return getParameterName(issue.getMessage());
+	}
+
+	/**
+	 * This method scans the message of a "RemoveParameter" issue and returns the
+	 * parameter name of the unused parameter.
+	 * 
+	 * @param message
+	 * @return parameterName
+	 */
+	public String getParameterName(String message) {
 		String[] splitMessage = message.split(" ");
 		String paramPartOfMessage = "";
 		for (int i = 0; i < splitMessage.length; i++) {
@@ -0,0 +1,62 @@
+package de.refactoringbot.api.analysisreport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import de.refactoringbot.model.analysisreport.ReportIssue;
+
+public class ReportIssueIteratorTest {
+
+	private final ObjectMapper mapper = new ObjectMapper();
+
+	@Test
+	public void testSarifResultsOfAllRuns() throws IOException {
+		// arrange
+		String sarif = "{\"version\":\"2.1.0\",\"runs\":[{\"tool\":{\"driver\":{\"rules\":[{\"id\":\"java:S1161\"}]}},"
+				+ "\"results\":[{\"ruleId\":\"java:S1161\",\"message\":{\"text\":\"Add @Override\"},"
+				+ "\"locations\":[{\"physicalLocation\":{\"artifactLocation\":{\"uri\":\"src/A.java\"},"
+				+ "\"region\":{\"startLine\":4}}}],\"partialFingerprints\":{\"primary\":\"fp1\"}}]},"
+				+ "{\"results\":[{\"ruleId\":\"java:S1172\",\"guid\":\"g2\",\"locations\":[{\"physicalLocation\":"
+				+ "{\"artifactLocation\":{\"uri\":\"src/B.java\"}}}]}]}]}";
+
+		// act
+		List<ReportIssue> issues = readAll(sarif);
+
+		// assert
+		assertThat(issues).extracting("key").containsExactly("fp1", "g2");
+		assertThat(issues.get(0).getFilePath()).isEqualTo("src/A.java");
+		assertThat(issues.get(0).getLine()).isEqualTo(4);
+		assertThat(issues.get(1).getLine()).isNull();
+	}
+
+	@Test
+	public void testSonarQubeExport() throws IOException {
+		// arrange
+		String export = "{\"total\":1,\"issues\":[{\"key\":\"K1\",\"rule\":\"squid:S1172\","
+				+ "\"component\":\"project:src/main/java/A.java\",\"line\":12,\"flows\":[],"
+				+ "\"message\":\"Remove this unused method parameter \\\"a\\\".\"}],\"components\":[]}";
+
+		// act
+		List<ReportIssue> issues = readAll(export);
+
+		// assert
+		assertThat(issues).extracting("key").containsExactly("K1");
+		assertThat(issues.get(0).getFilePath()).isEqualTo("src/main/java/A.java");
+		assertThat(issues.get(0).getRule()).isEqualTo("squid:S1172");
+	}
+
+	private List<ReportIssue> readAll(String report) throws IOException {
+		List<ReportIssue> issues = new ArrayList<>();
+		try (ReportIssueIterator iterator = new ReportIssueIterator(mapper, mapper.getFactory().createParser(report))) {
+			iterator.forEachRemaining(issues::add);
+		}
+		return issues;
+	}
+}
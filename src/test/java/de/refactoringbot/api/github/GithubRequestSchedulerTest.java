@@ -0,0 +1,146 @@
+package de.refactoringbot.api.github;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+import java.net.URI;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.ExpectedCount;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import de.refactoringbot.configuration.BotConfiguration;
+
+public class GithubRequestSchedulerTest {
+
+	private static final String PULLS_URL = "https://api.github.com/repos/owner/repo/pulls?access_token=token";
+	private static final String GRAPHQL_URL = "https://api.github.com/graphql";
+	private static final String ENTERPRISE_GRAPHQL_URL = "https://github.example.com/api/graphql";
+
+	private GithubRequestScheduler scheduler;
+	private RestTemplate rest;
+	private MockRestServiceServer server;
+
+	@Before
+	public void setUp() {
+		scheduler = new GithubRequestScheduler();
+		scheduler.botConfig = new BotConfiguration();
+		rest = new RestTemplate();
+		server = MockRestServiceServer.bindTo(rest).build();
+		rest.getInterceptors().add(scheduler);
+	}
+
+	@Test
+	public void testRetryAfterServerError() {
+		// arrange
+		server.expect(requestTo(PULLS_URL)).andRespond(withStatus(HttpStatus.SERVICE_UNAVAILABLE));
+		server.expect(requestTo(PULLS_URL)).andRespond(withSuccess("[]", MediaType.APPLICATION_JSON));
+
+		// act
+		String body = rest.getForObject(PULLS_URL, String.class);
+
+		// assert
+		assertThat(body).isEqualTo("[]");
+		server.verify();
+	}
+
+	@Test(expected = HttpClientErrorException.class)
+	public void testNoRetryOnMissingPermission() {
+		// arrange
+		HttpHeaders headers = new HttpHeaders();
+		headers.set("X-RateLimit-Remaining", "4000");
+		server.expect(ExpectedCount.once(), requestTo(PULLS_URL))
+				.andRespond(withStatus(HttpStatus.FORBIDDEN).headers(headers));
+
+		// act
+		rest.getForObject(PULLS_URL, String.class);
+	}
+
+	@Test(expected = HttpServerErrorException.class)
+	public void testNoRetryOfPostAfterServerError() {
+		// arrange
+		server.expect(ExpectedCount.once(), requestTo(PULLS_URL)).andExpect(method(HttpMethod.POST))
+				.andRespond(withStatus(HttpStatus.BAD_GATEWAY));
+
+		// act
+		rest.postForObject(PULLS_URL, "{}", String.class);
+	}
+
+	@Test(expected = ResourceAccessException.class)
+	public void testReadFailsInsteadOfUsingWriteReserve() {
+		// arrange
+		HttpHeaders headers = new HttpHeaders();
+		headers.set("X-RateLimit-Limit", "5000");
+		headers.set("X-RateLimit-Remaining", "50");
+		headers.set("X-RateLimit-Reset", String.valueOf(System.currentTimeMillis() / 1000 + 3600));
+		server.expect(ExpectedCount.once(), requestTo(PULLS_URL))
+				.andRespond(withSuccess("[]", MediaType.APPLICATION_JSON).headers(headers));
+		rest.getForObject(PULLS_URL, String.class);
+
+		// act
+		rest.getForObject(PULLS_URL, String.class);
+	}
+
+	@Test
+	public void testRetryOfGraphQLQueryAfterServerError() {
+		// arrange
+		server.expect(requestTo(GRAPHQL_URL)).andExpect(method(HttpMethod.POST))
+				.andRespond(withStatus(HttpStatus.BAD_GATEWAY));
+		server.expect(requestTo(GRAPHQL_URL)).andRespond(withSuccess("{}", MediaType.APPLICATION_JSON));
+
+		// act
+		String body = rest.postForObject(GRAPHQL_URL, "{}", String.class);
+
+		// assert
+		assertThat(body).isEqualTo("{}");
+		server.verify();
+	}
+
+	@Test
+	public void testGraphQLLimitDoesNotBlockRestReads() {
+		// arrange
+		HttpHeaders headers = new HttpHeaders();
+		headers.set("X-RateLimit-Limit", "5000");
+		headers.set("X-RateLimit-Remaining", "0");
+		headers.set("X-RateLimit-Reset", String.valueOf(System.currentTimeMillis() / 1000 + 3600));
+		headers.set("X-RateLimit-Resource", "graphql");
+		server.expect(requestTo(GRAPHQL_URL)).andRespond(withSuccess("{}", MediaType.APPLICATION_JSON).headers(headers));
+		server.expect(requestTo(PULLS_URL)).andRespond(withSuccess("[]", MediaType.APPLICATION_JSON));
+		rest.postForObject(GRAPHQL_URL, "{}", String.class);
+
+		// act
+		String body = rest.getForObject(PULLS_URL, String.class);
+
+		// assert
+		assertThat(body).isEqualTo("[]");
+		server.verify();
+	}
+
+	@Test
+	public void testEnterpriseHostIsScheduled() throws Exception {
+		// arrange
+		scheduler.addApiHost(new URI("https://github.example.com/api/v3/repos/owner/repo"));
+		server.expect(requestTo(ENTERPRISE_GRAPHQL_URL)).andRespond(withStatus(HttpStatus.SERVICE_UNAVAILABLE));
+		server.expect(requestTo(ENTERPRISE_GRAPHQL_URL))
+				.andRespond(withSuccess("{}", MediaType.APPLICATION_JSON));
+
+		// act
+		String body = rest.postForObject(ENTERPRISE_GRAPHQL_URL, "{}", String.class);
+
+		// assert
+		assertThat(body).isEqualTo("{}");
+		server.verify();
+	}
+}
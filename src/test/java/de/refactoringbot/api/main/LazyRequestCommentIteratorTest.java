@@ -0,0 +1,57 @@
+package de.refactoringbot.api.main;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.Test;
+
+import de.refactoringbot.model.output.botpullrequest.BotPullRequest;
+import de.refactoringbot.model.output.botpullrequestcomment.BotPullRequestComment;
+import de.refactoringbot.model.output.botpullrequestcomment.RequestComment;
+
+public class LazyRequestCommentIteratorTest {
+
+	@Test
+	public void testCommentsAreLoadedOnDemand() {
+		// arrange
+		List<BotPullRequest> requests = new ArrayList<>();
+		for (int i = 1; i <= 10; i++) {
+			BotPullRequest request = new BotPullRequest();
+			request.setRequestNumber(i);
+			requests.add(request);
+		}
+		List<Integer> loadedRequests = new ArrayList<>();
+		LazyRequestCommentIterator iterator = new LazyRequestCommentIterator(requests, request -> {
+			loadedRequests.add(request.getRequestNumber());
+			BotPullRequestComment comment = new BotPullRequestComment();
+			comment.setCommentID(request.getRequestNumber());
+			return CompletableFuture.completedFuture(Collections.singletonList(comment));
+		}, 2);
+
+		// act
+		RequestComment first = iterator.next();
+		RequestComment second = iterator.next();
+
+		// assert
+		assertThat(first.getRequest().getRequestNumber()).isEqualTo(1);
+		assertThat(second.getComment().getCommentID()).isEqualTo(2);
+		assertThat(loadedRequests).containsExactly(1, 2, 3);
+	}
+
+	@Test
+	public void testRequestsWithoutComments() {
+		// arrange
+		List<BotPullRequest> requests = new ArrayList<>();
+		requests.add(new BotPullRequest());
+		requests.add(new BotPullRequest());
+		LazyRequestCommentIterator iterator = new LazyRequestCommentIterator(requests,
+				request -> CompletableFuture.completedFuture(Collections.emptyList()), 1);
+
+		// act + assert
+		assertThat(iterator.hasNext()).isFalse();
+	}
+}
@@ -0,0 +1,112 @@
+package de.refactoringbot.api.sonarqube;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+
+import de.refactoringbot.model.sonarqube.SonarIssue;
+import de.refactoringbot.model.sonarqube.SonarQubeIssues;
+
+public class SonarIssuePageIteratorTest {
+
+	private static final int PAGE_COUNT = 5;
+
+	private SonarQubeDataGrabber grabber;
+	private int total = PAGE_COUNT;
+	private ExecutorService executor;
+
+	@Before
+	public void setUp() throws Exception {
+		grabber = Mockito.mock(SonarQubeDataGrabber.class);
+		Mockito.when(grabber.getIssuesPage(ArgumentMatchers.anyString(), ArgumentMatchers.anyList(),
+				ArgumentMatchers.anyInt(), ArgumentMatchers.anyBoolean(), ArgumentMatchers.any())).thenAnswer(invocation -> {
+					int page = invocation.getArgument(2);
+					SonarIssue issue = new SonarIssue();
+					issue.setKey("issue" + page);
+					SonarQubeIssues issues = new SonarQubeIssues();
+					issues.setP(page);
+					issues.setTotal(total);
+					issues.setIssues(Collections.singletonList(issue));
+					issues.setRequestDuration(10);
+					return issues;
+				});
+		Mockito.when(grabber.getPageCount(ArgumentMatchers.anyString(), ArgumentMatchers.any()))
+				.thenReturn(PAGE_COUNT);
+		executor = Mockito.spy(Executors.newFixedThreadPool(2));
+	}
+
+	@After
+	public void tearDown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	public void testAllPagesAreReadInOrder() {
+		// arrange
+		SonarIssuePageIterator iterator = new SonarIssuePageIterator(grabber, executor, 2, "project",
+				Collections.singletonList("rule"), false, null);
+
+		// act
+		List<String> keys = new ArrayList<>();
+		iterator.forEachRemaining(issue -> keys.add(issue.getKey()));
+
+		// assert
+		assertThat(keys).containsExactly("issue1", "issue2", "issue3", "issue4", "issue5");
+	}
+
+	@SuppressWarnings("unchecked")
+	@Test
+	public void testPrefetchIsBounded() {
+		// arrange
+		SonarIssuePageIterator iterator = new SonarIssuePageIterator(grabber, executor, 2, "project",
+				Collections.singletonList("rule"), true, null);
+
+		// act
+		SonarIssue first = iterator.next();
+
+		// assert
+		assertThat(first.getKey()).isEqualTo("issue1");
+		Mockito.verify(executor, Mockito.times(2)).submit(ArgumentMatchers.any(Callable.class));
+	}
+
+	@Test
+	public void testTruncatedSearch() {
+		// arrange
+		total = SonarQubeDataGrabber.MAX_RESULTS + 1;
+		SonarIssuePageIterator iterator = new SonarIssuePageIterator(grabber, executor, 2, "project",
+				Collections.singletonList("rule"), false, null);
+
+		// act
+		iterator.next();
+
+		// assert
+		assertThat(iterator.isTruncated()).isTrue();
+	}
+
+	@Test
+	public void testPageStatsOfReadPages() {
+		// arrange
+		SonarIssuePageIterator iterator = new SonarIssuePageIterator(grabber, executor, 2, "project",
+				Collections.singletonList("rule"), false, null);
+
+		// act
+		iterator.next();
+		iterator.next();
+
+		// assert
+		assertThat(iterator.getPageStats()).extracting("page", "issues", "requestDuration")
+				.containsExactly(tuple(1, 1, 10L), tuple(2, 1, 10L));
+	}
+}
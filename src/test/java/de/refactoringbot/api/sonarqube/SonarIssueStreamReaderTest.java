@@ -0,0 +1,38 @@
+package de.refactoringbot.api.sonarqube;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+
+import org.junit.Test;
+
+import de.refactoringbot.model.sonarqube.SonarQubeIssues;
+
+public class SonarIssueStreamReaderTest {
+
+	private static final String PAGE = "{\"total\":3,\"p\":1,\"ps\":500,"
+			+ "\"paging\":{\"pageIndex\":1,\"pageSize\":500,\"total\":3},\"issues\":["
+			+ "{\"key\":\"A\",\"rule\":\"squid:S1161\",\"component\":\"p:src/A.java\",\"project\":\"p\",\"line\":3,"
+			+ "\"flows\":[{\"locations\":[{\"textRange\":{\"startLine\":1}}]}],\"creationDate\":\"2018-01-01\"},"
+			+ "{\"key\":\"B\",\"rule\":\"squid:S00100\",\"flows\":[{\"locations\":[]}],\"line\":7},"
+			+ "{\"key\":\"C\",\"rule\":\"squid:S1161\",\"component\":\"p:src/C.java\",\"project\":\"p\"}],"
+			+ "\"components\":[{\"key\":\"p\"}]}";
+
+	@Test
+	public void testOnlyIssuesOfGivenRulesAreRead() throws IOException {
+		// act
+		SonarQubeIssues page = SonarIssueStreamReader.readPage(
+				new ByteArrayInputStream(PAGE.getBytes(StandardCharsets.UTF_8)), Collections.singleton("squid:S1161"));
+
+		// assert
+		assertThat(page.getTotal()).isEqualTo(3);
+		assertThat(page.getP()).isEqualTo(1);
+		assertThat(page.getIssues()).extracting("key").containsExactly("A", "C");
+		assertThat(page.getIssues().get(0).getLine()).isEqualTo(3);
+		assertThat(page.getIssues().get(0).getFlows()).isNull();
+		assertThat(page.getIssues().get(0).getCreationDate()).isEqualTo("2018-01-01");
+	}
+}
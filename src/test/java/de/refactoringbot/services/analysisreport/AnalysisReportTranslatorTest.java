@@ -0,0 +1,62 @@
+package de.refactoringbot.services.analysisreport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mockito;
+
+import de.refactoringbot.model.configuration.GitConfiguration;
+
+public class AnalysisReportTranslatorTest {
+
+	@Rule
+	public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private AnalysisReportTranslator translator = new AnalysisReportTranslator();
+	private GitConfiguration gitConfig;
+	private File repoFolder;
+
+	@Before
+	public void setUp() throws Exception {
+		repoFolder = temporaryFolder.newFolder("1");
+		FileUtils.writeStringToFile(new File(repoFolder, "src/main/java/Test.java"), "class Test {}",
+				StandardCharsets.UTF_8);
+		gitConfig = Mockito.mock(GitConfiguration.class);
+		Mockito.when(gitConfig.getRepoFolder()).thenReturn(repoFolder.getAbsolutePath());
+	}
+
+	@Test
+	public void testPathOfOtherMachine() {
+		// act
+		String path = translator.getRepositoryPath("/home/runner/work/project/src/main/java/Test.java", gitConfig);
+
+		// assert
+		assertThat(path).isEqualTo("src/main/java/Test.java");
+	}
+
+	@Test
+	public void testFileUriOfOtherMachine() {
+		// act
+		String path = translator.getRepositoryPath("file:///builds/project/src/main/java/Test.java", gitConfig);
+
+		// assert
+		assertThat(path).isEqualTo("src/main/java/Test.java");
+	}
+
+	@Test
+	public void testPathInsideRepository() {
+		// act
+		String path = translator.getRepositoryPath(repoFolder.getAbsolutePath() + "/src/main/java/Test.java",
+				gitConfig);
+
+		// assert
+		assertThat(path).isEqualTo("src/main/java/Test.java");
+	}
+}
@@ -0,0 +1,111 @@
+package de.refactoringbot.services.localanalyzer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mockito;
+
+import de.refactoringbot.model.botissue.BotIssue;
+import de.refactoringbot.model.configuration.GitConfiguration;
+import de.refactoringbot.refactoring.RefactoringOperations;
+import de.refactoringbot.services.main.FileService;
+import de.refactoringbot.services.main.GitService;
+import de.refactoringbot.services.main.WorkspaceLockService;
+
+public class LocalAnalyzerTest {
+
+	@Rule
+	public final TemporaryFolder folder = new TemporaryFolder();
+
+	private LocalAnalyzer analyzer;
+	private GitConfiguration gitConfig;
+
+	@Before
+	public void setUp() throws IOException {
+		analyzer = new LocalAnalyzer();
+		analyzer.fileController = new FileService();
+		analyzer.gitService = Mockito.mock(GitService.class);
+		analyzer.lockService = new WorkspaceLockService();
+		gitConfig = Mockito.mock(GitConfiguration.class);
+		Mockito.when(gitConfig.getConfigurationId()).thenReturn(1L);
+		Mockito.when(gitConfig.getRepoFolder()).thenReturn(folder.getRoot().getCanonicalPath());
+
+		writeFile("Base.java", "package p;\npublic class Base {\n\tpublic void run(int a) {\n\t\tSystem.out.println(a);\n\t}\n}\n");
+		writeFile("Child.java",
+				"package p;\npublic class Child extends Base {\n\tstatic public int count;\n"
+						+ "\tpublic void run(int a) {\n\t\t// System.out.println(a);\n\t}\n"
+						+ "\tpublic void log(String message, int level) {\n\t\tSystem.out.println(message);\n\t}\n}\n");
+	}
+
+	@Test
+	public void testIssuesOfSupportedRules() throws Exception {
+		// act
+		List<BotIssue> issues = analyze();
+
+		// assert
+		assertThat(issues).extracting("refactoringOperation", "filePath", "line").containsExactlyInAnyOrder(
+				tuple(RefactoringOperations.REORDER_MODIFIER, "src/p/Child.java", 3),
+				tuple(RefactoringOperations.ADD_OVERRIDE_ANNOTATION, "src/p/Child.java",
+						4),
+				tuple(RefactoringOperations.REMOVE_COMMENTED_OUT_CODE,
+						"src/p/Child.java", 5),
+				tuple(RefactoringOperations.REMOVE_PARAMETER, "src/p/Child.java", 7));
+		Mockito.verify(analyzer.gitService).checkoutUpstreamBranch(gitConfig, "master");
+		assertThat(issues.get(0).getJavaRoots()).containsExactly(new File(folder.getRoot(), "src").getCanonicalPath());
+	}
+
+	@Test
+	public void testUnusedParameterOfUnknownSupertypeIsNoIssue() throws Exception {
+		// arrange
+		writeFile("Sorter.java",
+				"package p;\nimport java.util.Comparator;\npublic class Sorter<T> implements Comparator<T> {\n"
+						+ "\tpublic int compare(T first, T second) {\n\t\treturn 0;\n\t}\n}\n");
+		writeFile("Listener.java", "package p;\npublic class Listener extends Sorter<String> {\n"
+				+ "\tpublic void actionPerformed(Object event) {\n\t}\n}\n");
+
+		// act
+		List<BotIssue> issues = analyze();
+
+		// assert
+		assertThat(issues).extracting("filePath").doesNotContain("src/p/Sorter.java", "src/p/Listener.java");
+	}
+
+	@Test
+	public void testOnlyChangedFilesAreAnalyzedAgain() throws Exception {
+		// arrange
+		analyze();
+		File base = new File(folder.getRoot(), "src/p/Base.java");
+		writeFile("Base.java", "package p;\npublic class Base {\n}\n");
+		base.setLastModified(base.lastModified() + 2000);
+
+		// act
+		List<BotIssue> issues = analyze();
+
+		// assert
+		assertThat(issues).extracting("refactoringOperation").doesNotContain(
+				RefactoringOperations.ADD_OVERRIDE_ANNOTATION);
+	}
+
+	private List<BotIssue> analyze() throws Exception {
+		List<BotIssue> issues = new ArrayList<>();
+		analyzer.analyze(gitConfig).forEachRemaining(issues::add);
+		return issues;
+	}
+
+	private void writeFile(String name, String content) throws IOException {
+		File file = new File(folder.getRoot(), "src/p/" + name);
+		file.getParentFile().mkdirs();
+		Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+	}
+}
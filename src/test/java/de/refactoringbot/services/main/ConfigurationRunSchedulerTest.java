@@ -0,0 +1,92 @@
+package de.refactoringbot.services.main;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ConfigurationRunSchedulerTest {
+
+	private ConfigurationRunScheduler scheduler;
+	private ExecutorService executor;
+
+	@Before
+	public void setUp() {
+		executor = Executors.newSingleThreadExecutor();
+		scheduler = new ConfigurationRunScheduler();
+		scheduler.jobExecutor = executor;
+		scheduler.lockService = new WorkspaceLockService();
+	}
+
+	@After
+	public void tearDown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	public void testConfigurationsTakeTurns() throws Exception {
+		// arrange
+		List<String> executedRuns = new CopyOnWriteArrayList<>();
+		CountDownLatch finishedRuns = new CountDownLatch(6);
+		CountDownLatch workerBlocked = new CountDownLatch(1);
+		executor.execute(() -> await(workerBlocked));
+
+		// act
+		scheduleRun(1L, "1a", executedRuns, finishedRuns);
+		scheduleRun(1L, "1b", executedRuns, finishedRuns);
+		scheduleRun(1L, "1c", executedRuns, finishedRuns);
+		scheduleRun(2L, "2a", executedRuns, finishedRuns);
+		scheduleRun(2L, "2b", executedRuns, finishedRuns);
+		scheduleRun(3L, "3a", executedRuns, finishedRuns);
+		workerBlocked.countDown();
+
+		// assert
+		assertThat(finishedRuns.await(5, TimeUnit.SECONDS)).isTrue();
+		assertThat(executedRuns).containsExactly("1a", "2a", "3a", "1b", "2b", "1c");
+		assertThat(scheduler.getQueuedRuns(1L)).isZero();
+	}
+
+	@Test
+	public void testRunsOfConfigurationHoldWorkspaceLock() throws Exception {
+		// arrange
+		List<Boolean> lockStates = new CopyOnWriteArrayList<>();
+		CountDownLatch finishedRuns = new CountDownLatch(1);
+
+		// act
+		scheduler.schedule(1L, () -> lockStates.add(scheduler.lockService.getLock(1L).isHeldByCurrentThread()));
+		scheduler.schedule(1L, () -> {
+			throw new IllegalStateException("failed run");
+		});
+		scheduler.schedule(1L, () -> {
+			lockStates.add(scheduler.lockService.getLock(1L).isHeldByCurrentThread());
+			finishedRuns.countDown();
+		});
+
+		// assert
+		assertThat(finishedRuns.await(5, TimeUnit.SECONDS)).isTrue();
+		assertThat(lockStates).containsExactly(true, true);
+	}
+
+	private void scheduleRun(Long configId, String name, List<String> executedRuns, CountDownLatch finishedRuns) {
+		scheduler.schedule(configId, () -> {
+			executedRuns.add(name);
+			finishedRuns.countDown();
+		});
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,57 @@
+package de.refactoringbot.services.main;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import de.refactoringbot.configuration.BotConfiguration;
+import de.refactoringbot.model.configuration.GitConfiguration;
+
+public class ForkBranchCacheTest {
+
+	private ForkBranchCache branchCache;
+	private GitConfiguration gitConfig;
+
+	@Before
+	public void setUp() {
+		branchCache = new ForkBranchCache();
+		branchCache.botConfig = new BotConfiguration();
+		gitConfig = Mockito.mock(GitConfiguration.class);
+		Mockito.when(gitConfig.getConfigurationId()).thenReturn(1L);
+	}
+
+	@Test
+	public void testUnknownConfigurationIsStale() {
+		// act + assert
+		assertThat(branchCache.branchExists(gitConfig, "master")).isNull();
+	}
+
+	@Test
+	public void testBranchExistence() {
+		// arrange
+		branchCache.update(gitConfig, Arrays.asList("master", "github_Refactoring_1"));
+
+		// act
+		branchCache.addBranch(gitConfig, "sonarCube_Refactoring_2");
+		branchCache.removeBranch(gitConfig, "github_Refactoring_1");
+
+		// assert
+		assertThat(branchCache.branchExists(gitConfig, "master")).isTrue();
+		assertThat(branchCache.branchExists(gitConfig, "sonarCube_Refactoring_2")).isTrue();
+		assertThat(branchCache.branchExists(gitConfig, "github_Refactoring_1")).isFalse();
+	}
+
+	@Test
+	public void testExpiredBranchesAreStale() {
+		// arrange
+		branchCache.botConfig.setBranchCacheMaxAge(-1);
+		branchCache.update(gitConfig, Arrays.asList("master"));
+
+		// act + assert
+		assertThat(branchCache.branchExists(gitConfig, "master")).isNull();
+	}
+}
@@ -0,0 +1,143 @@
+package de.refactoringbot.services.main;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.io.FileUtils;
+import org.eclipse.jgit.api.Git;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mockito;
+
+import de.refactoringbot.configuration.BotConfiguration;
+import de.refactoringbot.model.configuration.GitConfiguration;
+import de.refactoringbot.model.workspace.WorkspaceSnapshot;
+
+public class GitServiceTest {
+
+	@Rule
+	public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private GitService gitService;
+	private GitConfiguration gitConfig;
+
+	@Before
+	public void setUp() throws Exception {
+		// Create upstream repository with one commit and a fork of it
+		File upstream = temporaryFolder.newFolder("upstream");
+		try (Git git = Git.init().setDirectory(upstream).call()) {
+			FileUtils.writeStringToFile(new File(upstream, "Test.java"), "class Test {}", StandardCharsets.UTF_8);
+			git.add().addFilepattern(".").call();
+			git.commit().setMessage("Initial commit").setCommitter("bot", "bot@test").call();
+		}
+		File fork = temporaryFolder.newFolder("fork.git");
+		Git.cloneRepository().setURI(upstream.toURI().toString()).setDirectory(fork).setBare(true).call().close();
+
+		BotConfiguration botConfig = new BotConfiguration();
+		botConfig.setBotRefactoringDirectory(temporaryFolder.newFolder("workspaces").getAbsolutePath() + "/");
+		botConfig.setSharedObjectStore(true);
+
+		GitMirrorService mirrorService = new GitMirrorService();
+		mirrorService.botConfig = botConfig;
+		gitService = new GitService();
+		gitService.botConfig = botConfig;
+		gitService.mirrorService = mirrorService;
+		gitService.branchCache = new ForkBranchCache();
+
+		gitConfig = Mockito.mock(GitConfiguration.class);
+		Mockito.when(gitConfig.getConfigurationId()).thenReturn(1L);
+		Mockito.when(gitConfig.getRepoGitLink()).thenReturn(upstream.toURI().toString());
+		Mockito.when(gitConfig.getForkGitLink()).thenReturn(fork.toURI().toString());
+		Mockito.when(gitConfig.getBotName()).thenReturn("bot");
+		Mockito.when(gitConfig.getBotEmail()).thenReturn("bot@test");
+	}
+
+	@Test
+	public void testCloneWithSharedObjects() throws Exception {
+		// act
+		gitService.initLocalWorkspace(gitConfig);
+
+		// assert
+		File workspace = new File(gitService.botConfig.getBotRefactoringDirectory() + "1");
+		assertThat(new File(workspace, "Test.java")).exists();
+		assertThat(new File(workspace, ".git/objects/info/alternates")).exists();
+		try (Git git = Git.open(workspace)) {
+			assertThat(git.getRepository().getBranch()).isEqualTo("master");
+			assertThat(git.status().call().isClean()).isTrue();
+		}
+	}
+
+	@Test
+	public void testGarbageCollectionKeepsSharedObjects() throws Exception {
+		// arrange
+		gitService.initLocalWorkspace(gitConfig);
+		File workspace = new File(gitService.botConfig.getBotRefactoringDirectory() + "1");
+
+		// act
+		gitService.collectGarbage(gitConfig, true);
+
+		// assert
+		File[] packs = new File(workspace, ".git/objects/pack").listFiles((dir, name) -> name.endsWith(".pack"));
+		assertThat(packs == null ? new File[0] : packs).isEmpty();
+		assertThat(new File(workspace, ".git/packed-refs")).exists();
+		try (Git git = Git.open(workspace)) {
+			assertThat(git.status().call().isClean()).isTrue();
+		}
+	}
+
+	@Test
+	public void testRollbackWorkspace() throws Exception {
+		// arrange
+		gitService.initLocalWorkspace(gitConfig);
+		gitService.fetchRemote(gitConfig);
+		File workspace = new File(gitService.botConfig.getBotRefactoringDirectory() + "1");
+		FileUtils.writeStringToFile(new File(workspace, "target/Test.class"), "binary", StandardCharsets.UTF_8);
+		WorkspaceSnapshot snapshot = gitService.createSnapshot(gitConfig);
+		gitService.createBranch(gitConfig, "master", "sonarCube_Refactoring_1", "upstream");
+		FileUtils.writeStringToFile(new File(workspace, "Test.java"), "class Changed {}", StandardCharsets.UTF_8);
+		FileUtils.writeStringToFile(new File(workspace, "src/New.java"), "class New {}", StandardCharsets.UTF_8);
+
+		// act
+		gitService.rollbackWorkspace(gitConfig, snapshot);
+
+		// assert
+		assertThat(FileUtils.readFileToString(new File(workspace, "Test.java"), StandardCharsets.UTF_8))
+				.isEqualTo("class Test {}");
+		assertThat(new File(workspace, "src")).doesNotExist();
+		assertThat(new File(workspace, "target/Test.class")).exists();
+		try (Git git = Git.open(workspace)) {
+			assertThat(git.getRepository().getBranch()).isEqualTo("master");
+			assertThat(git.status().call().getUntracked()).containsExactly("target/Test.class");
+			assertThat(git.getRepository().findRef("sonarCube_Refactoring_1")).isNull();
+		}
+	}
+
+	@Test
+	public void testResetBranchAfterFailedPush() throws Exception {
+		// arrange
+		gitService.initLocalWorkspace(gitConfig);
+		gitService.fetchRemote(gitConfig);
+		File workspace = new File(gitService.botConfig.getBotRefactoringDirectory() + "1");
+		String baseId = gitService.getHeadCommit(gitConfig);
+		gitService.createBranch(gitConfig, "master", "sonarCube_Refactoring_1", "upstream");
+		FileUtils.writeStringToFile(new File(workspace, "Test.java"), "class Changed {}", StandardCharsets.UTF_8);
+		String branchName = gitService.commitChanges(gitConfig, "Refactoring");
+		String commitId = gitService.getHeadCommit(gitConfig);
+
+		// act
+		gitService.resetBranch(gitConfig, branchName, commitId);
+
+		// assert
+		assertThat(gitService.getHeadCommit(gitConfig)).isEqualTo(baseId);
+		assertThat(FileUtils.readFileToString(new File(workspace, "Test.java"), StandardCharsets.UTF_8))
+				.isEqualTo("class Test {}");
+		try (Git git = Git.open(workspace)) {
+			assertThat(git.getRepository().getBranch()).isEqualTo("sonarCube_Refactoring_1");
+			assertThat(git.status().call().isClean()).isTrue();
+		}
+	}
+}
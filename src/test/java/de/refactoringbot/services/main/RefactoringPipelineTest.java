@@ -0,0 +1,127 @@
+package de.refactoringbot.services.main;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.refactoringbot.model.exceptions.GitWorkflowException;
+
+public class RefactoringPipelineTest {
+
+	private ExecutorService pushExecutor;
+	private ExecutorService publishExecutor;
+
+	@Before
+	public void setUp() {
+		pushExecutor = Executors.newFixedThreadPool(2);
+		publishExecutor = Executors.newFixedThreadPool(2);
+	}
+
+	@After
+	public void tearDown() {
+		pushExecutor.shutdownNow();
+		publishExecutor.shutdownNow();
+	}
+
+	@Test
+	public void testFailedPushSkipsPublish() {
+		// arrange
+		RefactoringPipeline pipeline = new RefactoringPipeline(pushExecutor, publishExecutor, 2);
+		List<String> published = new CopyOnWriteArrayList<>();
+		List<Exception> failures = new CopyOnWriteArrayList<>();
+
+		// act
+		pipeline.submit("branch1", () -> {
+		}, () -> published.add("issue1"), failures::add);
+		pipeline.submit("branch2", () -> {
+			throw new GitWorkflowException("push failed");
+		}, () -> published.add("issue2"), failures::add);
+		pipeline.finish();
+
+		// assert
+		assertThat(published).containsExactly("issue1");
+		assertThat(failures).hasSize(1);
+		assertThat(failures.get(0)).isInstanceOf(GitWorkflowException.class).hasMessage("push failed");
+	}
+
+	@Test
+	public void testSubmitBlocksWhileStagesAreFull() throws Exception {
+		// arrange
+		RefactoringPipeline pipeline = new RefactoringPipeline(pushExecutor, publishExecutor, 1);
+		CountDownLatch releasePush = new CountDownLatch(1);
+		AtomicInteger submitted = new AtomicInteger();
+		pipeline.submit("branch1", () -> releasePush.await(), () -> {
+		}, e -> {
+		});
+		Thread run = new Thread(() -> {
+			pipeline.submit("branch2", () -> {
+			}, () -> {
+			}, e -> {
+			});
+			submitted.incrementAndGet();
+		});
+
+		// act
+		run.start();
+		run.join(200);
+		int submittedWhileFull = submitted.get();
+		releasePush.countDown();
+		run.join(5000);
+
+		// assert
+		assertThat(submittedWhileFull).isZero();
+		assertThat(submitted.get()).isEqualTo(1);
+		pipeline.finish();
+	}
+
+	@Test
+	public void testWorkspaceTasksRunOnThreadOfRun() {
+		// arrange
+		RefactoringPipeline pipeline = new RefactoringPipeline(pushExecutor, publishExecutor, 2);
+		List<Thread> taskThreads = new CopyOnWriteArrayList<>();
+
+		// act
+		pipeline.submit("branch1", () -> {
+			pipeline.queueWorkspaceTask(() -> taskThreads.add(Thread.currentThread()));
+			throw new GitWorkflowException("push failed");
+		}, () -> {
+		}, e -> {
+		});
+		pipeline.finish();
+
+		// assert
+		assertThat(taskThreads).containsExactly(Thread.currentThread());
+	}
+
+	@Test
+	public void testAwaitPushRunsTasksOfFailedPushOfBranch() {
+		// arrange
+		RefactoringPipeline pipeline = new RefactoringPipeline(pushExecutor, publishExecutor, 2);
+		CountDownLatch releasePush = new CountDownLatch(1);
+		List<String> tasks = new CopyOnWriteArrayList<>();
+		pipeline.submit("branch1", () -> {
+			releasePush.await();
+			pipeline.queueWorkspaceTask(() -> tasks.add("reset branch1"));
+			throw new GitWorkflowException("push failed");
+		}, () -> {
+		}, e -> {
+		});
+
+		// act
+		new Thread(releasePush::countDown).start();
+		pipeline.awaitPush("branch1");
+
+		// assert
+		assertThat(tasks).containsExactly("reset branch1");
+		pipeline.finish();
+	}
+}
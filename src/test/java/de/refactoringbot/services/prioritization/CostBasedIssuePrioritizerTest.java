@@ -0,0 +1,89 @@
+package de.refactoringbot.services.prioritization;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import de.refactoringbot.configuration.BotConfiguration;
+import de.refactoringbot.model.botissue.BotIssue;
+import de.refactoringbot.model.configuration.GitConfiguration;
+import de.refactoringbot.model.prioritization.IssueCostEstimate;
+import de.refactoringbot.refactoring.RefactoringOperations;
+
+public class CostBasedIssuePrioritizerTest {
+
+	@Rule
+	public TemporaryFolder repoFolder = new TemporaryFolder();
+
+	private CostBasedIssuePrioritizer prioritizer;
+	private GitConfiguration gitConfig;
+	private List<String> allJavaFiles;
+
+	@Before
+	public void setUp() throws Exception {
+		prioritizer = new CostBasedIssuePrioritizer();
+		prioritizer.botConfig = new BotConfiguration();
+		gitConfig = new GitConfiguration();
+		gitConfig.setRepoFolder(repoFolder.getRoot().getAbsolutePath());
+
+		File smallFile = repoFolder.newFile("Small.java");
+		FileUtils.write(smallFile, "public class Small {}", StandardCharsets.UTF_8);
+		File largeFile = repoFolder.newFile("Large.java");
+		char[] content = new char[50000];
+		Arrays.fill(content, ' ');
+		FileUtils.write(largeFile, "public class Large {" + new String(content) + "}", StandardCharsets.UTF_8);
+		allJavaFiles = Arrays.asList(smallFile.getAbsolutePath(), largeFile.getAbsolutePath());
+	}
+
+	@Test
+	public void testCheapIssuesFirst() {
+		// arrange
+		List<BotIssue> issues = Arrays.asList(createIssue("1", RefactoringOperations.REMOVE_PARAMETER, "Small.java"),
+				createIssue("2", RefactoringOperations.ADD_OVERRIDE_ANNOTATION, "Large.java"),
+				createIssue("3", RefactoringOperations.REORDER_MODIFIER, "Small.java"),
+				createIssue("4", RefactoringOperations.ADD_OVERRIDE_ANNOTATION, "Small.java"));
+
+		// act
+		List<String> order = new ArrayList<>();
+		Iterator<BotIssue> prioritizedIssues = prioritizer.prioritize(issues.iterator(), gitConfig);
+		prioritizedIssues.forEachRemaining(issue -> order.add(issue.getCommentServiceID()));
+
+		// assert
+		assertThat(order).containsExactly("3", "4", "2", "1");
+	}
+
+	@Test
+	public void testEstimateProjectWideFanOut() {
+		// arrange
+		List<BotIssue> issues = Arrays.asList(createIssue("1", RefactoringOperations.RENAME_METHOD, "Small.java"),
+				createIssue("2", RefactoringOperations.ADD_OVERRIDE_ANNOTATION, "Small.java"));
+
+		// act
+		List<IssueCostEstimate> estimates = prioritizer.estimate(issues.iterator(), gitConfig, 10);
+
+		// assert
+		assertThat(estimates).extracting(IssueCostEstimate::getCommentServiceID).containsExactly("2", "1");
+		assertThat(estimates).extracting(IssueCostEstimate::getFanOut).containsExactly(1, 2);
+		assertThat(estimates.get(1).getCost()).isGreaterThan(estimates.get(0).getCost() + 3 * 50000);
+	}
+
+	private BotIssue createIssue(String id, String operation, String filePath) {
+		BotIssue issue = new BotIssue();
+		issue.setCommentServiceID(id);
+		issue.setRefactoringOperation(operation);
+		issue.setFilePath(filePath);
+		issue.setAllJavaFiles(allJavaFiles);
+		return issue;
+	}
+}
@@ -0,0 +1,93 @@
+package de.refactoringbot.services.sonarqube;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+
+import de.refactoringbot.api.sonarqube.SonarIssuePageIterator;
+import de.refactoringbot.api.sonarqube.SonarQubeDataGrabber;
+import de.refactoringbot.model.analysisissue.AnalysisIssueRepository;
+import de.refactoringbot.model.configuration.GitConfiguration;
+import de.refactoringbot.model.sonarqube.SonarIssue;
+import de.refactoringbot.model.synccursor.SyncCursor;
+import de.refactoringbot.model.synccursor.SyncCursorRepository;
+import de.refactoringbot.services.main.RefactoredIssueFilter;
+import de.refactoringbot.services.main.RefactoredIssuesService;
+
+public class SonarQubeIssueStoreTest {
+
+	private SonarQubeIssueStore store = new SonarQubeIssueStore();
+	private GitConfiguration gitConfig = Mockito.mock(GitConfiguration.class);
+
+	@Before
+	public void setUp() {
+		store.sonarQubeGrabber = Mockito.mock(SonarQubeDataGrabber.class);
+		store.analysisIssueRepo = Mockito.mock(AnalysisIssueRepository.class);
+		store.refactoredIssuesService = Mockito.mock(RefactoredIssuesService.class);
+		store.cursorRepo = Mockito.mock(SyncCursorRepository.class);
+
+		Mockito.when(gitConfig.getConfigurationId()).thenReturn(1L);
+		Mockito.when(gitConfig.getAnalysisServiceProjectKey()).thenReturn("project");
+		Mockito.when(store.refactoredIssuesService.createFilter(gitConfig))
+				.thenReturn(new RefactoredIssueFilter(Collections.emptyList()));
+		Mockito.when(store.analysisIssueRepo.getIssue(ArgumentMatchers.any(), ArgumentMatchers.any()))
+				.thenReturn(Optional.empty());
+		Mockito.when(store.cursorRepo.getCursor(ArgumentMatchers.any(), ArgumentMatchers.any()))
+				.thenReturn(Optional.empty());
+	}
+
+	@Test
+	public void testFirstSyncIsReadInWindows() {
+		// arrange
+		SonarIssuePageIterator firstWindow = mockIssues(true,
+				createIssue("issue1", "2019-01-01T10:00:00+0000", "2019-03-01T10:00:00+0000"),
+				createIssue("issue2", "2019-02-01T10:00:00+0000", "2019-02-01T10:00:00+0000"));
+		SonarIssuePageIterator secondWindow = mockIssues(false,
+				createIssue("issue2", "2019-02-01T10:00:00+0000", "2019-02-01T10:00:00+0000"),
+				createIssue("issue3", "2019-02-02T10:00:00+0000", "2019-02-02T10:00:00+0000"));
+		Mockito.when(store.sonarQubeGrabber.streamIssues(ArgumentMatchers.eq("project"), ArgumentMatchers.anyList(),
+				ArgumentMatchers.isNull())).thenReturn(firstWindow);
+		Mockito.when(store.sonarQubeGrabber.streamIssues(ArgumentMatchers.eq("project"), ArgumentMatchers.anyList(),
+				ArgumentMatchers.eq("2019-02-01T10:00:00+0000"))).thenReturn(secondWindow);
+
+		// act
+		store.sync(gitConfig);
+
+		// assert
+		ArgumentCaptor<SyncCursor> cursors = ArgumentCaptor.forClass(SyncCursor.class);
+		Mockito.verify(store.cursorRepo, Mockito.times(2)).save(cursors.capture());
+		assertThat(cursors.getAllValues().get(0).getType()).isEqualTo(SyncCursor.ANALYSIS_ISSUES_WINDOW);
+		assertThat(cursors.getAllValues().get(0).getLastTimestamp()).isEqualTo("2019-02-01T10:00:00+0000");
+		assertThat(cursors.getAllValues().get(1).getType()).isEqualTo(SyncCursor.ANALYSIS_ISSUES);
+		assertThat(cursors.getAllValues().get(1).getLastTimestamp()).isEqualTo("2019-03-01T10:00:00+0000");
+	}
+
+	private SonarIssue createIssue(String key, String creationDate, String updateDate) {
+		SonarIssue issue = new SonarIssue();
+		issue.setKey(key);
+		issue.setStatus("OPEN");
+		issue.setCreationDate(creationDate);
+		issue.setUpdateDate(updateDate);
+		return issue;
+	}
+
+	private SonarIssuePageIterator mockIssues(boolean truncated, SonarIssue... issues) {
+		List<SonarIssue> issueList = Arrays.asList(issues);
+		Iterator<SonarIssue> iterator = issueList.iterator();
+		SonarIssuePageIterator pages = Mockito.mock(SonarIssuePageIterator.class);
+		Mockito.when(pages.hasNext()).thenAnswer(invocation -> iterator.hasNext());
+		Mockito.when(pages.next()).thenAnswer(invocation -> iterator.next());
+		Mockito.when(pages.isTruncated()).thenReturn(truncated);
+		return pages;
+	}
+}